@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The sizes of synthetic XHTML fragments used by benchmarks.
+ */
+
+public enum MinBenchmarkSize
+{
+  /**
+   * A fragment of around 1KiB, typical of a header.
+   */
+
+  SMALL(16),
+
+  /**
+   * A fragment of around 80KiB, typical of a long features list.
+   */
+
+  MEDIUM(1024),
+
+  /**
+   * A fragment of around 5MiB.
+   */
+
+  HUGE(65536);
+
+  private final int paragraphs;
+
+  MinBenchmarkSize(
+    final int inParagraphs)
+  {
+    this.paragraphs = inParagraphs;
+  }
+
+  /**
+   * @return The text of a fragment of this size
+   */
+
+  public String fragment()
+  {
+    final var text = new StringBuilder(this.paragraphs * 80);
+    text.append("<div xmlns=\"http://www.w3.org/1999/xhtml\">\n");
+    for (int index = 0; index < this.paragraphs; ++index) {
+      text.append("  <p>Paragraph ")
+        .append(index)
+        .append(" with a <a href=\"https://www.example.com/\">link</a>.</p>\n");
+    }
+    text.append("</div>\n");
+    return text.toString();
+  }
+
+  /**
+   * Write a fragment of this size to a new file in {@code directory}.
+   *
+   * @param directory The directory
+   * @param name      The file name
+   *
+   * @return The file
+   *
+   * @throws IOException On errors
+   */
+
+  public Path writeFragment(
+    final Path directory,
+    final String name)
+    throws IOException
+  {
+    final var file = directory.resolve(name);
+    Files.writeString(file, this.fragment(), UTF_8);
+    return file;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.benchmarks;
+
+import com.io7m.changelog.core.CChangelog;
+import com.io7m.changelog.xml.api.CXHTMLChangelogWriterProviderType;
+import com.io7m.minisite.core.MinChangesConfiguration;
+import com.io7m.minisite.core.MinProviderRegistry;
+import com.io7m.minisite.core.internal.MinChangelogs;
+import com.io7m.minisite.core.internal.MinXHTMLChangelogs;
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The cost of embedding the XHTML rendering of synthetic changelogs of
+ * growing size into a document, both by buffering the serialized changelog
+ * in a byte array and parsing a copy of it (the behaviour prior to the
+ * introduction of {@code MinPipe}), and by parsing the changelog through a
+ * pipe as it is serialized.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MinChangelogEmbedBenchmark
+{
+  /**
+   * The number of releases in the changelog.
+   */
+
+  @Param({"100", "1000", "10000"})
+  public int releases;
+
+  private Path file;
+  private CChangelog changelog;
+  private CXHTMLChangelogWriterProviderType writerProvider;
+  private Document document;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MinChangelogEmbedBenchmark()
+  {
+
+  }
+
+  /**
+   * Write and parse a synthetic changelog.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.file = Files.createTempFile("minisite-benchmark-", ".xml");
+    Files.writeString(this.file, syntheticChangelog(this.releases), UTF_8);
+
+    final var registry = MinProviderRegistry.discover();
+    this.changelog =
+      MinChangelogs.parse(
+        registry.changelogParser(),
+        MinChangesConfiguration.of(this.file, "nobody@example.com"));
+    this.writerProvider =
+      registry.changelogXHTMLWriter();
+    this.document =
+      MinXMLParse.newDocument();
+  }
+
+  /**
+   * Delete the temporary file.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    Files.deleteIfExists(this.file);
+  }
+
+  static String syntheticChangelog(
+    final int releases)
+  {
+    final var text = new StringBuilder(releases * 512);
+    text.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    text.append(
+      "<c:changelog xmlns:c=\"urn:com.io7m.changelog:4.0\" project=\"synthetic\">\n");
+    text.append("  <c:releases>\n");
+
+    for (int index = 0; index < releases; ++index) {
+      final var date =
+        LocalDate.of(2000, 1, 1)
+          .plusDays(index)
+          + "T00:00:00+00:00";
+
+      text.append("    <c:release date=\"")
+        .append(date)
+        .append("\" ticket-system=\"t\" version=\"1.")
+        .append(index / 100)
+        .append('.')
+        .append(index % 100)
+        .append("\">\n");
+      text.append("      <c:changes>\n");
+      for (int change = 0; change < 3; ++change) {
+        text.append("        <c:change date=\"")
+          .append(date)
+          .append("\" summary=\"Change ")
+          .append(change)
+          .append(" in release ")
+          .append(index)
+          .append(".\"/>\n");
+      }
+      text.append("      </c:changes>\n");
+      text.append("    </c:release>\n");
+    }
+
+    text.append("  </c:releases>\n");
+    text.append("  <c:ticket-systems>\n");
+    text.append(
+      "    <c:ticket-system default=\"true\" id=\"t\" url=\"https://www.example.com/issues/\"/>\n");
+    text.append("  </c:ticket-systems>\n");
+    text.append("</c:changelog>\n");
+    return text.toString();
+  }
+
+  /**
+   * Serialize the changelog to a byte array and parse a copy of it.
+   *
+   * @return The parsed element
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public Element embedBuffered()
+    throws Exception
+  {
+    try (var bao = new ByteArrayOutputStream()) {
+      this.writerProvider.create(URI.create("urn:stdout"), bao)
+        .write(this.changelog);
+
+      try (var bai = new ByteArrayInputStream(bao.toByteArray())) {
+        return MinXMLParse.parseStreamElement(this.document, bai);
+      }
+    }
+  }
+
+  /**
+   * Serialize and parse the changelog through a pipe.
+   *
+   * @return The changelog section
+   */
+
+  @Benchmark
+  public Element embedPiped()
+  {
+    return MinXHTMLChangelogs.changelog(
+      this.document,
+      this.writerProvider,
+      this.changelog);
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.benchmarks;
+
+import com.io7m.minisite.core.MinResourceCopier;
+import com.io7m.minisite.core.MinResourceCopyConfiguration;
+import com.io7m.minisite.core.MinResourceCopyStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of copying wide and deep resource trees, both into an empty
+ * output directory and over an output directory that is already up to
+ * date.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class MinResourceCopyBenchmark
+{
+  /**
+   * The shape of a resource tree.
+   */
+
+  public enum Shape
+  {
+    /**
+     * A single directory containing 1024 files.
+     */
+
+    WIDE,
+
+    /**
+     * A chain of 64 nested directories, each containing 4 files.
+     */
+
+    DEEP
+  }
+
+  /**
+   * The tree shape.
+   */
+
+  @Param
+  public Shape shape;
+
+  private Path directory;
+  private Path source;
+  private Path unchanged;
+  private int outputs;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MinResourceCopyBenchmark()
+  {
+
+  }
+
+  private static void writeFiles(
+    final Path directory,
+    final int count)
+    throws IOException
+  {
+    Files.createDirectories(directory);
+    final var content = new byte[256];
+    for (int index = 0; index < count; ++index) {
+      Files.write(directory.resolve("file" + index + ".txt"), content);
+    }
+  }
+
+  private static void deleteTree(
+    final Path path)
+    throws IOException
+  {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (var files = Files.walk(path)) {
+      for (final var file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Create the source tree and an up-to-date copy of it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory = Files.createTempDirectory("minisite-benchmark-");
+    this.source = this.directory.resolve("source");
+
+    switch (this.shape) {
+      case WIDE -> writeFiles(this.source, 1024);
+      case DEEP -> {
+        var current = this.source;
+        for (int depth = 0; depth < 64; ++depth) {
+          writeFiles(current, 4);
+          current = current.resolve("d" + depth);
+        }
+      }
+    }
+
+    this.unchanged = this.directory.resolve("unchanged");
+    MinResourceCopier.copy(
+      MinResourceCopyConfiguration.of(this.source, this.unchanged));
+  }
+
+  /**
+   * Delete the fresh copies made during an iteration.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Iteration)
+  public void tearDownIteration()
+    throws Exception
+  {
+    for (int index = 0; index < this.outputs; ++index) {
+      deleteTree(this.directory.resolve("fresh" + index));
+    }
+    this.outputs = 0;
+  }
+
+  /**
+   * Delete all temporary files.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    deleteTree(this.directory);
+  }
+
+  /**
+   * Copy the tree into a new, empty directory.
+   *
+   * @return The copy statistics
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public MinResourceCopyStatistics copyFresh()
+    throws Exception
+  {
+    final var output = this.directory.resolve("fresh" + this.outputs);
+    ++this.outputs;
+    return MinResourceCopier.copy(
+      MinResourceCopyConfiguration.of(this.source, output));
+  }
+
+  /**
+   * Copy the tree over an up-to-date copy of itself.
+   *
+   * @return The copy statistics
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public MinResourceCopyStatistics copyUnchanged()
+    throws Exception
+  {
+    return MinResourceCopier.copy(
+      MinResourceCopyConfiguration.of(this.source, this.unchanged));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.benchmarks;
+
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The cost of serializing a parsed document of each size with an identity
+ * transformer, both with a transformer created from a freshly looked-up
+ * factory per serialization (the behaviour prior to the introduction of
+ * per-thread transformers in {@code MinSiteWriter}) and with a single
+ * reused transformer.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MinSerializeBenchmark
+{
+  /**
+   * The document size.
+   */
+
+  @Param
+  public MinBenchmarkSize size;
+
+  private Document document;
+  private Transformer transformer;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MinSerializeBenchmark()
+  {
+
+  }
+
+  /**
+   * Parse a document to serialize.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    final var bytes = this.size.fragment().getBytes(UTF_8);
+    try (var stream = new ByteArrayInputStream(bytes)) {
+      this.document = MinXMLParse.parseStream(stream);
+    }
+    this.transformer = TransformerFactory.newInstance().newTransformer();
+  }
+
+  /**
+   * Serialize the document with a new transformer.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void serializeWithNewTransformer()
+    throws Exception
+  {
+    final var newTransformer =
+      TransformerFactory.newInstance().newTransformer();
+    newTransformer.transform(
+      new DOMSource(this.document),
+      new StreamResult(OutputStream.nullOutputStream()));
+  }
+
+  /**
+   * Serialize the document with a reused transformer.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void serializeReused()
+    throws Exception
+  {
+    try {
+      this.transformer.transform(
+        new DOMSource(this.document),
+        new StreamResult(OutputStream.nullOutputStream()));
+    } finally {
+      this.transformer.reset();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.benchmarks;
+
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinSite;
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLOutputFactory;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of generating a complete page from overview, features and
+ * documentation fragments of each size, both as a DOM and by writing
+ * directly to a discarding stream writer. The DOM is generated with
+ * sections evaluated one at a time and concurrently.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MinSiteDocumentBenchmark
+{
+  /**
+   * The fragment size.
+   */
+
+  @Param
+  public MinBenchmarkSize size;
+
+  /**
+   * The maximum number of sections evaluated at once.
+   */
+
+  @Param({"1", "4"})
+  public int sectionParallelism;
+
+  private Path directory;
+  private MinSite site;
+  private XMLOutputFactory outputs;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MinSiteDocumentBenchmark()
+  {
+
+  }
+
+  /**
+   * Write fragments to a temporary directory.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      Files.createTempDirectory("minisite-benchmark-");
+
+    final var configuration =
+      MinConfiguration.builder()
+        .setProjectName("com.io7m.minisite.benchmark")
+        .setProjectGroupName("com.io7m.minisite")
+        .setRelease("1.0.0")
+        .setCentralReposPath("com/io7m/minisite")
+        .setOverview(
+          this.size.writeFragment(this.directory, "overview.xhtml"))
+        .setFeatures(
+          this.size.writeFragment(this.directory, "features.xhtml"))
+        .setDocumentation(
+          this.size.writeFragment(this.directory, "documentation.xhtml"))
+        .setSectionParallelism(this.sectionParallelism)
+        .build();
+
+    this.site = MinSite.create(configuration);
+    this.outputs = XMLOutputFactory.newFactory();
+  }
+
+  /**
+   * Delete the temporary files.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    try (var files = Files.list(this.directory)) {
+      for (final var file : files.toList()) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(this.directory);
+  }
+
+  /**
+   * Generate the page as a DOM.
+   *
+   * @return The page element
+   */
+
+  @Benchmark
+  public Element document()
+  {
+    return this.site.document(MinXMLParse.newDocument());
+  }
+
+  /**
+   * Write the page to a discarding stream writer.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void write()
+    throws Exception
+  {
+    final var writer =
+      this.outputs.createXMLStreamWriter(OutputStream.nullOutputStream());
+    try {
+      this.site.write(writer);
+    } finally {
+      writer.close();
+    }
+  }
+}
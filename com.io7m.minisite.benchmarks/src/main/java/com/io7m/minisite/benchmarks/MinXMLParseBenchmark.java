@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.benchmarks;
+
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-fragment cost of parsing XHTML fragments of each size, both with
+ * a freshly configured {@link DocumentBuilderFactory} per parse (the
+ * behaviour prior to the introduction of pooled document builders) and
+ * with the pooled builders in {@link MinXMLParse}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinXMLParseBenchmark
+{
+  /**
+   * The fragment size.
+   */
+
+  @Param
+  public MinBenchmarkSize size;
+
+  private Path directory;
+  private Path file;
+  private Document document;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MinXMLParseBenchmark()
+  {
+
+  }
+
+  /**
+   * Write a fragment to a temporary file.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory = Files.createTempDirectory("minisite-benchmark-");
+    this.file = this.size.writeFragment(this.directory, "fragment.xhtml");
+
+    this.document =
+      DocumentBuilderFactory.newInstance()
+        .newDocumentBuilder()
+        .newDocument();
+  }
+
+  /**
+   * Delete the temporary file.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    Files.deleteIfExists(this.file);
+    Files.deleteIfExists(this.directory);
+  }
+
+  /**
+   * Parse a fragment with a new factory and builder per parse.
+   *
+   * @return The parsed element
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public Element parseWithNewFactory()
+    throws Exception
+  {
+    try (var stream = Files.newInputStream(this.file)) {
+      final var docBuilderFactory =
+        DocumentBuilderFactory.newInstance();
+
+      docBuilderFactory.setXIncludeAware(false);
+      docBuilderFactory.setExpandEntityReferences(false);
+      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+
+      final var docBuilder =
+        docBuilderFactory.newDocumentBuilder();
+      final var root =
+        docBuilder.parse(stream).getDocumentElement();
+
+      this.document.adoptNode(root);
+      return root;
+    }
+  }
+
+  /**
+   * Parse a fragment with the pooled per-thread builder.
+   *
+   * @return The parsed element
+   */
+
+  @Benchmark
+  public Element parsePooled()
+  {
+    return MinXMLParse.parseFileUnchecked(this.document, this.file);
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to give the assets of a generated site content-hashed names,
+ * so that they can be served with long cache lifetimes. An asset
+ * {@code name.ext} is renamed to {@code name.<hash>.ext}, and any
+ * differently hashed copies left by earlier builds are deleted. Assets that
+ * do not exist are ignored.
+ */
+
+public final class MinAssetFingerprinter
+{
+  /**
+   * The name of the manifest file written to the output directory.
+   */
+
+  public static final String MANIFEST_FILE = "asset-manifest.json";
+
+  private static final String BUNDLE_NAME = "bundle.css";
+  private static final int HASH_BYTES = 8;
+
+  private MinAssetFingerprinter()
+  {
+
+  }
+
+  /**
+   * Fingerprint the assets in a site output directory.
+   *
+   * @param configuration The configuration
+   *
+   * @return A manifest of the renamed assets
+   *
+   * @throws IOException On errors
+   */
+
+  public static MinAssetManifest fingerprint(
+    final MinAssetFingerprintConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var directory = configuration.directory();
+    final var names = new TreeMap<String, String>();
+
+    if (configuration.bundleStyles()) {
+      bundle(directory, configuration, names);
+    } else {
+      for (final var style : configuration.styles()) {
+        rename(directory, style, names);
+      }
+    }
+
+    for (final var asset : configuration.assets()) {
+      rename(directory, asset, names);
+    }
+
+    return MinAssetManifest.of(names);
+  }
+
+  /**
+   * Write a manifest as a JSON object mapping original names to
+   * fingerprinted names.
+   *
+   * @param manifest The manifest
+   * @param file     The output file
+   *
+   * @throws IOException On errors
+   */
+
+  public static void writeManifest(
+    final MinAssetManifest manifest,
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(manifest, "manifest");
+    Objects.requireNonNull(file, "file");
+
+    final var text = new StringBuilder(256);
+    text.append('{');
+    var first = true;
+    for (final var entry : new TreeMap<>(manifest.names()).entrySet()) {
+      text.append(first ? "\n  " : ",\n  ");
+      first = false;
+      MinJSON.appendString(text, entry.getKey());
+      text.append(": ");
+      MinJSON.appendString(text, entry.getValue());
+    }
+    text.append(first ? "}\n" : "\n}\n");
+
+    MinOutputFiles.replaceIfChanged(text.toString().getBytes(UTF_8), file);
+  }
+
+  private static MessageDigest digest()
+  {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hash(
+    final byte[] data)
+  {
+    final var bytes = digest().digest(data);
+    return HexFormat.of().formatHex(bytes, 0, HASH_BYTES);
+  }
+
+  /**
+   * @return The name {@code name} with {@code hash} inserted before the
+   * extension
+   */
+
+  private static String hashedName(
+    final String name,
+    final String hash)
+  {
+    final var dot = name.lastIndexOf('.');
+    if (dot <= 0) {
+      return name + "." + hash;
+    }
+    return name.substring(0, dot) + "." + hash + name.substring(dot);
+  }
+
+  private static void rename(
+    final Path directory,
+    final String name,
+    final Map<String, String> names)
+    throws IOException
+  {
+    final var file = directory.resolve(name);
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+
+    final var target =
+      file.resolveSibling(
+        hashedName(
+          file.getFileName().toString(),
+          hash(Files.readAllBytes(file))));
+
+    /*
+     * A target with the same content is left untouched, so that unchanged
+     * assets keep their modification times (and their sidecars).
+     */
+
+    deleteStale(file, target);
+    MinOutputFiles.replaceIfChanged(file, target);
+    names.put(name, relative(directory, target));
+  }
+
+  private static void bundle(
+    final Path directory,
+    final MinAssetFingerprintConfiguration configuration,
+    final Map<String, String> names)
+    throws IOException
+  {
+    final var styles =
+      configuration.styles()
+        .stream()
+        .filter(style -> Files.isRegularFile(directory.resolve(style)))
+        .toList();
+
+    if (styles.isEmpty()) {
+      return;
+    }
+
+    /*
+     * Each stylesheet is followed by a newline so that a final line without
+     * a terminator cannot run into the next stylesheet.
+     */
+
+    final var text = new StringBuilder(4096);
+    for (final var style : styles) {
+      text.append(Files.readString(directory.resolve(style), UTF_8));
+      text.append('\n');
+    }
+
+    final var data = text.toString().getBytes(UTF_8);
+    final var bundle = directory.resolve(BUNDLE_NAME);
+    final var target =
+      bundle.resolveSibling(hashedName(BUNDLE_NAME, hash(data)));
+
+    deleteStale(bundle, target);
+    MinOutputFiles.replaceIfChanged(data, target);
+
+    final var targetName = relative(directory, target);
+    for (final var style : styles) {
+      Files.delete(directory.resolve(style));
+      names.put(style, targetName);
+    }
+  }
+
+  /**
+   * Delete the fingerprinted copies of {@code file} other than
+   * {@code target}, along with any precompressed sidecars of those copies
+   * or of {@code file} itself.
+   */
+
+  private static void deleteStale(
+    final Path file,
+    final Path target)
+    throws IOException
+  {
+    final var name = file.getFileName().toString();
+    final var dot = name.lastIndexOf('.');
+    final var stem = dot <= 0 ? name : name.substring(0, dot);
+    final var extension = dot <= 0 ? "" : name.substring(dot);
+    final var pattern =
+      Pattern.compile(
+        Pattern.quote(stem)
+          + "\\.[0-9a-f]{" + HASH_BYTES * 2 + "}"
+          + Pattern.quote(extension)
+          + "(\\.gz)?");
+
+    final var targetName = target.getFileName().toString();
+    Files.deleteIfExists(file.resolveSibling(name + ".gz"));
+
+    try (var siblings = Files.list(file.getParent())) {
+      for (final var sibling : siblings.toList()) {
+        final var siblingName = sibling.getFileName().toString();
+        if (siblingName.equals(targetName)
+          || siblingName.equals(targetName + ".gz")) {
+          continue;
+        }
+        if (pattern.matcher(siblingName).matches()) {
+          Files.deleteIfExists(sibling);
+        }
+      }
+    }
+  }
+
+  private static String relative(
+    final Path directory,
+    final Path file)
+  {
+    return directory.relativize(file)
+      .toString()
+      .replace(file.getFileSystem().getSeparator(), "/");
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A renderer for many sites at once. Sites in a batch are rendered across
+ * a fixed pool of threads, share a single provider registry, and share
+ * parsed copies of any fragment files (such as a common header) that more
+ * than one site references. The fragment cache outlives each batch, so
+ * unchanged fragments are not parsed again by later renders.
+ */
+
+public final class MinBatchRenderer
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinBatchRenderer.class);
+
+  private final MinProviderRegistry registry;
+  private final MinFragmentCache fragments;
+  private final int threads;
+
+  private MinBatchRenderer(
+    final MinProviderRegistry inRegistry,
+    final MinFragmentCache inFragments,
+    final int inThreads)
+  {
+    this.registry = Objects.requireNonNull(inRegistry, "registry");
+    this.fragments = Objects.requireNonNull(inFragments, "fragments");
+    this.threads = inThreads;
+  }
+
+  /**
+   * Create a renderer that uses the discovered providers and one thread per
+   * available processor.
+   *
+   * @return A renderer
+   */
+
+  public static MinBatchRenderer create()
+  {
+    return create(
+      MinProviderRegistry.discovered(),
+      Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create a renderer.
+   *
+   * @param registry The provider registry
+   * @param threads  The maximum number of sites rendered concurrently
+   *
+   * @return A renderer
+   */
+
+  public static MinBatchRenderer create(
+    final MinProviderRegistry registry,
+    final int threads)
+  {
+    return create(registry, MinFragmentCache.create(), threads);
+  }
+
+  /**
+   * Create a renderer.
+   *
+   * @param registry  The provider registry
+   * @param fragments The fragment cache
+   * @param threads   The maximum number of sites rendered concurrently
+   *
+   * @return A renderer
+   */
+
+  public static MinBatchRenderer create(
+    final MinProviderRegistry registry,
+    final MinFragmentCache fragments,
+    final int threads)
+  {
+    if (threads < 1) {
+      throw new IllegalArgumentException(
+        "Threads must be positive, but was " + threads);
+    }
+    return new MinBatchRenderer(registry, fragments, threads);
+  }
+
+  /**
+   * @return The fragment cache used by the renderer
+   */
+
+  public MinFragmentCache fragments()
+  {
+    return this.fragments;
+  }
+
+  /**
+   * Render a single site on the current thread.
+   *
+   * @param job The job
+   *
+   * @return The result of rendering
+   */
+
+  public MinRenderResult render(
+    final MinRenderJob job)
+  {
+    Objects.requireNonNull(job, "job");
+    return this.renderTimed(
+      job,
+      MinSite.create(job.configuration(), this.registry, this.fragments));
+  }
+
+  /**
+   * Render all the given sites. Failures are reported in the results rather
+   * than raised, so that one broken site does not prevent the others from
+   * being rendered.
+   *
+   * @param jobs The jobs
+   *
+   * @return The results of rendering, in the order of {@code jobs}
+   */
+
+  public List<MinRenderResult> renderAll(
+    final Collection<MinRenderJob> jobs)
+  {
+    Objects.requireNonNull(jobs, "jobs");
+
+    if (jobs.isEmpty()) {
+      return List.of();
+    }
+
+    final var futures =
+      new ArrayList<Future<MinRenderResult>>(jobs.size());
+    final var poolSize =
+      Math.min(this.threads, jobs.size());
+
+    try (var executor = Executors.newFixedThreadPool(poolSize)) {
+      for (final var job : jobs) {
+        Objects.requireNonNull(job, "job");
+        final var site =
+          MinSite.create(job.configuration(), this.registry, this.fragments);
+        futures.add(executor.submit(() -> this.renderTimed(job, site)));
+      }
+    }
+
+    /*
+     * Exceptions are captured in the results, so a job only fails here
+     * with an Error such as OutOfMemoryError. That is raised as it is,
+     * rather than being hidden behind an exception without a cause.
+     */
+
+    final var results = new ArrayList<MinRenderResult>(futures.size());
+    for (final var future : futures) {
+      try {
+        results.add(future.get());
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof final Error error) {
+          throw error;
+        }
+        throw new IllegalStateException(cause);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+    return List.copyOf(results);
+  }
+
+  private MinRenderResult renderTimed(
+    final MinRenderJob job,
+    final MinSite site)
+  {
+    final var timeThen = System.nanoTime();
+    Optional<Exception> failure;
+    try {
+      renderSite(job, site);
+      failure = Optional.empty();
+    } catch (final Exception e) {
+      LOG.debug("{}: ", job.outputDirectory(), e);
+      failure = Optional.of(e);
+    }
+    final var time = Duration.ofNanos(System.nanoTime() - timeThen);
+    return MinRenderResult.of(job, time, failure);
+  }
+
+  private static void renderSite(
+    final MinRenderJob job,
+    final MinSite site)
+    throws IOException
+  {
+    final var config = job.configuration();
+    final var directory = job.outputDirectory();
+    Files.createDirectories(directory);
+
+    final var index = directory.resolve("index.xhtml");
+    final var writer = job.writer();
+    if (job.streaming()) {
+      MinSiteWriter.writeIndexStreaming(site, writer, index);
+    } else {
+      MinSiteWriter.writeIndex(site, writer, index);
+    }
+
+    if (config.cssGenerateStyle()) {
+      MinSiteWriter.writeStyle(writer, directory.resolve("minisite.css"));
+    }
+
+    if (site.hasChangelogArchive()) {
+      MinSiteWriter.writeChangelogArchive(site, writer, directory);
+    }
+
+    final var feedOpt = job.feedURI();
+    if (config.changelog().isPresent() && feedOpt.isPresent()) {
+      MinSiteWriter.writeAtom(
+        site,
+        feedOpt.get(),
+        job.feedUpdated().orElseGet(() -> ZonedDateTime.now(ZoneOffset.UTC)),
+        directory.resolve("releases.atom"));
+      MinSiteWriter.writeAtomArchive(site, feedOpt.get(), directory);
+    }
+  }
+}
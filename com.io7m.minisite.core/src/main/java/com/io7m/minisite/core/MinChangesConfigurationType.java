@@ -42,4 +42,47 @@ public interface MinChangesConfigurationType
 
   @Value.Parameter
   String feedEmail();
+
+  /**
+   * @return The number of most recent releases shown on the main page; if
+   * zero, the entire changelog is shown on the main page, and otherwise the
+   * entire changelog is published as a set of archive pages, one per year
+   */
+
+  @Value.Default
+  default int embeddedReleases()
+  {
+    return 0;
+  }
+
+  /**
+   * @return The maximum number of entries in the Atom feed; if zero, the feed
+   * contains every release, and otherwise older releases are published as
+   * archived feed documents
+   */
+
+  @Value.Default
+  default int feedEntries()
+  {
+    return 0;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.embeddedReleases() < 0) {
+      throw new IllegalArgumentException(
+        "Embedded releases must be non-negative, but was "
+          + this.embeddedReleases());
+    }
+    if (this.feedEntries() < 0) {
+      throw new IllegalArgumentException(
+        "Feed entries must be non-negative, but was "
+          + this.feedEntries());
+    }
+  }
 }
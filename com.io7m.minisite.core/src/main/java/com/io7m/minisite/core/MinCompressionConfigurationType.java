@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Configurations for writing precompressed sidecar files.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinCompressionConfigurationType
+{
+  /**
+   * @return The directory containing the files to be compressed
+   */
+
+  @Value.Parameter
+  Path directory();
+
+  /**
+   * @return The deflate compression level, from 1 to 9
+   */
+
+  @Value.Default
+  default int level()
+  {
+    return Deflater.BEST_COMPRESSION;
+  }
+
+  /**
+   * @return The size in bytes below which files are not compressed
+   */
+
+  @Value.Default
+  default long minimumSize()
+  {
+    return 256L;
+  }
+
+  /**
+   * @return The extensions of the files that will be compressed
+   */
+
+  @Value.Default
+  default List<String> extensions()
+  {
+    return List.of(
+      "atom",
+      "css",
+      "html",
+      "js",
+      "json",
+      "svg",
+      "txt",
+      "xhtml",
+      "xml"
+    );
+  }
+
+  /**
+   * @return The maximum number of files compressed at once
+   */
+
+  @Value.Default
+  default int parallelism()
+  {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.level() < Deflater.BEST_SPEED
+      || this.level() > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException(
+        "Compression level must be in [1, 9], but was " + this.level());
+    }
+    if (this.minimumSize() < 0L) {
+      throw new IllegalArgumentException(
+        "Minimum size must be non-negative, but was " + this.minimumSize());
+    }
+    if (this.parallelism() < 1) {
+      throw new IllegalArgumentException(
+        "Parallelism must be positive, but was " + this.parallelism());
+    }
+  }
+}
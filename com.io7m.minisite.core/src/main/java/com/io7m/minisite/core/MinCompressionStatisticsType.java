@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * Statistics describing a completed compression pass.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinCompressionStatisticsType
+{
+  /**
+   * @return The number of sidecar files written
+   */
+
+  @Value.Parameter
+  long filesCompressed();
+
+  /**
+   * @return The number of files whose sidecars were already up to date
+   */
+
+  @Value.Parameter
+  long filesUpToDate();
+
+  /**
+   * @return The number of files that were too small or did not compress
+   */
+
+  @Value.Parameter
+  long filesSkipped();
+
+  /**
+   * @return The number of bytes saved by the sidecars written
+   */
+
+  @Value.Parameter
+  long bytesSaved();
+}
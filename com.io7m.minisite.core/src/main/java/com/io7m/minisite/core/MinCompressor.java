@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A parallel writer of precompressed {@code .gz} sidecar files, suitable for
+ * web servers that can serve precompressed content directly. Each sidecar
+ * is given the modification time of the file it was compressed from, and
+ * is considered up to date for as long as the two times match. Sidecars are
+ * not written for files that are too small, or that do not get smaller when
+ * compressed; any stale sidecars for such files are deleted.
+ */
+
+public final class MinCompressor
+{
+  private static final String SUFFIX = ".gz";
+
+  private final MinCompressionConfiguration configuration;
+  private final Set<String> extensions;
+  private final AtomicLong filesCompressed;
+  private final AtomicLong filesUpToDate;
+  private final AtomicLong filesSkipped;
+  private final AtomicLong bytesSaved;
+
+  private MinCompressor(
+    final MinCompressionConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "Configuration");
+    this.extensions =
+      Set.copyOf(inConfiguration.extensions());
+    this.filesCompressed = new AtomicLong();
+    this.filesUpToDate = new AtomicLong();
+    this.filesSkipped = new AtomicLong();
+    this.bytesSaved = new AtomicLong();
+  }
+
+  /**
+   * Write sidecars for all eligible files in a directory tree.
+   *
+   * @param configuration The compression configuration
+   *
+   * @return Statistics describing the compression
+   *
+   * @throws IOException On errors
+   */
+
+  public static MinCompressionStatistics compress(
+    final MinCompressionConfiguration configuration)
+    throws IOException
+  {
+    return new MinCompressor(configuration).execute();
+  }
+
+  private MinCompressionStatistics execute()
+    throws IOException
+  {
+    final List<Path> files;
+    try (var stream = Files.walk(this.configuration.directory())) {
+      files = stream.filter(Files::isRegularFile)
+        .filter(this::isEligible)
+        .toList();
+    }
+
+    try (var executor =
+           Executors.newFixedThreadPool(this.configuration.parallelism())) {
+      final var futures = new ArrayList<Future<?>>(files.size());
+      for (final var file : files) {
+        futures.add(executor.submit(() -> {
+          try {
+            this.compressFile(file);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }));
+      }
+      MinFutures.awaitAllIO(futures);
+    }
+
+    return MinCompressionStatistics.of(
+      this.filesCompressed.get(),
+      this.filesUpToDate.get(),
+      this.filesSkipped.get(),
+      this.bytesSaved.get()
+    );
+  }
+
+  private boolean isEligible(
+    final Path file)
+  {
+    final var name = file.getFileName().toString();
+    if (name.startsWith(".")) {
+      return false;
+    }
+    final var dot = name.lastIndexOf('.');
+    if (dot == -1) {
+      return false;
+    }
+    return this.extensions.contains(
+      name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+
+  private void compressFile(
+    final Path file)
+    throws IOException
+  {
+    final var sidecar =
+      file.resolveSibling(file.getFileName() + SUFFIX);
+    final var attributes =
+      Files.readAttributes(file, BasicFileAttributes.class);
+
+    if (attributes.size() < this.configuration.minimumSize()) {
+      Files.deleteIfExists(sidecar);
+      this.filesSkipped.incrementAndGet();
+      return;
+    }
+
+    if (Files.isRegularFile(sidecar)
+      && Files.getLastModifiedTime(sidecar).toMillis()
+      == attributes.lastModifiedTime().toMillis()) {
+      this.filesUpToDate.incrementAndGet();
+      return;
+    }
+
+    final var temporary = MinOutputFiles.temporaryFor(sidecar);
+
+    try {
+      try (var output = new LevelGZIPOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temporary)),
+        this.configuration.level())) {
+        Files.copy(file, output);
+      }
+
+      final var compressedSize = Files.size(temporary);
+      if (compressedSize >= attributes.size()) {
+        Files.deleteIfExists(sidecar);
+        this.filesSkipped.incrementAndGet();
+        return;
+      }
+
+      Files.setLastModifiedTime(temporary, attributes.lastModifiedTime());
+      MinOutputFiles.replace(temporary, sidecar);
+      this.filesCompressed.incrementAndGet();
+      this.bytesSaved.addAndGet(attributes.size() - compressedSize);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * A gzip stream with a configurable deflate level.
+   */
+
+  private static final class LevelGZIPOutputStream extends GZIPOutputStream
+  {
+    LevelGZIPOutputStream(
+      final BufferedOutputStream output,
+      final int level)
+      throws IOException
+    {
+      super(output, 8192);
+      this.def.setLevel(level);
+    }
+  }
+}
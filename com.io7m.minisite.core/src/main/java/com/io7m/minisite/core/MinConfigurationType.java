@@ -21,6 +21,7 @@ import org.immutables.value.Value;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -143,4 +144,58 @@ public interface MinConfigurationType
   {
     return true;
   }
+
+  /**
+   * @return A mapping from the names of the stylesheets and assets
+   * referenced by the generated site to the names under which they are
+   * published; names that are not mapped are used as they are
+   */
+
+  Map<String, String> assetNames();
+
+  /**
+   * @return The line separator used in generated preformatted text
+   */
+
+  @Value.Default
+  default String lineSeparator()
+  {
+    return System.lineSeparator();
+  }
+
+  /**
+   * Sections are evaluated on the rendering thread by default. Callers that
+   * already render several sites concurrently, such as the batch renderer,
+   * would otherwise multiply their threads by this value for every render.
+   *
+   * @return The maximum number of sections of the main page evaluated at
+   * once
+   */
+
+  @Value.Default
+  default int sectionParallelism()
+  {
+    return 1;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final var separator = this.lineSeparator();
+    if (!"\n".equals(separator)
+      && !"\r\n".equals(separator)
+      && !"\r".equals(separator)) {
+      throw new IllegalArgumentException(
+        "Line separator must be one of LF, CRLF, or CR");
+    }
+    if (this.sectionParallelism() < 1) {
+      throw new IllegalArgumentException(
+        "Section parallelism must be positive, but was "
+          + this.sectionParallelism());
+    }
+  }
 }
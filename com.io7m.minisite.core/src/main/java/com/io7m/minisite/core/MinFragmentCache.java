@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.minisite.core.internal.MinXHTMLStreams;
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+import static com.io7m.minisite.core.MinFragmentValidation.CONTENT_HASH;
+
+/**
+ * A bounded cache of parsed XHTML fragments that may be shared between
+ * sites and between renders. Fragments are keyed by absolute path, and a
+ * cached fragment is discarded when its file changes. When the cache is
+ * full, the least recently used fragment is evicted. Sites receive copies
+ * of cached fragments, so the cache is safe to use from many threads.
+ * Fragments that have only been used by streaming writers are held as
+ * bytes and copied event by event, so they are never parsed into a tree.
+ */
+
+public final class MinFragmentCache
+{
+  private final MinFragmentCacheConfiguration configuration;
+  private final LinkedHashMap<Path, Entry> entries;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  private MinFragmentCache(
+    final MinFragmentCacheConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Create a new empty cache.
+   *
+   * @param configuration The cache configuration
+   *
+   * @return A new cache
+   */
+
+  public static MinFragmentCache create(
+    final MinFragmentCacheConfiguration configuration)
+  {
+    return new MinFragmentCache(configuration);
+  }
+
+  /**
+   * Create a new empty cache with the default configuration.
+   *
+   * @return A new cache
+   */
+
+  public static MinFragmentCache create()
+  {
+    return create(MinFragmentCacheConfiguration.builder().build());
+  }
+
+  /**
+   * @return The cache configuration
+   */
+
+  public MinFragmentCacheConfiguration configuration()
+  {
+    return this.configuration;
+  }
+
+  /**
+   * @return A snapshot of the cache counters
+   */
+
+  public MinFragmentCacheStatistics statistics()
+  {
+    synchronized (this.entries) {
+      return MinFragmentCacheStatistics.of(
+        this.hits,
+        this.misses,
+        this.evictions,
+        this.entries.size()
+      );
+    }
+  }
+
+  /**
+   * Discard all cached fragments. The counters are not reset.
+   */
+
+  public void clear()
+  {
+    synchronized (this.entries) {
+      this.entries.clear();
+    }
+  }
+
+  /**
+   * Import a copy of the root element of the given file into
+   * {@code document}.
+   *
+   * @param document The target document
+   * @param file     The file
+   *
+   * @return A copy of the fragment, owned by {@code document}
+   *
+   * @throws UncheckedIOException On errors reading the file
+   */
+
+  public Element importFragment(
+    final Document document,
+    final Path file)
+    throws UncheckedIOException
+  {
+    Objects.requireNonNull(document, "document");
+
+    final var entry = this.entry(file);
+    synchronized (entry) {
+      return (Element) document.importNode(entry.element(), true);
+    }
+  }
+
+  /**
+   * Copy the root element of the given file to the writer. A fragment that
+   * has already been parsed for a DOM writer is copied from its tree;
+   * otherwise, the cached bytes are copied event by event.
+   *
+   * @param writer The writer
+   * @param file   The file
+   *
+   * @throws XMLStreamException   On errors writing to the writer
+   * @throws UncheckedIOException On errors reading the file
+   */
+
+  public void copyFragment(
+    final XMLStreamWriter writer,
+    final Path file)
+    throws XMLStreamException, UncheckedIOException
+  {
+    Objects.requireNonNull(writer, "writer");
+
+    final var entry = this.entry(file);
+    final byte[] content;
+    synchronized (entry) {
+      if (entry.element != null) {
+        MinXHTMLStreams.copyElement(writer, entry.element);
+        return;
+      }
+      content = entry.content();
+    }
+
+    /*
+     * The cached bytes are never modified, so they can be copied without
+     * holding the entry lock.
+     */
+
+    try {
+      MinXHTMLStreams.copyStream(writer, new ByteArrayInputStream(content));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Find a valid entry for the given file, replacing any stale entry. The
+   * file is parsed later, outside of the cache lock, so that lookups of
+   * other files are not blocked by parsing.
+   */
+
+  private Entry entry(
+    final Path file)
+    throws UncheckedIOException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var path = file.toAbsolutePath().normalize();
+    final String stamp;
+    byte[] content = null;
+
+    try {
+      if (this.configuration.validation() == CONTENT_HASH) {
+        content = Files.readAllBytes(path);
+        stamp = HexFormat.of().formatHex(sha256(content));
+      } else {
+        final var attributes =
+          Files.readAttributes(path, BasicFileAttributes.class);
+        stamp = attributes.size() + ":" + attributes.lastModifiedTime();
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    synchronized (this.entries) {
+      final var existing = this.entries.get(path);
+      if (existing != null && existing.stamp.equals(stamp)) {
+        ++this.hits;
+        return existing;
+      }
+
+      ++this.misses;
+      final var entry = new Entry(path, stamp, content);
+      this.entries.put(path, entry);
+
+      final var maximum = this.configuration.maximumEntries();
+      final var iterator = this.entries.values().iterator();
+      while (this.entries.size() > maximum) {
+        iterator.next();
+        iterator.remove();
+        ++this.evictions;
+      }
+      return entry;
+    }
+  }
+
+  private static byte[] sha256(
+    final byte[] content)
+  {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(content);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * A cached fragment. The DOM implementation may expand nodes lazily as
+   * they are read, so all access to the element is synchronized on the
+   * entry.
+   */
+
+  private static final class Entry
+  {
+    private final Path file;
+    private final String stamp;
+    private byte[] content;
+    private Element element;
+
+    Entry(
+      final Path inFile,
+      final String inStamp,
+      final byte[] inContent)
+    {
+      this.file = Objects.requireNonNull(inFile, "file");
+      this.stamp = Objects.requireNonNull(inStamp, "stamp");
+      this.content = inContent;
+    }
+
+    byte[] content()
+      throws UncheckedIOException
+    {
+      if (this.content == null) {
+        try {
+          this.content = Files.readAllBytes(this.file);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return this.content;
+    }
+
+    Element element()
+      throws UncheckedIOException
+    {
+      if (this.element == null) {
+        try (var stream = this.content != null
+          ? new ByteArrayInputStream(this.content)
+          : Files.newInputStream(this.file)) {
+          this.element =
+            MinXMLParse.parseStream(stream, this.file.toString())
+              .getDocumentElement();
+          this.content = null;
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return this.element;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * Configurations for fragment caches.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinFragmentCacheConfigurationType
+{
+  /**
+   * @return The maximum number of parsed fragments held in the cache
+   */
+
+  @Value.Default
+  default int maximumEntries()
+  {
+    return 256;
+  }
+
+  /**
+   * @return The method used to decide whether a cached fragment is valid
+   */
+
+  @Value.Default
+  default MinFragmentValidation validation()
+  {
+    return MinFragmentValidation.SIZE_AND_TIME;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.maximumEntries() < 1) {
+      throw new IllegalArgumentException(
+        "Maximum entries must be positive, but was " + this.maximumEntries());
+    }
+  }
+}
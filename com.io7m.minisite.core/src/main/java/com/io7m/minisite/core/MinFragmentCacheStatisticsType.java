@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+/**
+ * Counters describing the use of a fragment cache.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinFragmentCacheStatisticsType
+{
+  /**
+   * @return The number of lookups that found a valid parsed fragment
+   */
+
+  @Value.Parameter
+  long hits();
+
+  /**
+   * @return The number of lookups that required a file to be parsed
+   */
+
+  @Value.Parameter
+  long misses();
+
+  /**
+   * @return The number of fragments evicted to stay within the size bound
+   */
+
+  @Value.Parameter
+  long evictions();
+
+  /**
+   * @return The number of fragments currently held
+   */
+
+  @Value.Parameter
+  long entries();
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Functions to wait for groups of concurrent tasks.
+ */
+
+public final class MinFutures
+{
+  private MinFutures()
+  {
+
+  }
+
+  /**
+   * Wait for all the given futures to complete, and return their results in
+   * iteration order. If any future fails, the failure of the first failing
+   * future is raised, with the failures of any other futures attached as
+   * suppressed exceptions. Each failure is converted with {@code failures};
+   * an {@link Error} is raised directly instead.
+   *
+   * @param futures  The futures
+   * @param failures A function to convert failures and interruptions
+   * @param <T>      The type of results
+   * @param <E>      The type of raised exceptions
+   *
+   * @return The results
+   *
+   * @throws E If any future fails, or the calling thread is interrupted
+   */
+
+  public static <T, E extends Exception> List<T> awaitAll(
+    final Collection<? extends Future<? extends T>> futures,
+    final Function<Throwable, E> failures)
+    throws E
+  {
+    Objects.requireNonNull(futures, "futures");
+    Objects.requireNonNull(failures, "failures");
+
+    final var results = new ArrayList<T>(futures.size());
+    E failure = null;
+    for (final var future : futures) {
+      try {
+        results.add(future.get());
+      } catch (final ExecutionException e) {
+        final var cause = e.getCause();
+        if (cause instanceof final Error error) {
+          throw error;
+        }
+        final var next = failures.apply(cause);
+        if (failure == null) {
+          failure = next;
+        } else {
+          failure.addSuppressed(next);
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw failures.apply(e);
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  /**
+   * Wait for all the given futures to complete, as with
+   * {@link #awaitAll(Collection, Function)}. An {@link UncheckedIOException}
+   * is unwrapped, and any other failure is wrapped in an
+   * {@link IOException}.
+   *
+   * @param futures The futures
+   * @param <T>     The type of results
+   *
+   * @return The results
+   *
+   * @throws IOException If any future fails, or the calling thread is
+   *                     interrupted
+   */
+
+  public static <T> List<T> awaitAllIO(
+    final Collection<? extends Future<? extends T>> futures)
+    throws IOException
+  {
+    return awaitAll(futures, MinFutures::toIOException);
+  }
+
+  private static IOException toIOException(
+    final Throwable cause)
+  {
+    if (cause instanceof final UncheckedIOException e) {
+      return e.getCause();
+    }
+    if (cause instanceof final IOException e) {
+      return e;
+    }
+    return new IOException(cause);
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A persistent cache of downloaded license files, keyed by URL. Cached
+ * copies are revalidated with conditional requests, and are served without
+ * any request at all in offline mode. Files are replaced atomically where
+ * the filesystem allows, so the cache may be shared by concurrent builds.
+ */
+
+public final class MinLicenseCache
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinLicenseCache.class);
+
+  private final MinLicenseCacheConfiguration configuration;
+  private final Path directory;
+
+  private MinLicenseCache(
+    final MinLicenseCacheConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.directory =
+      inConfiguration.directory();
+  }
+
+  /**
+   * Create a license cache.
+   *
+   * @param configuration The cache configuration
+   *
+   * @return A license cache
+   */
+
+  public static MinLicenseCache create(
+    final MinLicenseCacheConfiguration configuration)
+  {
+    return new MinLicenseCache(configuration);
+  }
+
+  /**
+   * Fetch the license at the given URL. Local files are used directly and
+   * are never copied into the cache. If the cached copy of a remote file
+   * cannot be revalidated, the cached copy is used and a warning is logged.
+   *
+   * @param url   The license URL
+   * @param proxy The proxy used to connect to the license server
+   *
+   * @return The path of a file holding the license text
+   *
+   * @throws IOException If the license cannot be fetched and is not cached
+   */
+
+  public Path fetch(
+    final URL url,
+    final Proxy proxy)
+    throws IOException
+  {
+    Objects.requireNonNull(url, "URL");
+    Objects.requireNonNull(proxy, "Proxy");
+
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return Path.of(url.toURI());
+      } catch (final URISyntaxException | IllegalArgumentException e) {
+        throw new IOException(e);
+      }
+    }
+
+    final var key = key(url);
+    final var body = this.directory.resolve(key + ".txt");
+    final var meta = this.directory.resolve(key + ".properties");
+    final var cached = Files.isRegularFile(body);
+
+    if (this.configuration.offline()) {
+      if (cached) {
+        LOG.debug("license: offline, using cached {}", body);
+        return body;
+      }
+      throw new IOException(
+        new StringBuilder(128)
+          .append("Offline, and no cached copy of the license ")
+          .append(url)
+          .append(" exists in ")
+          .append(this.directory)
+          .toString());
+    }
+
+    try {
+      return this.download(url, proxy, key, body, meta, cached);
+    } catch (final IOException e) {
+      if (cached) {
+        LOG.warn(
+          "license: could not revalidate {} ({}); using cached copy",
+          url,
+          e.getMessage());
+        return body;
+      }
+      throw e;
+    }
+  }
+
+  private Path download(
+    final URL url,
+    final Proxy proxy,
+    final String key,
+    final Path body,
+    final Path meta,
+    final boolean cached)
+    throws IOException
+  {
+    Files.createDirectories(this.directory);
+
+    final var properties = cached ? loadMeta(meta) : new Properties();
+    final var connection = url.openConnection(proxy);
+    connection.setConnectTimeout(
+      Math.toIntExact(this.configuration.connectTimeout().toMillis()));
+    connection.setReadTimeout(
+      Math.toIntExact(this.configuration.readTimeout().toMillis()));
+
+    if (cached) {
+      final var etag = properties.getProperty("etag");
+      if (etag != null) {
+        connection.setRequestProperty("If-None-Match", etag);
+      }
+      final var lastModified = properties.getProperty("lastModified");
+      if (lastModified != null) {
+        connection.setRequestProperty("If-Modified-Since", lastModified);
+      }
+    }
+
+    final var updated = new Properties();
+    updated.setProperty("url", url.toString());
+
+    try {
+      connection.connect();
+
+      if (connection instanceof final HttpURLConnection http) {
+        final var code = http.getResponseCode();
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+          LOG.debug("license: not modified {}", url);
+          return body;
+        }
+        if (code != HttpURLConnection.HTTP_OK) {
+          throw new IOException(
+            new StringBuilder(128)
+              .append("Fetching license ")
+              .append(url)
+              .append(" failed: HTTP ")
+              .append(code)
+              .toString());
+        }
+      }
+
+      final var etag = connection.getHeaderField("ETag");
+      if (etag != null) {
+        updated.setProperty("etag", etag);
+      }
+      final var lastModified = connection.getHeaderField("Last-Modified");
+      if (lastModified != null) {
+        updated.setProperty("lastModified", lastModified);
+      }
+
+      final var temporary = MinOutputFiles.temporaryFor(body);
+      try {
+        try (var input = connection.getInputStream()) {
+          Files.copy(input, temporary, REPLACE_EXISTING);
+        }
+        MinOutputFiles.replace(temporary, body);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } finally {
+      if (connection instanceof final HttpURLConnection http) {
+        http.disconnect();
+      }
+    }
+
+    saveMeta(meta, updated);
+
+    LOG.debug("license: downloaded {}", url);
+    return body;
+  }
+
+  private static Properties loadMeta(
+    final Path meta)
+  {
+    final var properties = new Properties();
+    try (var reader = Files.newBufferedReader(meta, UTF_8)) {
+      properties.load(reader);
+    } catch (final IOException | IllegalArgumentException e) {
+      properties.clear();
+    }
+    return properties;
+  }
+
+  private static void saveMeta(
+    final Path meta,
+    final Properties properties)
+    throws IOException
+  {
+    final var temporary = MinOutputFiles.temporaryFor(meta);
+    try {
+      try (var writer = Files.newBufferedWriter(temporary, UTF_8)) {
+        properties.store(writer, "minisite license cache");
+      }
+      MinOutputFiles.replace(temporary, meta);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private static String key(
+    final URL url)
+  {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      final var bytes = url.toString().getBytes(UTF_8);
+      return HexFormat.of().formatHex(digest.digest(bytes));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configurations for the license cache.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinLicenseCacheConfigurationType
+{
+  /**
+   * @return The directory in which downloaded licenses are cached
+   */
+
+  @Value.Parameter
+  Path directory();
+
+  /**
+   * @return {@code true} if licenses are never downloaded, and only cached
+   * copies are used
+   */
+
+  @Value.Default
+  default boolean offline()
+  {
+    return false;
+  }
+
+  /**
+   * @return The timeout for connecting to the license server
+   */
+
+  @Value.Default
+  default Duration connectTimeout()
+  {
+    return Duration.ofSeconds(10L);
+  }
+
+  /**
+   * @return The timeout for reading from the license server
+   */
+
+  @Value.Default
+  default Duration readTimeout()
+  {
+    return Duration.ofSeconds(30L);
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.connectTimeout().isNegative()) {
+      throw new IllegalArgumentException(
+        "Connect timeout must be non-negative, but was "
+          + this.connectTimeout());
+    }
+    if (this.readTimeout().isNegative()) {
+      throw new IllegalArgumentException(
+        "Read timeout must be non-negative, but was " + this.readTimeout());
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Functions to replace output files only when their content changes, so
+ * that unchanged files keep their modification times.
+ */
+
+public final class MinOutputFiles
+{
+  private MinOutputFiles()
+  {
+
+  }
+
+  /**
+   * @param target The target file
+   *
+   * @return A new temporary file in the same directory as {@code target}
+   *
+   * @throws IOException On errors
+   */
+
+  public static Path temporaryFor(
+    final Path target)
+    throws IOException
+  {
+    Objects.requireNonNull(target, "target");
+
+    return Files.createTempFile(
+      target.toAbsolutePath().getParent(),
+      "." + target.getFileName(),
+      ".tmp");
+  }
+
+  /**
+   * Move {@code temporary} over {@code target}, atomically if the
+   * filesystem supports it.
+   *
+   * @param temporary The newly written file
+   * @param target    The target file
+   *
+   * @throws IOException On errors
+   */
+
+  public static void replace(
+    final Path temporary,
+    final Path target)
+    throws IOException
+  {
+    Objects.requireNonNull(temporary, "temporary");
+    Objects.requireNonNull(target, "target");
+
+    try {
+      Files.move(temporary, target, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException e) {
+      Files.move(temporary, target, REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Move {@code temporary} over {@code target} unless {@code target} already
+   * has exactly the same content, in which case {@code temporary} is deleted.
+   *
+   * @param temporary The newly written file
+   * @param target    The target file
+   *
+   * @return {@code true} if {@code target} was replaced
+   *
+   * @throws IOException On errors
+   */
+
+  public static boolean replaceIfChanged(
+    final Path temporary,
+    final Path target)
+    throws IOException
+  {
+    Objects.requireNonNull(temporary, "temporary");
+    Objects.requireNonNull(target, "target");
+
+    if (Files.isRegularFile(target)
+      && Files.size(target) == Files.size(temporary)
+      && Files.mismatch(target, temporary) == -1L) {
+      Files.delete(temporary);
+      return false;
+    }
+
+    replace(temporary, target);
+    return true;
+  }
+
+  /**
+   * Replace {@code target} with {@code bytes} unless {@code target} already
+   * has exactly the same content.
+   *
+   * @param bytes  The new content
+   * @param target The target file
+   *
+   * @return {@code true} if {@code target} was replaced
+   *
+   * @throws IOException On errors
+   */
+
+  public static boolean replaceIfChanged(
+    final byte[] bytes,
+    final Path target)
+    throws IOException
+  {
+    Objects.requireNonNull(bytes, "bytes");
+    Objects.requireNonNull(target, "target");
+
+    if (Files.isRegularFile(target)
+      && Files.size(target) == bytes.length
+      && Arrays.equals(Files.readAllBytes(target), bytes)) {
+      return false;
+    }
+
+    final var temporary = temporaryFor(target);
+    try {
+      Files.write(temporary, bytes);
+      replace(temporary, target);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return true;
+  }
+}
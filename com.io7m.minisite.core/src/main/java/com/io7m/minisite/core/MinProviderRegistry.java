@@ -0,0 +1,324 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core;
+
+import com.io7m.changelog.xml.api.CAtomChangelogWriterProviderType;
+import com.io7m.changelog.xml.api.CXHTMLChangelogWriterProviderType;
+import com.io7m.changelog.xml.api.CXMLChangelogParserProviderType;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * A registry of the service providers used to generate sites. Providers
+ * may be discovered with {@link ServiceLoader}, registered explicitly, or
+ * both. A registry is immutable once built and may be shared between any
+ * number of sites and threads.
+ */
+
+public final class MinProviderRegistry
+{
+  private final Map<String, MinSourcesProviderType> sourcesProviders;
+  private final Map<String, MinSectionProviderType> sectionProviders;
+  private final Optional<CXMLChangelogParserProviderType> changelogParser;
+  private final Optional<CXHTMLChangelogWriterProviderType> changelogXHTMLWriter;
+  private final Optional<CAtomChangelogWriterProviderType> changelogAtomWriter;
+
+  private MinProviderRegistry(
+    final Builder builder)
+  {
+    this.sourcesProviders =
+      Map.copyOf(builder.sourcesProviders);
+    this.sectionProviders =
+      Map.copyOf(builder.sectionProviders);
+    this.changelogParser =
+      Optional.ofNullable(builder.changelogParser);
+    this.changelogXHTMLWriter =
+      Optional.ofNullable(builder.changelogXHTMLWriter);
+    this.changelogAtomWriter =
+      Optional.ofNullable(builder.changelogAtomWriter);
+  }
+
+  /**
+   * @return A new registry builder with no providers
+   */
+
+  public static Builder builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * Discover all available providers using {@link ServiceLoader}.
+   *
+   * @return A new registry
+   */
+
+  public static MinProviderRegistry discover()
+  {
+    return builder()
+      .addDiscoveredProviders()
+      .build();
+  }
+
+  /**
+   * Return a registry of all available providers, discovering them using
+   * {@link ServiceLoader} on the first call only.
+   *
+   * @return The shared registry
+   */
+
+  public static MinProviderRegistry discovered()
+  {
+    return Discovered.REGISTRY;
+  }
+
+  /**
+   * @param system The source repository system
+   *
+   * @return The sources provider for the given system, if any
+   */
+
+  public Optional<MinSourcesProviderType> sourcesProvider(
+    final String system)
+  {
+    Objects.requireNonNull(system, "system");
+    return Optional.ofNullable(this.sourcesProviders.get(system));
+  }
+
+  /**
+   * @return The registered section providers, in no particular order
+   */
+
+  public Collection<MinSectionProviderType> sectionProviders()
+  {
+    return this.sectionProviders.values();
+  }
+
+  /**
+   * @return The changelog parser provider
+   *
+   * @throws NoSuchElementException If no provider is registered
+   */
+
+  public CXMLChangelogParserProviderType changelogParser()
+    throws NoSuchElementException
+  {
+    return this.changelogParser.orElseThrow(() -> {
+      return new NoSuchElementException(
+        "No XML changelog parser providers are available");
+    });
+  }
+
+  /**
+   * @return The XHTML changelog writer provider
+   *
+   * @throws NoSuchElementException If no provider is registered
+   */
+
+  public CXHTMLChangelogWriterProviderType changelogXHTMLWriter()
+    throws NoSuchElementException
+  {
+    return this.changelogXHTMLWriter.orElseThrow(() -> {
+      return new NoSuchElementException(
+        "No XHTML changelog writer providers are available");
+    });
+  }
+
+  /**
+   * @return The Atom changelog writer provider
+   *
+   * @throws NoSuchElementException If no provider is registered
+   */
+
+  public CAtomChangelogWriterProviderType changelogAtomWriter()
+    throws NoSuchElementException
+  {
+    return this.changelogAtomWriter.orElseThrow(() -> {
+      return new NoSuchElementException(
+        "No Atom changelog writer providers are available");
+    });
+  }
+
+  private static final class Discovered
+  {
+    private static final MinProviderRegistry REGISTRY = discover();
+
+    private Discovered()
+    {
+
+    }
+  }
+
+  /**
+   * A mutable builder for registries.
+   */
+
+  public static final class Builder
+  {
+    private final Map<String, MinSourcesProviderType> sourcesProviders;
+    private final Map<String, MinSectionProviderType> sectionProviders;
+    private CXMLChangelogParserProviderType changelogParser;
+    private CXHTMLChangelogWriterProviderType changelogXHTMLWriter;
+    private CAtomChangelogWriterProviderType changelogAtomWriter;
+
+    private Builder()
+    {
+      this.sourcesProviders = new HashMap<>();
+      this.sectionProviders = new HashMap<>();
+    }
+
+    /**
+     * Register a sources provider, replacing any existing provider for the
+     * same system.
+     *
+     * @param provider The provider
+     *
+     * @return this
+     */
+
+    public Builder addSourcesProvider(
+      final MinSourcesProviderType provider)
+    {
+      Objects.requireNonNull(provider, "provider");
+      this.sourcesProviders.put(provider.system(), provider);
+      return this;
+    }
+
+    /**
+     * Register a section provider, replacing any existing provider for the
+     * section with the same name.
+     *
+     * @param provider The provider
+     *
+     * @return this
+     */
+
+    public Builder addSectionProvider(
+      final MinSectionProviderType provider)
+    {
+      Objects.requireNonNull(provider, "provider");
+      this.sectionProviders.put(provider.name(), provider);
+      return this;
+    }
+
+    /**
+     * Set the changelog parser provider.
+     *
+     * @param provider The provider
+     *
+     * @return this
+     */
+
+    public Builder setChangelogParser(
+      final CXMLChangelogParserProviderType provider)
+    {
+      this.changelogParser = Objects.requireNonNull(provider, "provider");
+      return this;
+    }
+
+    /**
+     * Set the XHTML changelog writer provider.
+     *
+     * @param provider The provider
+     *
+     * @return this
+     */
+
+    public Builder setChangelogXHTMLWriter(
+      final CXHTMLChangelogWriterProviderType provider)
+    {
+      this.changelogXHTMLWriter = Objects.requireNonNull(provider, "provider");
+      return this;
+    }
+
+    /**
+     * Set the Atom changelog writer provider.
+     *
+     * @param provider The provider
+     *
+     * @return this
+     */
+
+    public Builder setChangelogAtomWriter(
+      final CAtomChangelogWriterProviderType provider)
+    {
+      this.changelogAtomWriter = Objects.requireNonNull(provider, "provider");
+      return this;
+    }
+
+    /**
+     * Discover providers using {@link ServiceLoader}. Providers that have
+     * already been registered take precedence over discovered providers,
+     * and the first discovered sources provider for each system, and the
+     * first discovered section provider for each section, is used.
+     *
+     * @return this
+     */
+
+    public Builder addDiscoveredProviders()
+    {
+      final var sources =
+        ServiceLoader.load(MinSourcesProviderType.class);
+      for (final var provider : sources) {
+        this.sourcesProviders.putIfAbsent(provider.system(), provider);
+      }
+
+      final var sections =
+        ServiceLoader.load(MinSectionProviderType.class);
+      for (final var provider : sections) {
+        this.sectionProviders.putIfAbsent(provider.name(), provider);
+      }
+
+      if (this.changelogParser == null) {
+        this.changelogParser =
+          ServiceLoader.load(CXMLChangelogParserProviderType.class)
+            .findFirst()
+            .orElse(null);
+      }
+
+      if (this.changelogXHTMLWriter == null) {
+        this.changelogXHTMLWriter =
+          ServiceLoader.load(CXHTMLChangelogWriterProviderType.class)
+            .findFirst()
+            .orElse(null);
+      }
+
+      if (this.changelogAtomWriter == null) {
+        this.changelogAtomWriter =
+          ServiceLoader.load(CAtomChangelogWriterProviderType.class)
+            .findFirst()
+            .orElse(null);
+      }
+      return this;
+    }
+
+    /**
+     * @return A registry containing the registered providers
+     */
+
+    public MinProviderRegistry build()
+    {
+      return new MinProviderRegistry(this);
+    }
+  }
+}
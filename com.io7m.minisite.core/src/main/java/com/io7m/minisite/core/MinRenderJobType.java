@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+/**
+ * A request to render a single site to a directory.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinRenderJobType
+{
+  /**
+   * @return The site configuration
+   */
+
+  @Value.Parameter
+  MinConfiguration configuration();
+
+  /**
+   * @return The directory to which the site will be written
+   */
+
+  @Value.Parameter
+  Path outputDirectory();
+
+  /**
+   * @return {@code true} if the index should be streamed rather than built
+   * as a document
+   */
+
+  @Value.Default
+  @Value.Parameter
+  default boolean streaming()
+  {
+    return false;
+  }
+
+  /**
+   * @return The URI at which the Atom feed will be published; the feed is
+   * only written if this is present and a changelog is configured
+   */
+
+  @Value.Parameter
+  Optional<URI> feedURI();
+
+  /**
+   * @return The update time written to the Atom feed; if absent, the
+   * current time is used
+   */
+
+  Optional<ZonedDateTime> feedUpdated();
+
+  /**
+   * @return The configuration used to write the index and stylesheet
+   */
+
+  @Value.Default
+  default MinWriterConfiguration writer()
+  {
+    return MinWriterConfiguration.builder()
+      .build();
+  }
+}
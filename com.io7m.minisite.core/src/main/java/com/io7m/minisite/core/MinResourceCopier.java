@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core;
+
+import com.io7m.minisite.core.internal.MinResourceCopyEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardCopyOption.COPY_ATTRIBUTES;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A parallel resource tree copier. Directories are created on the calling
+ * thread, and files are then copied by a bounded pool of worker threads.
+ * Files that are unchanged according to the configured comparison are left
+ * untouched.
+ */
+
+public final class MinResourceCopier
+{
+  private final MinResourceCopyConfiguration configuration;
+  private final AtomicLong filesCopied;
+  private final AtomicLong filesLinked;
+  private final AtomicLong filesSkipped;
+  private final AtomicLong bytesCopied;
+  private final Queue<MinResourceCopyFile> files;
+
+  private MinResourceCopier(
+    final MinResourceCopyConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "Configuration");
+    this.filesCopied = new AtomicLong();
+    this.filesLinked = new AtomicLong();
+    this.filesSkipped = new AtomicLong();
+    this.bytesCopied = new AtomicLong();
+    this.files = new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * Copy a resource tree.
+   *
+   * @param configuration The copy configuration
+   *
+   * @return Statistics describing the copy
+   *
+   * @throws IOException On errors
+   */
+
+  public static MinResourceCopyStatistics copy(
+    final MinResourceCopyConfiguration configuration)
+    throws IOException
+  {
+    return new MinResourceCopier(configuration).execute();
+  }
+
+  private MinResourceCopyStatistics execute()
+    throws IOException
+  {
+    final var event = new MinResourceCopyEvent();
+    event.begin();
+
+    final var files = this.collectFiles();
+
+    try (var executor =
+           Executors.newFixedThreadPool(this.configuration.parallelism())) {
+      final var futures = new ArrayList<Future<?>>(files.size());
+      for (final var file : files) {
+        futures.add(executor.submit(() -> {
+          try {
+            this.copyFile(file);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }));
+      }
+      MinFutures.awaitAllIO(futures);
+    }
+
+    final var records = new ArrayList<>(this.files);
+    records.sort(Comparator.comparing(MinResourceCopyFile::file));
+
+    final var statistics =
+      MinResourceCopyStatistics.builder()
+        .setFilesCopied(this.filesCopied.get())
+        .setFilesLinked(this.filesLinked.get())
+        .setFilesSkipped(this.filesSkipped.get())
+        .setBytesCopied(this.bytesCopied.get())
+        .setFiles(records)
+        .build();
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.source = this.configuration.source().toString();
+      event.output = this.configuration.output().toString();
+      event.filesCopied = statistics.filesCopied() + statistics.filesLinked();
+      event.filesSkipped = statistics.filesSkipped();
+      event.bytes = statistics.bytesCopied();
+      event.commit();
+    }
+    return statistics;
+  }
+
+  private List<Path> collectFiles()
+    throws IOException
+  {
+    final var source = this.configuration.source();
+    final var output = this.configuration.output();
+    final var files = new ArrayList<Path>();
+
+    Files.walkFileTree(source, new SimpleFileVisitor<>()
+    {
+      @Override
+      public FileVisitResult preVisitDirectory(
+        final Path dir,
+        final BasicFileAttributes attrs)
+        throws IOException
+      {
+        Files.createDirectories(output.resolve(source.relativize(dir)));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(
+        final Path file,
+        final BasicFileAttributes attrs)
+      {
+        files.add(file);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return files;
+  }
+
+  private void copyFile(
+    final Path file)
+    throws IOException
+  {
+    final var timeThen = System.nanoTime();
+    final var relative = this.configuration.source().relativize(file);
+    final var target = this.configuration.output().resolve(relative);
+
+    if (this.isUnchanged(file, target)) {
+      this.filesSkipped.incrementAndGet();
+      this.record(relative, MinResourceCopyResult.SKIPPED, 0L, timeThen);
+      return;
+    }
+
+    if (this.configuration.mode() == MinResourceCopyMode.HARD_LINK) {
+      try {
+        Files.deleteIfExists(target);
+        Files.createLink(target, file);
+        this.filesLinked.incrementAndGet();
+        this.record(relative, MinResourceCopyResult.LINKED, 0L, timeThen);
+        return;
+      } catch (final UnsupportedOperationException | FileSystemException e) {
+        // Fall back to copying, for example across file systems.
+      }
+    }
+
+    Files.copy(file, target, REPLACE_EXISTING, COPY_ATTRIBUTES);
+    final var size = Files.size(target);
+    this.filesCopied.incrementAndGet();
+    this.bytesCopied.addAndGet(size);
+    this.record(relative, MinResourceCopyResult.COPIED, size, timeThen);
+  }
+
+  private void record(
+    final Path relative,
+    final MinResourceCopyResult result,
+    final long bytes,
+    final long timeThen)
+  {
+    if (this.configuration.recordFiles()) {
+      this.files.add(
+        MinResourceCopyFile.of(
+          relative,
+          result,
+          bytes,
+          Duration.ofNanos(System.nanoTime() - timeThen)));
+    }
+  }
+
+  private boolean isUnchanged(
+    final Path file,
+    final Path target)
+    throws IOException
+  {
+    if (!Files.isRegularFile(target)) {
+      return false;
+    }
+
+    if (this.configuration.mode() == MinResourceCopyMode.HARD_LINK
+      && Files.isSameFile(file, target)) {
+      return true;
+    }
+
+    final var sourceAttributes =
+      Files.readAttributes(file, BasicFileAttributes.class);
+    final var targetAttributes =
+      Files.readAttributes(target, BasicFileAttributes.class);
+
+    if (sourceAttributes.size() != targetAttributes.size()) {
+      return false;
+    }
+
+    return switch (this.configuration.comparison()) {
+      case SIZE_AND_TIME -> {
+
+        /*
+         * Copied times are not always stored at full precision, so times
+         * are compared in milliseconds.
+         */
+
+        yield sourceAttributes.lastModifiedTime().toMillis()
+          == targetAttributes.lastModifiedTime().toMillis();
+      }
+      case CONTENT -> {
+        yield Files.mismatch(file, target) == -1L;
+      }
+    };
+  }
+}
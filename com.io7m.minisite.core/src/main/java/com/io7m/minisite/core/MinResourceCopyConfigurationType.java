@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Configurations for copying resource trees.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinResourceCopyConfigurationType
+{
+  /**
+   * @return The source directory
+   */
+
+  @Value.Parameter
+  Path source();
+
+  /**
+   * @return The output directory
+   */
+
+  @Value.Parameter
+  Path output();
+
+  /**
+   * @return The method used to decide whether a file is unchanged
+   */
+
+  @Value.Default
+  default MinResourceComparison comparison()
+  {
+    return MinResourceComparison.SIZE_AND_TIME;
+  }
+
+  /**
+   * @return The method used to place files in the output directory
+   */
+
+  @Value.Default
+  default MinResourceCopyMode mode()
+  {
+    return MinResourceCopyMode.COPY;
+  }
+
+  /**
+   * @return The maximum number of files copied at once
+   */
+
+  @Value.Default
+  default int parallelism()
+  {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @return {@code true} if the outcome of each file should be recorded in
+   * the statistics
+   */
+
+  @Value.Default
+  default boolean recordFiles()
+  {
+    return false;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.parallelism() < 1) {
+      throw new IllegalArgumentException(
+        "Parallelism must be positive, but was " + this.parallelism());
+    }
+  }
+}
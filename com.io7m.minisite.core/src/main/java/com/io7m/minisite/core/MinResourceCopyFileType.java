@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * A record of a single resource file placed in the output directory.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinResourceCopyFileType
+{
+  /**
+   * @return The file, relative to the source directory
+   */
+
+  @Value.Parameter
+  Path file();
+
+  /**
+   * @return The outcome of placing the file
+   */
+
+  @Value.Parameter
+  MinResourceCopyResult result();
+
+  /**
+   * @return The number of bytes copied
+   */
+
+  @Value.Parameter
+  long bytes();
+
+  /**
+   * @return The time taken to place the file
+   */
+
+  @Value.Parameter
+  Duration duration();
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * Statistics describing a completed resource tree copy.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinResourceCopyStatisticsType
+{
+  /**
+   * @return The number of files copied
+   */
+
+  @Value.Parameter
+  long filesCopied();
+
+  /**
+   * @return The number of files hard-linked
+   */
+
+  @Value.Parameter
+  long filesLinked();
+
+  /**
+   * @return The number of unchanged files that were skipped
+   */
+
+  @Value.Parameter
+  long filesSkipped();
+
+  /**
+   * @return The number of bytes copied
+   */
+
+  @Value.Parameter
+  long bytesCopied();
+
+  /**
+   * @return The outcome of each file, sorted by path, if the copy was
+   * configured to record files
+   *
+   * @see MinResourceCopyConfigurationType#recordFiles()
+   */
+
+  List<MinResourceCopyFile> files();
+}
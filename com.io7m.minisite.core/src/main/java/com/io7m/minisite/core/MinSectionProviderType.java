@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+
+import java.util.Optional;
+
+/**
+ * <p>The type of providers for sections of the main page.</p>
+ *
+ * <p>Sections are placed on the page in ascending order of
+ * {@link #order()}, and sections with the same order are placed in order
+ * of name. The built-in sections are {@code header} (100),
+ * {@code overview} (200), {@code contents} (300), {@code features} (400),
+ * {@code releases} (500), {@code documentation} (600), {@code maven} (700),
+ * {@code changelog} (800), {@code sources} (900), {@code license} (1000),
+ * and {@code bugTracker} (1100). A provider with the same name as a
+ * built-in section replaces it.</p>
+ *
+ * <p>Sections may be evaluated concurrently, each into a document of its
+ * own, so providers must be safe to call from any thread and must not
+ * depend on other sections.</p>
+ */
+
+public interface MinSectionProviderType
+{
+  /**
+   * @return The unique name of the section
+   */
+
+  String name();
+
+  /**
+   * @return The position of the section on the page
+   */
+
+  int order();
+
+  /**
+   * @return The link to the section from the contents list, if any
+   */
+
+  default Optional<MinSectionLink> contentsLink()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * @param site The site
+   *
+   * @return {@code true} if the section should appear on the given site
+   */
+
+  default boolean isEnabled(
+    final MinSite site)
+  {
+    return true;
+  }
+
+  /**
+   * @param document The document that will own the section
+   * @param site     The site
+   *
+   * @return Evaluate the section
+   */
+
+  DocumentFragment evaluate(
+    Document document,
+    MinSite site
+  );
+}
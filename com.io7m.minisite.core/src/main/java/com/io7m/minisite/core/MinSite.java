@@ -16,18 +16,39 @@
 
 package com.io7m.minisite.core;
 
+import com.io7m.changelog.core.CChangelog;
+import com.io7m.changelog.core.CRelease;
+import com.io7m.minisite.core.internal.MinChangelogs;
+import com.io7m.minisite.core.internal.MinSectionEvent;
 import com.io7m.minisite.core.internal.MinXHTMLChangelogs;
+import com.io7m.minisite.core.internal.MinXHTMLStreams;
 import com.io7m.minisite.core.internal.MinXMLParse;
 import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.ServiceLoader;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.io7m.minisite.core.internal.MinXHTML.XHTML;
@@ -42,12 +63,153 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class MinSite
 {
+  /**
+   * The name of the release history page that links to the changelog
+   * archive pages.
+   */
+
+  public static final String CHANGELOG_ARCHIVE = "changes.xhtml";
+
+  private static final Comparator<MinSectionProviderType> SECTION_ORDER =
+    Comparator.comparingInt(MinSectionProviderType::order)
+      .thenComparing(MinSectionProviderType::name);
+
+  private static final List<BuiltInSection> BUILT_IN_SECTIONS = List.of(
+    new BuiltInSection(
+      "header",
+      100,
+      Optional.empty(),
+      site -> site.config.header().isPresent(),
+      site -> site.config.header(),
+      (site, document) -> {
+        return site.header(document, site.config.header().orElseThrow());
+      },
+      MinSite::writeHeader
+    ),
+    new BuiltInSection(
+      "overview",
+      200,
+      Optional.empty(),
+      site -> true,
+      site -> site.config.overview(),
+      MinSite::overview,
+      MinSite::writeOverview
+    ),
+    new BuiltInSection(
+      "contents",
+      300,
+      Optional.empty(),
+      site -> true,
+      site -> Optional.empty(),
+      MinSite::contents,
+      MinSite::writeContents
+    ),
+    new BuiltInSection(
+      "features",
+      400,
+      contentsLink("#features", "Features"),
+      site -> site.config.features().isPresent(),
+      site -> site.config.features(),
+      (site, document) -> {
+        return site.features(document, site.config.features().orElseThrow());
+      },
+      MinSite::writeFeatures
+    ),
+    new BuiltInSection(
+      "releases",
+      500,
+      contentsLink("#releases", "Releases"),
+      site -> true,
+      site -> Optional.empty(),
+      MinSite::releases,
+      MinSite::writeReleases
+    ),
+    new BuiltInSection(
+      "documentation",
+      600,
+      contentsLink("#documentation", "Documentation"),
+      site -> site.config.documentation().isPresent(),
+      site -> site.config.documentation(),
+      (site, document) -> {
+        return site.documentation(
+          document, site.config.documentation().orElseThrow());
+      },
+      (site, writer) -> {
+        site.writeDocumentation(
+          writer, site.config.documentation().orElseThrow());
+      }
+    ),
+    new BuiltInSection(
+      "maven",
+      700,
+      contentsLink("#maven", "Maven"),
+      site -> true,
+      site -> Optional.empty(),
+      MinSite::maven,
+      MinSite::writeMaven
+    ),
+    new BuiltInSection(
+      "changelog",
+      800,
+      contentsLink("#changes", "Changes"),
+      site -> site.config.changelog().isPresent(),
+      MinSite::changelogFile,
+      MinSite::changelogSection,
+      MinSite::writeChangelog
+    ),
+    new BuiltInSection(
+      "sources",
+      900,
+      contentsLink("#sources", "Sources"),
+      site -> site.config.sources().isPresent(),
+      site -> Optional.empty(),
+      (site, document) -> {
+        return site.sources(document, site.config.sources().orElseThrow());
+      },
+      MinSite::writeSources
+    ),
+    new BuiltInSection(
+      "license",
+      1000,
+      contentsLink("#license", "License"),
+      site -> site.config.license().isPresent(),
+      site -> site.config.license(),
+      (site, document) -> {
+        return license(
+          document,
+          site.config.license().orElseThrow(),
+          site.config.lineSeparator());
+      },
+      MinSite::writeLicense
+    ),
+    new BuiltInSection(
+      "bugTracker",
+      1100,
+      contentsLink("#bug-tracker", "Bug Tracker"),
+      site -> site.config.bugTracker().isPresent(),
+      site -> Optional.empty(),
+      (site, document) -> {
+        return bugTracker(document, site.config.bugTracker().orElseThrow());
+      },
+      MinSite::writeBugTracker
+    )
+  );
+
   private final MinConfiguration config;
+  private final MinProviderRegistry registry;
+  private final Optional<MinFragmentCache> fragments;
+  private final Object changelogLock;
+  private Optional<CChangelog> changelog;
 
   private MinSite(
-    final MinConfiguration in_config)
+    final MinConfiguration in_config,
+    final MinProviderRegistry in_registry,
+    final Optional<MinFragmentCache> in_fragments)
   {
     this.config = Objects.requireNonNull(in_config, "Configuration");
+    this.registry = Objects.requireNonNull(in_registry, "Registry");
+    this.fragments = Objects.requireNonNull(in_fragments, "Fragments");
+    this.changelogLock = new Object();
   }
 
   /**
@@ -60,40 +222,154 @@ public final class MinSite
 
   public static MinSite create(
     final MinConfiguration config)
+  {
+    return create(config, MinProviderRegistry.discovered());
+  }
+
+  /**
+   * Create a site generator for the given config, using providers from the
+   * given registry.
+   *
+   * @param config   The config
+   * @param registry The provider registry
+   *
+   * @return A site generator
+   */
+
+  public static MinSite create(
+    final MinConfiguration config,
+    final MinProviderRegistry registry)
+  {
+    Objects.requireNonNull(config, "Configuration");
+    Objects.requireNonNull(registry, "Registry");
+    return new MinSite(config, registry, Optional.empty());
+  }
+
+  /**
+   * Create a site generator for the given config that takes parsed
+   * fragments from a cache that may be shared with other sites.
+   *
+   * @param config    The config
+   * @param registry  The provider registry
+   * @param fragments The fragment cache
+   *
+   * @return A site generator
+   */
+
+  public static MinSite create(
+    final MinConfiguration config,
+    final MinProviderRegistry registry,
+    final MinFragmentCache fragments)
   {
     Objects.requireNonNull(config, "Configuration");
-    return new MinSite(config);
+    Objects.requireNonNull(registry, "Registry");
+    Objects.requireNonNull(fragments, "Fragments");
+    return new MinSite(config, registry, Optional.of(fragments));
+  }
+
+  /**
+   * @return The site configuration
+   */
+
+  public MinConfiguration configuration()
+  {
+    return this.config;
+  }
+
+  /**
+   * @return The provider registry used by the site
+   */
+
+  public MinProviderRegistry registry()
+  {
+    return this.registry;
+  }
+
+  /**
+   * Parse the configured changelog, if any. The changelog is parsed at most
+   * once, and the same parsed changelog is returned to all callers, from
+   * any thread.
+   *
+   * @return The parsed changelog
+   *
+   * @throws UncheckedIOException On errors reading the changelog
+   */
+
+  public Optional<CChangelog> changelog()
+    throws UncheckedIOException
+  {
+    synchronized (this.changelogLock) {
+      if (this.changelog == null) {
+        this.changelog =
+          this.config.changelog()
+            .map(changes -> {
+              return MinChangelogs.parse(this.registry.changelogParser(), changes);
+            });
+      }
+      return this.changelog;
+    }
+  }
+
+  /**
+   * @return The date of the most recent release in the changelog, if there
+   * is a changelog with at least one release
+   *
+   * @throws UncheckedIOException On errors reading the changelog
+   */
+
+  public Optional<ZonedDateTime> latestReleaseDate()
+    throws UncheckedIOException
+  {
+    return this.changelog()
+      .flatMap(changes -> {
+        return changes.releases()
+          .values()
+          .stream()
+          .map(CRelease::date)
+          .max(Comparator.comparing(ZonedDateTime::toInstant));
+      });
   }
 
-  private static Element sources(
+  private Element sources(
     final Document document,
     final MinSourcesConfiguration sources)
   {
-    final var loader =
-      ServiceLoader.load(MinSourcesProviderType.class);
+    return this.registry.sourcesProvider(sources.system())
+      .orElseThrow(() -> new NoSuchElementException(
+        "No providers are available for source repositories of type: " + sources.system()))
+      .evaluate(document, sources);
+  }
 
-    final var iter = loader.iterator();
-    while (iter.hasNext()) {
-      final var provider = iter.next();
-      if (Objects.equals(provider.system(), sources.system())) {
-        return provider.evaluate(document, sources);
-      }
+  private Element fragment(
+    final Document document,
+    final Path path)
+  {
+    if (this.fragments.isPresent()) {
+      return this.fragments.get().importFragment(document, path);
     }
+    return MinXMLParse.parseFileUnchecked(document, path);
+  }
 
-    throw new NoSuchElementException(
-      "No providers are available for source repositories of type: " + sources.system());
+  private void writeFragment(
+    final XMLStreamWriter writer,
+    final Path path)
+    throws XMLStreamException
+  {
+    if (this.fragments.isPresent()) {
+      this.fragments.get().copyFragment(writer, path);
+    } else {
+      MinXHTMLStreams.copyFile(writer, path);
+    }
   }
 
-  private static Element features(
+  private Element features(
     final Document document,
     final Path path)
   {
     final var features = document.createElementNS(XHTML, "div");
     features.setAttribute("id", "features");
     features.appendChild(h2(document, "Features"));
-    features.appendChild(MinXMLParse.parseFileUnchecked(
-      document,
-      path.toAbsolutePath()));
+    features.appendChild(this.fragment(document, path.toAbsolutePath()));
     return features;
   }
 
@@ -121,27 +397,30 @@ public final class MinSite
 
   private static Element license(
     final Document document,
-    final Path path)
+    final Path path,
+    final String separator)
   {
     final var license = document.createElementNS(XHTML, "div");
     license.setAttribute("id", "license");
     license.appendChild(h2(document, "License"));
 
     final var pre = document.createElementNS(XHTML, "pre");
+    pre.appendChild(document.createTextNode(licenseText(path, separator)));
+    license.appendChild(pre);
+    return license;
+  }
+
+  private static String licenseText(
+    final Path path,
+    final String separator)
+  {
     try {
-      pre.appendChild(
-        document.createTextNode(
-          Files.readAllLines(path, UTF_8)
-            .stream()
-            .collect(Collectors.joining(System.lineSeparator()))
-        )
-      );
+      return Files.readAllLines(path, UTF_8)
+        .stream()
+        .collect(Collectors.joining(separator));
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
-
-    license.appendChild(pre);
-    return license;
   }
 
   private static String cleanReposPath(
@@ -150,54 +429,6 @@ public final class MinSite
     return path.replaceAll("^[/]+", "");
   }
 
-  private static Element contentsLicenseLink(
-    final Document document)
-  {
-    return link(document, "#license", "License");
-  }
-
-  private static Element contentsSourcesLink(
-    final Document document)
-  {
-    return link(document, "#sources", "Sources");
-  }
-
-  private static Element contentsChangesLink(
-    final Document document)
-  {
-    return link(document, "#changes", "Changes");
-  }
-
-  private static Element contentsDocumentationLink(
-    final Document document)
-  {
-    return link(document, "#documentation", "Documentation");
-  }
-
-  private static Element contentsReleasesLink(
-    final Document document)
-  {
-    return link(document, "#releases", "Releases");
-  }
-
-  private static Element contentsBugTrackerLink(
-    final Document document)
-  {
-    return link(document, "#bug-tracker", "Bug Tracker");
-  }
-
-  private static Element contentsFeaturesLink(
-    final Document document)
-  {
-    return link(document, "#features", "Features");
-  }
-
-  private static Element contentsMavenLink(
-    final Document document)
-  {
-    return link(document, "#maven", "Maven");
-  }
-
   private static Element css(
     final Document document,
     final String name)
@@ -240,19 +471,53 @@ public final class MinSite
     return version == null ? "UNKNOWN" : version;
   }
 
-  private static Element header(
+  private Element header(
     final Document document,
     final Path path)
   {
     final var header = document.createElementNS(XHTML, "div");
     header.setAttribute("id", "header");
-    header.appendChild(MinXMLParse.parseFileUnchecked(
-      document,
-      path.toAbsolutePath()));
+    header.appendChild(this.fragment(document, path.toAbsolutePath()));
     return header;
   }
 
-  private static void mavenDependency(
+  private static String mavenLinkGroup(
+    final String group)
+  {
+    return new StringBuilder(64)
+      .append("http://search.maven.org/#search%7Cga%7C1%7Cg%3A%22")
+      .append(group)
+      .append("%22")
+      .toString();
+  }
+
+  private static String mavenLinkArtifact(
+    final String module)
+  {
+    return new StringBuilder(64)
+      .append("http://search.maven.org/#search%7Cga%7C1%7Ca%3A%22")
+      .append(module)
+      .append("%22")
+      .toString();
+  }
+
+  private static String mavenLinkVersion(
+    final String module,
+    final String group,
+    final String version)
+  {
+    return new StringBuilder(64)
+      .append("http://search.maven.org/#artifactdetails%7C")
+      .append(group)
+      .append("%7C")
+      .append(module)
+      .append("%7C")
+      .append(version)
+      .append("%7Cjar")
+      .toString();
+  }
+
+  private void mavenDependency(
     final Document document,
     final Element pre,
     final String module,
@@ -260,31 +525,13 @@ public final class MinSite
     final String version)
   {
     final var linkGroup =
-      new StringBuilder(64)
-        .append("http://search.maven.org/#search%7Cga%7C1%7Cg%3A%22")
-        .append(group)
-        .append("%22")
-        .toString();
-
+      mavenLinkGroup(group);
     final var linkArtifact =
-      new StringBuilder(64)
-        .append("http://search.maven.org/#search%7Cga%7C1%7Ca%3A%22")
-        .append(module)
-        .append("%22")
-        .toString();
-
+      mavenLinkArtifact(module);
     final var linkVersion =
-      new StringBuilder(64)
-        .append("http://search.maven.org/#artifactdetails%7C")
-        .append(group)
-        .append("%7C")
-        .append(module)
-        .append("%7C")
-        .append(version)
-        .append("%7Cjar")
-        .toString();
+      mavenLinkVersion(module, group, version);
 
-    final var separator = System.lineSeparator();
+    final var separator = this.config.lineSeparator();
     pre.appendChild(
       document.createTextNode(
         new StringBuilder(64)
@@ -341,7 +588,7 @@ public final class MinSite
   public Element document(
     final Document document)
   {
-    final var head = this.head(document);
+    final var head = this.head(document, this.config.projectName());
     final var body = this.body(document);
 
     final var xhtml = document.createElementNS(XHTML, "html");
@@ -366,49 +613,171 @@ public final class MinSite
     final var main = document.createElementNS(XHTML, "div");
     main.setAttribute("id", "main");
 
-    this.config.header()
-      .ifPresent(path -> {
-        main.appendChild(header(document, path));
-      });
+    for (final var fragment : this.evaluateSections(this.sections())) {
+      main.appendChild(adopt(document, fragment));
+    }
+    return main;
+  }
 
-    main.appendChild(this.overview(document));
-    main.appendChild(this.contents(document));
+  /**
+   * @return The sections of the main page that are enabled for this site,
+   * in the order in which they appear on the page
+   */
 
-    this.config.features()
-      .ifPresent(path -> {
-        main.appendChild(features(document, path));
-      });
+  public List<MinSectionProviderType> sections()
+  {
+    final var sections = new HashMap<String, MinSectionProviderType>();
+    for (final var section : BUILT_IN_SECTIONS) {
+      sections.put(section.name(), section);
+    }
+    for (final var section : this.registry.sectionProviders()) {
+      sections.put(section.name(), section);
+    }
 
-    main.appendChild(this.releases(document));
+    return sections.values()
+      .stream()
+      .filter(section -> section.isEnabled(this))
+      .sorted(SECTION_ORDER)
+      .toList();
+  }
 
-    this.config.documentation()
-      .ifPresent(path -> {
-        main.appendChild(this.documentation(document, path));
-      });
+  /**
+   * Evaluate each section into a fragment owned by a document of its own,
+   * so that sections can be evaluated concurrently without sharing any DOM
+   * state. The fragments are returned in the order of the sections. If any
+   * section fails, the failure of the first failing section is raised, with
+   * the failures of any other sections attached as suppressed exceptions.
+   */
 
-    main.appendChild(this.maven(document));
+  private List<DocumentFragment> evaluateSections(
+    final List<MinSectionProviderType> sections)
+  {
+    final var threads =
+      Math.min(this.config.sectionParallelism(), sections.size());
+
+    if (threads <= 1) {
+      final var fragments =
+        new ArrayList<DocumentFragment>(sections.size());
+      for (final var section : sections) {
+        fragments.add(this.evaluateSection(section));
+      }
+      return fragments;
+    }
 
-    this.config.changelog()
-      .ifPresent(changelog -> {
-        main.appendChild(MinXHTMLChangelogs.changelog(document, changelog));
-      });
+    final var futures = new ArrayList<Future<DocumentFragment>>(sections.size());
+    try (var executor = Executors.newFixedThreadPool(threads)) {
+      for (final var section : sections) {
+        futures.add(executor.submit(() -> this.evaluateSection(section)));
+      }
+    }
 
-    this.config.sources()
-      .ifPresent(sources -> {
-        main.appendChild(sources(document, sources));
-      });
+    return MinFutures.awaitAll(futures, MinSite::toRuntimeException);
+  }
 
-    this.config.license()
-      .ifPresent(path -> {
-        main.appendChild(license(document, path));
-      });
+  private static RuntimeException toRuntimeException(
+    final Throwable cause)
+  {
+    if (cause instanceof final RuntimeException e) {
+      return e;
+    }
+    return new IllegalStateException(cause);
+  }
 
-    this.config.bugTracker()
-      .ifPresent(tracker -> {
-        main.appendChild(bugTracker(document, tracker));
-      });
+  private DocumentFragment evaluateSection(
+    final MinSectionProviderType section)
+  {
+    final var event = new MinSectionEvent();
+    event.begin();
+    final var fragment = section.evaluate(MinXMLParse.newDocument(), this);
+    this.commitSection(event, section.name(), this.sectionSource(section));
+    return fragment;
+  }
 
-    return main;
+  /**
+   * Move a fragment evaluated in another document into the given document.
+   * Adopting the fragment avoids copying it, but implementations are
+   * permitted to refuse to adopt nodes, in which case it is copied.
+   */
+
+  private static Node adopt(
+    final Document document,
+    final DocumentFragment fragment)
+  {
+    final var adopted = document.adoptNode(fragment);
+    if (adopted == null) {
+      return document.importNode(fragment, true);
+    }
+    return adopted;
+  }
+
+  private Optional<Path> sectionSource(
+    final MinSectionProviderType section)
+  {
+    if (section instanceof final BuiltInSection builtIn) {
+      return builtIn.source.apply(this);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * A generator of a section of the main page.
+   *
+   * @param <E> The type of exceptions raised by the generator
+   */
+
+  private interface SectionType<E extends Exception>
+  {
+    void generate()
+      throws E;
+  }
+
+  /**
+   * Generate a section, recording the time taken in a JFR event. When no
+   * recording is running, the event is never committed and costs nothing
+   * beyond the call to the generator.
+   */
+
+  private <E extends Exception> void section(
+    final String name,
+    final Optional<Path> file,
+    final SectionType<E> section)
+    throws E
+  {
+    final var event = new MinSectionEvent();
+    event.begin();
+    section.generate();
+    this.commitSection(event, name, file);
+  }
+
+  private void commitSection(
+    final MinSectionEvent event,
+    final String name,
+    final Optional<Path> file)
+  {
+    event.end();
+    if (event.shouldCommit()) {
+      event.project = this.config.projectName();
+      event.section = name;
+      event.file = file.map(Path::toString).orElse("");
+      event.bytes =
+        file.map(MinSite::sizeOf).orElse(Long.valueOf(0L)).longValue();
+      event.commit();
+    }
+  }
+
+  private static Long sizeOf(
+    final Path file)
+  {
+    try {
+      return Long.valueOf(Files.size(file));
+    } catch (final IOException e) {
+      return Long.valueOf(-1L);
+    }
+  }
+
+  private Optional<Path> changelogFile()
+  {
+    return this.config.changelog().map(MinChangesConfiguration::file);
   }
 
   private Element maven(
@@ -430,9 +799,10 @@ public final class MinSite
       final var pre = document.createElementNS(XHTML, "pre");
       final var group = this.config.projectGroupName();
       final var version = this.config.release();
-      mavenDependency(document, pre, this.config.projectName(), group, version);
+      this.mavenDependency(
+        document, pre, this.config.projectName(), group, version);
       for (final var module : this.config.projectModules()) {
-        mavenDependency(document, pre, module, group, version);
+        this.mavenDependency(document, pre, module, group, version);
       }
       maven.appendChild(pre);
     }
@@ -480,7 +850,7 @@ public final class MinSite
       documentation.appendChild(p);
     }
 
-    documentation.appendChild(MinXMLParse.parseFileUnchecked(document, path));
+    documentation.appendChild(this.fragment(document, path));
     return documentation;
   }
 
@@ -539,7 +909,7 @@ public final class MinSite
     area.setAttribute("class", "overview_title_area");
 
     final var img = document.createElementNS(XHTML, "img");
-    img.setAttribute("src", "icon.png");
+    img.setAttribute("src", this.assetName("icon.png"));
     img.setAttribute("width", "64");
     img.setAttribute("height", "64");
     img.setAttribute("class", "icon");
@@ -560,7 +930,7 @@ public final class MinSite
     area.setAttribute("class", "overview_content_area");
 
     this.config.overview().ifPresent(path -> {
-      area.appendChild(MinXMLParse.parseFileUnchecked(document, path));
+      area.appendChild(this.fragment(document, path));
     });
 
     return area;
@@ -573,62 +943,661 @@ public final class MinSite
     area.appendChild(h2(document, "Contents"));
 
     final var contents = document.createElementNS(XHTML, "ul");
+    for (final var section : this.sections()) {
+      section.contentsLink().ifPresent(target -> {
+        contents.appendChild(listItem(
+          document,
+          link(document, target.target(), target.title())));
+      });
+    }
 
-    this.config.features().ifPresent(
-      path -> contents.appendChild(listItem(
-        document,
-        contentsFeaturesLink(document))));
-
-    contents.appendChild(listItem(
-      document,
-      contentsReleasesLink(document)));
-
-    this.config.documentation().ifPresent(
-      path -> contents.appendChild(listItem(
-        document,
-        contentsDocumentationLink(document))));
-
-    contents.appendChild(listItem(
-      document,
-      contentsMavenLink(document)));
-
-    this.config.changelog().ifPresent(
-      path -> contents.appendChild(listItem(
-        document,
-        contentsChangesLink(document))));
-
-    this.config.sources().ifPresent(
-      sources -> contents.appendChild(listItem(
-        document,
-        contentsSourcesLink(document))));
+    area.appendChild(contents);
+    return area;
+  }
 
-    this.config.license().ifPresent(
-      path -> contents.appendChild(listItem(
-        document,
-        contentsLicenseLink(document))));
+  private String assetName(
+    final String name)
+  {
+    return this.config.assetNames().getOrDefault(name, name);
+  }
 
-    this.config.bugTracker().ifPresent(
-      path -> contents.appendChild(listItem(
-        document,
-        contentsBugTrackerLink(document))));
+  /**
+   * Several stylesheets may be published under the same name if they have
+   * been bundled together, so each published name is only linked once.
+   */
 
-    area.appendChild(contents);
-    return area;
+  private List<String> stylesheets()
+  {
+    return this.config.cssIncludes()
+      .stream()
+      .map(this::assetName)
+      .distinct()
+      .toList();
   }
 
   private Element head(
-    final Document document)
+    final Document document,
+    final String text)
   {
     final var head = document.createElementNS(XHTML, "head");
     final var title = document.createElementNS(XHTML, "title");
-    title.appendChild(document.createTextNode(this.config.projectName()));
+    title.appendChild(document.createTextNode(text));
 
     head.appendChild(metaGenerator(document));
     head.appendChild(metaType(document));
-    this.config.cssIncludes()
+    this.stylesheets()
       .forEach(name -> head.appendChild(css(document, name)));
 
     head.appendChild(title);
     return head;
   }
+
+  private int embeddedReleases()
+  {
+    return this.config.changelog()
+      .map(MinChangesConfiguration::embeddedReleases)
+      .orElse(Integer.valueOf(0))
+      .intValue();
+  }
+
+  /**
+   * @return {@code true} if the changelog is published as a set of archive
+   * pages rather than in full on the main page
+   */
+
+  public boolean hasChangelogArchive()
+  {
+    return this.embeddedReleases() > 0 && this.changelog().isPresent();
+  }
+
+  private CChangelog embeddedChangelog(
+    final CChangelog changelog)
+  {
+    final var count = this.embeddedReleases();
+    if (count == 0) {
+      return changelog;
+    }
+    return MinXHTMLChangelogs.recent(changelog, count);
+  }
+
+  private String changelogSource()
+  {
+    return this.config.changelog()
+      .map(changes -> changes.file().toString())
+      .orElse("");
+  }
+
+  private Optional<String> changelogHistory(
+    final CChangelog changelog)
+  {
+    final var count = this.embeddedReleases();
+    if (count == 0 || changelog.releases().size() <= count) {
+      return Optional.empty();
+    }
+    return Optional.of(CHANGELOG_ARCHIVE);
+  }
+
+  /**
+   * @param year The year
+   *
+   * @return The name of the changelog archive page for the given year
+   */
+
+  public static String changelogArchiveFile(
+    final int year)
+  {
+    return new StringBuilder(32)
+      .append("changes-")
+      .append(year)
+      .append(".xhtml")
+      .toString();
+  }
+
+  /**
+   * @return The years for which changelog archive pages are published, if
+   * the changelog is published as a set of archive pages
+   *
+   * @throws UncheckedIOException On errors reading the changelog
+   */
+
+  public SortedSet<Integer> changelogArchiveYears()
+    throws UncheckedIOException
+  {
+    if (!this.hasChangelogArchive()) {
+      return new TreeSet<>();
+    }
+    return MinXHTMLChangelogs.years(this.changelog().orElseThrow());
+  }
+
+  /**
+   * Generate the release history page that links to each of the changelog
+   * archive pages, most recent year first.
+   *
+   * @param document The document that will own the generated elements
+   *
+   * @return A generated page
+   *
+   * @throws UncheckedIOException On errors reading the changelog
+   */
+
+  public Element changelogArchiveIndex(
+    final Document document)
+    throws UncheckedIOException
+  {
+    Objects.requireNonNull(document, "document");
+
+    final var changes = document.createElementNS(XHTML, "div");
+    changes.setAttribute("id", "changes");
+    changes.appendChild(h2(document, "Release History"));
+    changes.appendChild(backLink(document));
+
+    final var years = document.createElementNS(XHTML, "ul");
+    for (final var year : this.changelogArchiveYears().reversed()) {
+      years.appendChild(listItem(
+        document,
+        link(document, changelogArchiveFile(year.intValue()), year.toString())
+      ));
+    }
+    changes.appendChild(years);
+
+    return this.archivePage(
+      document, this.config.projectName() + ": Release History", changes);
+  }
+
+  /**
+   * Generate the changelog archive page for the given year.
+   *
+   * @param document The document that will own the generated elements
+   * @param year     The year
+   *
+   * @return A generated page
+   *
+   * @throws UncheckedIOException On errors reading the changelog
+   */
+
+  public Element changelogArchivePage(
+    final Document document,
+    final int year)
+    throws UncheckedIOException
+  {
+    Objects.requireNonNull(document, "document");
+
+    final var changelog =
+      this.changelog().orElseThrow(
+        () -> new IllegalStateException("No changelog is configured"));
+
+    final var changes = document.createElementNS(XHTML, "div");
+    changes.setAttribute("id", "changes");
+    changes.appendChild(h2(document, "Releases in " + year));
+    changes.appendChild(backLink(document));
+    changes.appendChild(MinXHTMLChangelogs.releases(
+      document,
+      this.registry.changelogXHTMLWriter(),
+      MinXHTMLChangelogs.inYear(changelog, year),
+      this.changelogSource()));
+
+    return this.archivePage(
+      document, this.config.projectName() + ": Releases in " + year, changes);
+  }
+
+  private static Element backLink(
+    final Document document)
+  {
+    final var p = document.createElementNS(XHTML, "p");
+    p.appendChild(document.createTextNode("Return to the "));
+    p.appendChild(link(document, "index.xhtml#changes", "main page"));
+    p.appendChild(document.createTextNode(". See also the "));
+    p.appendChild(link(document, CHANGELOG_ARCHIVE, "release history"));
+    p.appendChild(document.createTextNode("."));
+    return p;
+  }
+
+  private Element archivePage(
+    final Document document,
+    final String title,
+    final Element changes)
+  {
+    final var main = document.createElementNS(XHTML, "div");
+    main.setAttribute("id", "main");
+    main.appendChild(changes);
+
+    final var body = document.createElementNS(XHTML, "body");
+    body.appendChild(main);
+
+    final var xhtml = document.createElementNS(XHTML, "html");
+    xhtml.appendChild(this.head(document, title));
+    xhtml.appendChild(body);
+    return xhtml;
+  }
+
+  /**
+   * Generate a site, writing the {@code html} element directly to the given
+   * stream writer rather than building an in-memory DOM. User-supplied
+   * fragments are copied to the writer event by event. The output is
+   * identical to serializing the element returned by
+   * {@link #document(Document)} with an identity transformer.
+   *
+   * @param writer The stream writer
+   *
+   * @throws XMLStreamException   On errors writing to the stream writer
+   * @throws UncheckedIOException On errors reading input files
+   */
+
+  public void write(
+    final XMLStreamWriter writer)
+    throws XMLStreamException, UncheckedIOException
+  {
+    Objects.requireNonNull(writer, "writer");
+
+    MinXHTMLStreams.startHTML(writer);
+    this.writeHead(writer);
+    writer.writeStartElement("body");
+    this.writeMain(writer);
+    writer.writeEndElement();
+    writer.writeEndElement();
+    writer.flush();
+  }
+
+  private void writeHead(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    writer.writeStartElement("head");
+
+    writer.writeEmptyElement("meta");
+    writer.writeAttribute(
+      "content",
+      new StringBuilder(128)
+        .append("https://www.github.com/io7m-com/minisite; ")
+        .append(version())
+        .toString());
+    writer.writeAttribute("name", "generator");
+
+    writer.writeEmptyElement("meta");
+    writer.writeAttribute("content", "application/xhtml+xml; charset=UTF-8");
+    writer.writeAttribute("http-equiv", "Content-Type");
+
+    for (final var name : this.stylesheets()) {
+      writer.writeEmptyElement("link");
+      writer.writeAttribute("href", name);
+      writer.writeAttribute("rel", "stylesheet");
+      writer.writeAttribute("type", "text/css");
+    }
+
+    MinXHTMLStreams.textElement(writer, "title", this.config.projectName());
+    writer.writeEndElement();
+  }
+
+  /**
+   * Write the sections in order. Built-in sections are written directly to
+   * the stream writer; other sections are evaluated into a document and
+   * then copied to the writer.
+   */
+
+  private void writeMain(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "main");
+
+    for (final var section : this.sections()) {
+      if (section instanceof final BuiltInSection builtIn) {
+        this.section(builtIn.name, builtIn.source.apply(this), () -> {
+          builtIn.writer.write(this, writer);
+        });
+      } else {
+        this.section(section.name(), Optional.empty(), () -> {
+          MinXHTMLStreams.copyFragment(
+            writer,
+            section.evaluate(MinXMLParse.newDocument(), this));
+        });
+      }
+    }
+
+    writer.writeEndElement();
+  }
+
+  private void writeHeader(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "header");
+    this.writeFragment(
+      writer, this.config.header().orElseThrow().toAbsolutePath());
+    writer.writeEndElement();
+  }
+
+  private void writeFeatures(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "features");
+    MinXHTMLStreams.h2(writer, "Features");
+    this.writeFragment(
+      writer, this.config.features().orElseThrow().toAbsolutePath());
+    writer.writeEndElement();
+  }
+
+  private void writeChangelog(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    final var changelog = this.changelog().orElseThrow();
+    MinXHTMLChangelogs.writeChangelog(
+      writer,
+      this.registry.changelogXHTMLWriter(),
+      this.embeddedChangelog(changelog),
+      this.changelogHistory(changelog),
+      this.changelogSource());
+  }
+
+  private void writeSources(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.copyElement(
+      writer,
+      this.sources(
+        MinXMLParse.newDocument(), this.config.sources().orElseThrow()));
+  }
+
+  private void writeLicense(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "license");
+    MinXHTMLStreams.h2(writer, "License");
+    MinXHTMLStreams.textElement(
+      writer,
+      "pre",
+      licenseText(
+        this.config.license().orElseThrow(), this.config.lineSeparator()));
+    writer.writeEndElement();
+  }
+
+  private void writeBugTracker(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    final var tracker = this.config.bugTracker().orElseThrow();
+    MinXHTMLStreams.startWithId(writer, "div", "bug-tracker");
+    MinXHTMLStreams.h2(writer, "Bug Tracker");
+    writer.writeStartElement("p");
+    writer.writeCharacters("The project uses ");
+    MinXHTMLStreams.link(
+      writer, tracker.uri().toString(), tracker.system());
+    writer.writeCharacters(" to track issues.");
+    writer.writeEndElement();
+    writer.writeEndElement();
+  }
+
+  private void writeMaven(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "maven");
+    MinXHTMLStreams.h2(writer, "Maven");
+
+    MinXHTMLStreams.textElement(
+      writer,
+      "p",
+      "The following is a complete list of the project's modules expressed as Maven dependencies: "
+    );
+
+    {
+      final var group = this.config.projectGroupName();
+      final var version = this.config.release();
+      writer.writeStartElement("pre");
+      this.writeMavenDependency(
+        writer, this.config.projectName(), group, version);
+      for (final var module : this.config.projectModules()) {
+        this.writeMavenDependency(writer, module, group, version);
+      }
+      writer.writeEndElement();
+    }
+
+    writer.writeStartElement("p");
+    writer.writeCharacters("Each release of the project is made available on ");
+    MinXHTMLStreams.link(writer, "http://search.maven.org", "Maven Central");
+    writer.writeCharacters(" within ten minutes of the release announcement.");
+    writer.writeEndElement();
+
+    writer.writeEndElement();
+  }
+
+  private void writeMavenDependency(
+    final XMLStreamWriter writer,
+    final String module,
+    final String group,
+    final String version)
+    throws XMLStreamException
+  {
+    final var separator = this.config.lineSeparator();
+    writer.writeCharacters("<dependency>");
+    writer.writeCharacters(separator);
+    writer.writeCharacters("  <groupId>");
+    MinXHTMLStreams.link(writer, mavenLinkGroup(group), group);
+    writer.writeCharacters("</groupId>");
+    writer.writeCharacters(separator);
+    writer.writeCharacters("  <artifactId>");
+    MinXHTMLStreams.link(writer, mavenLinkArtifact(module), module);
+    writer.writeCharacters("</artifactId>");
+    writer.writeCharacters(separator);
+    writer.writeCharacters("  <version>");
+    MinXHTMLStreams.link(writer, mavenLinkVersion(module, group, version), version);
+    writer.writeCharacters("</version>");
+    writer.writeCharacters(separator);
+    writer.writeCharacters("</dependency>");
+    writer.writeCharacters(separator);
+    writer.writeCharacters(separator);
+  }
+
+  private void writeDocumentation(
+    final XMLStreamWriter writer,
+    final Path path)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "documentation");
+    MinXHTMLStreams.h2(writer, "Documentation");
+
+    writer.writeStartElement("p");
+    writer.writeCharacters("Documentation for the ");
+    MinXHTMLStreams.textElement(writer, "tt", this.config.release());
+    writer.writeCharacters(" release is available for reading online.");
+    writer.writeEndElement();
+
+    writer.writeStartElement("p");
+    writer.writeCharacters(
+      "Documentation for current and older releases is archived in the ");
+    MinXHTMLStreams.link(writer, this.centralRepos(), "repository");
+    writer.writeCharacters(".");
+    writer.writeEndElement();
+
+    this.writeFragment(writer, path);
+    writer.writeEndElement();
+  }
+
+  private void writeReleases(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "releases");
+    MinXHTMLStreams.h2(writer, "Releases");
+
+    writer.writeStartElement("p");
+    writer.writeCharacters(
+      "The most recently published version of the software is ");
+    MinXHTMLStreams.textElement(writer, "tt", this.config.release());
+    writer.writeCharacters(".");
+    writer.writeEndElement();
+
+    writer.writeStartElement("p");
+    writer.writeCharacters("Source code and binaries are available from the ");
+    MinXHTMLStreams.link(writer, this.centralRepos(), "repository");
+    writer.writeCharacters(".");
+    writer.writeEndElement();
+
+    writer.writeEndElement();
+  }
+
+  private void writeOverview(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    MinXHTMLStreams.startWithId(writer, "div", "overview");
+
+    MinXHTMLStreams.startWithClass(writer, "div", "overview_title_area");
+    writer.writeEmptyElement("img");
+    writer.writeAttribute("alt", "Project icon");
+    writer.writeAttribute("class", "icon");
+    writer.writeAttribute("height", "64");
+    writer.writeAttribute("src", this.assetName("icon.png"));
+    writer.writeAttribute("width", "64");
+    MinXHTMLStreams.textElement(writer, "h1", this.config.projectName());
+    writer.writeEndElement();
+
+    final var overview = this.config.overview();
+    if (overview.isPresent()) {
+      MinXHTMLStreams.startWithClass(writer, "div", "overview_content_area");
+      this.writeFragment(writer, overview.get());
+      writer.writeEndElement();
+    } else {
+      writer.writeEmptyElement("div");
+      writer.writeAttribute("class", "overview_content_area");
+    }
+
+    writer.writeEndElement();
+  }
+
+  private void writeContents(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    writer.writeStartElement("div");
+    MinXHTMLStreams.h2(writer, "Contents");
+    writer.writeStartElement("ul");
+
+    for (final var section : this.sections()) {
+      final var target = section.contentsLink();
+      if (target.isPresent()) {
+        MinXHTMLStreams.listItemLink(
+          writer, target.get().target(), target.get().title());
+      }
+    }
+
+    writer.writeEndElement();
+    writer.writeEndElement();
+  }
+
+  private Element changelogSection(
+    final Document document)
+  {
+    final var changelog = this.changelog().orElseThrow();
+    return MinXHTMLChangelogs.changelog(
+      document,
+      this.registry.changelogXHTMLWriter(),
+      this.embeddedChangelog(changelog),
+      this.changelogHistory(changelog),
+      this.changelogSource());
+  }
+
+  /**
+   * A generator of a built-in section of the main page as a DOM element.
+   */
+
+  private interface SectionElementType
+  {
+    Element evaluate(
+      MinSite site,
+      Document document);
+  }
+
+  /**
+   * A generator of a built-in section of the main page that writes directly
+   * to a stream writer.
+   */
+
+  private interface SectionWriterType
+  {
+    void write(
+      MinSite site,
+      XMLStreamWriter writer)
+      throws XMLStreamException;
+  }
+
+  /**
+   * A built-in section. Built-in sections can be written directly to a
+   * stream writer without building a DOM.
+   */
+
+  private static final class BuiltInSection implements MinSectionProviderType
+  {
+    private final String name;
+    private final int order;
+    private final Optional<MinSectionLink> link;
+    private final Predicate<MinSite> enabled;
+    private final Function<MinSite, Optional<Path>> source;
+    private final SectionElementType element;
+    private final SectionWriterType writer;
+
+    private BuiltInSection(
+      final String inName,
+      final int inOrder,
+      final Optional<MinSectionLink> inLink,
+      final Predicate<MinSite> inEnabled,
+      final Function<MinSite, Optional<Path>> inSource,
+      final SectionElementType inElement,
+      final SectionWriterType inWriter)
+    {
+      this.name = Objects.requireNonNull(inName, "Name");
+      this.order = inOrder;
+      this.link = Objects.requireNonNull(inLink, "Link");
+      this.enabled = Objects.requireNonNull(inEnabled, "Enabled");
+      this.source = Objects.requireNonNull(inSource, "Source");
+      this.element = Objects.requireNonNull(inElement, "Element");
+      this.writer = Objects.requireNonNull(inWriter, "Writer");
+    }
+
+    @Override
+    public String name()
+    {
+      return this.name;
+    }
+
+    @Override
+    public int order()
+    {
+      return this.order;
+    }
+
+    @Override
+    public Optional<MinSectionLink> contentsLink()
+    {
+      return this.link;
+    }
+
+    @Override
+    public boolean isEnabled(
+      final MinSite site)
+    {
+      return this.enabled.test(site);
+    }
+
+    @Override
+    public DocumentFragment evaluate(
+      final Document document,
+      final MinSite site)
+    {
+      final var fragment = document.createDocumentFragment();
+      fragment.appendChild(this.element.evaluate(site, document));
+      return fragment;
+    }
+  }
+
+  private static Optional<MinSectionLink> contentsLink(
+    final String target,
+    final String title)
+  {
+    return Optional.of(MinSectionLink.of(target, title));
+  }
 }
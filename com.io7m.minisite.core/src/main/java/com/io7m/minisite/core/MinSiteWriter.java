@@ -0,0 +1,657 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core;
+
+import com.io7m.changelog.core.CChangelog;
+import com.io7m.changelog.core.CRelease;
+import com.io7m.changelog.xml.api.CAtomChangelogWriterConfiguration;
+import com.io7m.minisite.core.internal.MinAtomArchives;
+import com.io7m.minisite.core.internal.MinWriteEvent;
+import com.io7m.minisite.core.internal.MinMinify;
+import com.io7m.minisite.core.internal.MinMinifyingStreamWriter;
+import com.io7m.minisite.core.internal.MinXMLParse;
+import org.w3c.dom.Document;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to write generated site artefacts to files. The XML factories
+ * and transformers used are configured once and reused by each thread, so
+ * repeated calls avoid the JAXP lookup and initialization costs.
+ */
+
+public final class MinSiteWriter
+{
+  private static final String XML_DECLARATION =
+    "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+  private static final TransformerFactory TRANSFORMER_FACTORY =
+    TransformerFactory.newInstance();
+
+  private static final ThreadLocal<Transformer> TRANSFORMERS =
+    ThreadLocal.withInitial(MinSiteWriter::createTransformer);
+
+  private static final ThreadLocal<XMLOutputFactory> OUTPUT_FACTORIES =
+    ThreadLocal.withInitial(XMLOutputFactory::newFactory);
+
+  private static final MinWriterConfiguration DEFAULT_CONFIGURATION =
+    MinWriterConfiguration.builder()
+      .build();
+
+  private MinSiteWriter()
+  {
+
+  }
+
+  /**
+   * The bundled stylesheet, read once on first use.
+   */
+
+  private static final class Style
+  {
+    private static final byte[] BYTES = load();
+
+    private Style()
+    {
+
+    }
+
+    private static byte[] load()
+    {
+      try (var input = MinSite.class.getResourceAsStream("minisite.css")) {
+        return input.readAllBytes();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * The bundled stylesheet minified, computed once on first use.
+   */
+
+  private static final class MinifiedStyle
+  {
+    private static final byte[] BYTES =
+      MinMinify.minifyCSS(new String(Style.BYTES, UTF_8)).getBytes(UTF_8);
+
+    private MinifiedStyle()
+    {
+
+    }
+  }
+
+  private static Transformer createTransformer()
+  {
+    /*
+     * Factories are not guaranteed to be thread-safe.
+     */
+
+    synchronized (TRANSFORMER_FACTORY) {
+      try {
+        return TRANSFORMER_FACTORY.newTransformer();
+      } catch (final TransformerConfigurationException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  /**
+   * Generate the site as a document and serialize it to {@code file}.
+   *
+   * @param site The site
+   * @param file The output file
+   *
+   * @throws IOException          On errors writing the file
+   * @throws UncheckedIOException On errors reading input files
+   */
+
+  public static void writeIndex(
+    final MinSite site,
+    final Path file)
+    throws IOException, UncheckedIOException
+  {
+    writeIndex(site, DEFAULT_CONFIGURATION, file);
+  }
+
+  /**
+   * Generate the site as a document and serialize it to {@code file}.
+   *
+   * @param site          The site
+   * @param configuration The writer configuration
+   * @param file          The output file
+   *
+   * @return Statistics describing the written file
+   *
+   * @throws IOException          On errors writing the file
+   * @throws UncheckedIOException On errors reading input files
+   */
+
+  public static MinWriteStatistics writeIndex(
+    final MinSite site,
+    final MinWriterConfiguration configuration,
+    final Path file)
+    throws IOException, UncheckedIOException
+  {
+    Objects.requireNonNull(site, "site");
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(file, "file");
+
+    final var event = new MinWriteEvent();
+    event.begin();
+
+    final var document = MinXMLParse.newDocument();
+    final var root = site.document(document);
+    document.appendChild(root);
+
+    var saved = 0L;
+    if (configuration.minify()) {
+      saved = MinMinify.minifyElement(root);
+    }
+
+    final var transformer = TRANSFORMERS.get();
+    try (var output = Files.newBufferedWriter(file)) {
+      transformer.transform(new DOMSource(document), new StreamResult(output));
+      output.flush();
+    } catch (final TransformerException e) {
+      throw new IOException(e);
+    } finally {
+      transformer.reset();
+    }
+
+    commitWrite(event, site.configuration().projectName(), "index", file);
+    return MinWriteStatistics.of(Files.size(file), saved);
+  }
+
+  /**
+   * Generate the site directly to {@code file} without building a document.
+   * The output is identical to that of
+   * {@link #writeIndex(MinSite, Path)}.
+   *
+   * @param site The site
+   * @param file The output file
+   *
+   * @throws IOException          On errors writing the file
+   * @throws UncheckedIOException On errors reading input files
+   */
+
+  public static void writeIndexStreaming(
+    final MinSite site,
+    final Path file)
+    throws IOException, UncheckedIOException
+  {
+    writeIndexStreaming(site, DEFAULT_CONFIGURATION, file);
+  }
+
+  /**
+   * Generate the site directly to {@code file} without building a document.
+   * When not minifying, the output is identical to that of
+   * {@link #writeIndex(MinSite, MinWriterConfiguration, Path)}. When
+   * minifying, the only difference is that elements left without content
+   * may be written with separate start and end tags.
+   *
+   * @param site          The site
+   * @param configuration The writer configuration
+   * @param file          The output file
+   *
+   * @return Statistics describing the written file
+   *
+   * @throws IOException          On errors writing the file
+   * @throws UncheckedIOException On errors reading input files
+   */
+
+  public static MinWriteStatistics writeIndexStreaming(
+    final MinSite site,
+    final MinWriterConfiguration configuration,
+    final Path file)
+    throws IOException, UncheckedIOException
+  {
+    Objects.requireNonNull(site, "site");
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(file, "file");
+
+    final var event = new MinWriteEvent();
+    event.begin();
+
+    var saved = 0L;
+    try (var output = Files.newBufferedWriter(file)) {
+
+      /*
+       * The declaration is written by hand so that it is identical to the
+       * one produced by the identity transformer.
+       */
+
+      output.write(XML_DECLARATION);
+
+      final var baseWriter =
+        OUTPUT_FACTORIES.get().createXMLStreamWriter(output);
+
+      if (configuration.minify()) {
+        final var writer = new MinMinifyingStreamWriter(baseWriter);
+        try {
+          site.write(writer);
+        } finally {
+          writer.close();
+        }
+        saved = writer.bytesSaved();
+      } else {
+        try {
+          site.write(baseWriter);
+        } finally {
+          baseWriter.close();
+        }
+      }
+      output.flush();
+    } catch (final XMLStreamException e) {
+      throw new IOException(e);
+    }
+
+    commitWrite(event, site.configuration().projectName(), "index", file);
+    return MinWriteStatistics.of(Files.size(file), saved);
+  }
+
+  /**
+   * Write the release history page and the per-year changelog archive pages
+   * of the site to {@code directory}. Each page is generated in memory and
+   * a file is only replaced if its content differs from the page, so that
+   * the archive pages of past years keep their modification times and are
+   * not copied or uploaded again on every build. Nothing is written unless
+   * the site publishes a changelog archive.
+   *
+   * @param site          The site
+   * @param configuration The writer configuration
+   * @param directory     The output directory
+   *
+   * @return Statistics describing the written pages
+   *
+   * @throws IOException          On errors writing files
+   * @throws UncheckedIOException On errors reading the changelog
+   *
+   * @see MinSite#hasChangelogArchive()
+   */
+
+  public static MinChangelogArchiveStatistics writeChangelogArchive(
+    final MinSite site,
+    final MinWriterConfiguration configuration,
+    final Path directory)
+    throws IOException, UncheckedIOException
+  {
+    Objects.requireNonNull(site, "site");
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(directory, "directory");
+
+    if (!site.hasChangelogArchive()) {
+      return MinChangelogArchiveStatistics.of(0, 0);
+    }
+
+    var written = 0;
+    var unchanged = 0;
+
+    final var project = site.configuration().projectName();
+
+    {
+      final var event = new MinWriteEvent();
+      event.begin();
+      final var document = MinXMLParse.newDocument();
+      document.appendChild(site.changelogArchiveIndex(document));
+      final var file = directory.resolve(MinSite.CHANGELOG_ARCHIVE);
+      if (writeIfChanged(configuration, document, file)) {
+        ++written;
+      } else {
+        ++unchanged;
+      }
+      commitWrite(event, project, "changelog-archive", file);
+    }
+
+    for (final var year : site.changelogArchiveYears()) {
+      final var event = new MinWriteEvent();
+      event.begin();
+      final var document = MinXMLParse.newDocument();
+      document.appendChild(site.changelogArchivePage(document, year.intValue()));
+      final var file =
+        directory.resolve(MinSite.changelogArchiveFile(year.intValue()));
+      if (writeIfChanged(configuration, document, file)) {
+        ++written;
+      } else {
+        ++unchanged;
+      }
+      commitWrite(event, project, "changelog-archive", file);
+    }
+
+    return MinChangelogArchiveStatistics.of(written, unchanged);
+  }
+
+  /**
+   * Commit a JFR event describing a written file. When no recording is
+   * running, the event is never committed and the file is not examined.
+   */
+
+  private static void commitWrite(
+    final MinWriteEvent event,
+    final String project,
+    final String artefact,
+    final Path file)
+  {
+    event.end();
+    if (event.shouldCommit()) {
+      event.project = project;
+      event.artefact = artefact;
+      event.file = file.toString();
+      try {
+        event.bytes = Files.size(file);
+      } catch (final IOException e) {
+        event.bytes = -1L;
+      }
+      event.commit();
+    }
+  }
+
+  private static boolean writeIfChanged(
+    final MinWriterConfiguration configuration,
+    final Document document,
+    final Path file)
+    throws IOException
+  {
+    if (configuration.minify()) {
+      MinMinify.minifyElement(document.getDocumentElement());
+    }
+
+    final var transformer = TRANSFORMERS.get();
+    try (var output = new ByteArrayOutputStream()) {
+      transformer.transform(new DOMSource(document), new StreamResult(output));
+      return MinOutputFiles.replaceIfChanged(output.toByteArray(), file);
+    } catch (final TransformerException e) {
+      throw new IOException(e);
+    } finally {
+      transformer.reset();
+    }
+  }
+
+  /**
+   * Write the default stylesheet to {@code file}.
+   *
+   * @param file The output file
+   *
+   * @throws IOException On errors
+   */
+
+  public static void writeStyle(
+    final Path file)
+    throws IOException
+  {
+    writeStyle(DEFAULT_CONFIGURATION, file);
+  }
+
+  /**
+   * Write the default stylesheet to {@code file}.
+   *
+   * @param configuration The writer configuration
+   * @param file          The output file
+   *
+   * @return Statistics describing the written file
+   *
+   * @throws IOException On errors
+   */
+
+  public static MinWriteStatistics writeStyle(
+    final MinWriterConfiguration configuration,
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(file, "file");
+
+    final var event = new MinWriteEvent();
+    event.begin();
+
+    if (configuration.minify()) {
+      Files.write(file, MinifiedStyle.BYTES);
+      commitWrite(event, "", "style", file);
+      return MinWriteStatistics.of(
+        MinifiedStyle.BYTES.length,
+        Style.BYTES.length - MinifiedStyle.BYTES.length);
+    }
+
+    Files.write(file, Style.BYTES);
+    commitWrite(event, "", "style", file);
+    return MinWriteStatistics.of(Style.BYTES.length, 0L);
+  }
+
+  /**
+   * Write the Atom feed of the site's changelog to {@code file}. If the
+   * changelog configuration limits the number of feed entries, and there
+   * are more releases than the limit, the feed only contains the newest
+   * releases and links to the most recent archived feed document.
+   *
+   * @param site    The site
+   * @param feedURI The URI at which the feed will be published
+   * @param updated The feed's update time
+   * @param file    The output file
+   *
+   * @throws IOException            On errors
+   * @throws NoSuchElementException If the site has no changelog
+   *
+   * @see #writeAtomArchive(MinSite, URI, Path)
+   */
+
+  public static void writeAtom(
+    final MinSite site,
+    final URI feedURI,
+    final ZonedDateTime updated,
+    final Path file)
+    throws IOException, NoSuchElementException
+  {
+    Objects.requireNonNull(site, "site");
+    Objects.requireNonNull(feedURI, "feedURI");
+    Objects.requireNonNull(updated, "updated");
+    Objects.requireNonNull(file, "file");
+
+    final var event = new MinWriteEvent();
+    event.begin();
+
+    final var project = site.configuration().projectName();
+    final var changesConfig = site.configuration().changelog().orElseThrow();
+    final var changelog = site.changelog().orElseThrow();
+    final var entries = changesConfig.feedEntries();
+    final var archives =
+      MinAtomArchives.archiveCount(changelog.releases().size(), entries);
+
+    if (archives == 0) {
+      try (var output = Files.newOutputStream(file)) {
+        writeAtomDocument(site, changelog, feedURI, updated, output);
+      }
+      commitWrite(event, project, "atom", file);
+      return;
+    }
+
+    final var links = new LinkedHashMap<String, String>();
+    links.put(
+      "prev-archive",
+      feedURI.resolve(MinAtomArchives.archiveFile(archives)).toString());
+
+    try (var output = Files.newOutputStream(file)) {
+      writeAtomRewritten(
+        site,
+        MinAtomArchives.current(changelog, entries),
+        feedURI,
+        updated,
+        false,
+        links,
+        output);
+    }
+    commitWrite(event, project, "atom", file);
+  }
+
+  /**
+   * Write the archived feed documents of the site's changelog to
+   * {@code directory}, as described by RFC 5005. Each archive holds a fixed
+   * number of the oldest releases and is only created once it is full, and
+   * its update time is that of its newest release. An archive therefore
+   * changes exactly once after it is created, when its successor appears
+   * and it gains a {@code next-archive} link. A file is only replaced if
+   * its content differs from the archive. Nothing is written unless the changelog configuration
+   * limits the number of feed entries.
+   *
+   * @param site      The site
+   * @param feedURI   The URI at which the feed will be published
+   * @param directory The output directory
+   *
+   * @return Statistics describing the written archives
+   *
+   * @throws IOException            On errors
+   * @throws NoSuchElementException If the site has no changelog
+   *
+   * @see MinChangesConfiguration#feedEntries()
+   */
+
+  public static MinChangelogArchiveStatistics writeAtomArchive(
+    final MinSite site,
+    final URI feedURI,
+    final Path directory)
+    throws IOException, NoSuchElementException
+  {
+    Objects.requireNonNull(site, "site");
+    Objects.requireNonNull(feedURI, "feedURI");
+    Objects.requireNonNull(directory, "directory");
+
+    final var changesConfig = site.configuration().changelog().orElseThrow();
+    final var changelog = site.changelog().orElseThrow();
+    final var entries = changesConfig.feedEntries();
+    final var archives =
+      MinAtomArchives.archiveCount(changelog.releases().size(), entries);
+
+    final var project = site.configuration().projectName();
+    var written = 0;
+    var unchanged = 0;
+    for (int index = 1; index <= archives; ++index) {
+      final var event = new MinWriteEvent();
+      event.begin();
+
+      final var archive =
+        MinAtomArchives.archive(changelog, entries, index);
+      final var updated =
+        archive.releases().values()
+          .stream()
+          .map(CRelease::date)
+          .max(Comparator.naturalOrder())
+          .orElseThrow();
+
+      /*
+       * The newest archive has no next archive to link to. When the next
+       * archive is created, this archive gains the link and is rewritten
+       * once; after that, it only changes if the history is edited.
+       */
+
+      final var links = new LinkedHashMap<String, String>();
+      links.put("current", feedURI.toString());
+      if (index > 1) {
+        links.put(
+          "prev-archive",
+          feedURI.resolve(MinAtomArchives.archiveFile(index - 1)).toString());
+      }
+      if (index < archives) {
+        links.put(
+          "next-archive",
+          feedURI.resolve(MinAtomArchives.archiveFile(index + 1)).toString());
+      }
+
+      try (var output = new ByteArrayOutputStream()) {
+        writeAtomRewritten(
+          site, archive, feedURI, updated, true, links, output);
+        final var file =
+          directory.resolve(MinAtomArchives.archiveFile(index));
+        if (MinOutputFiles.replaceIfChanged(output.toByteArray(), file)) {
+          ++written;
+        } else {
+          ++unchanged;
+        }
+        commitWrite(event, project, "atom-archive", file);
+      }
+    }
+
+    return MinChangelogArchiveStatistics.of(written, unchanged);
+  }
+
+  private static void writeAtomRewritten(
+    final MinSite site,
+    final CChangelog changelog,
+    final URI feedURI,
+    final ZonedDateTime updated,
+    final boolean archive,
+    final Map<String, String> links,
+    final OutputStream output)
+    throws IOException
+  {
+    try (var buffer = new ByteArrayOutputStream()) {
+      writeAtomDocument(site, changelog, feedURI, updated, buffer);
+      try (var input = new ByteArrayInputStream(buffer.toByteArray())) {
+        MinAtomArchives.rewrite(input, output, archive, links);
+      }
+    }
+  }
+
+  private static void writeAtomDocument(
+    final MinSite site,
+    final CChangelog changelog,
+    final URI feedURI,
+    final ZonedDateTime updated,
+    final OutputStream output)
+    throws IOException
+  {
+    final var configuration = site.configuration();
+    final var changesConfig = configuration.changelog().orElseThrow();
+    final var writerProvider = site.registry().changelogAtomWriter();
+
+    final var meta =
+      CAtomChangelogWriterConfiguration.builder()
+        .setAuthorEmail(changesConfig.feedEmail())
+        .setAuthorName("minisite")
+        .setUpdated(updated)
+        .setTitle(configuration.projectName() + " Releases")
+        .setUri(feedURI)
+        .build();
+
+    writerProvider.createWithConfiguration(
+      meta,
+      changesConfig.file().toUri(),
+      output
+    ).write(changelog);
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * A watcher of site inputs. A file is watched by watching its parent
+ * directory and ignoring changes to any other files in that directory; a
+ * directory is watched along with all of its descendants, including those
+ * created after the watcher. Changes are delivered in bursts: once a change
+ * is seen, the watcher keeps collecting changes until none have been seen
+ * for the configured quiet period, so that saving several files at once
+ * results in a single burst. Watchers are not thread-safe.
+ */
+
+public final class MinWatcher implements AutoCloseable
+{
+  private final MinWatchConfiguration configuration;
+  private final List<Path> paths;
+  private final WatchService service;
+  private final Map<WatchKey, Path> keys;
+  private final Set<Path> directories;
+
+  private MinWatcher(
+    final MinWatchConfiguration inConfiguration,
+    final WatchService inService)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "Configuration");
+    this.service =
+      Objects.requireNonNull(inService, "Service");
+    this.paths =
+      inConfiguration.paths()
+        .stream()
+        .map(path -> path.toAbsolutePath().normalize())
+        .toList();
+    this.keys = new HashMap<>();
+    this.directories = new HashSet<>();
+  }
+
+  /**
+   * Start watching the configured paths.
+   *
+   * @param configuration The watch configuration
+   *
+   * @return A new watcher
+   *
+   * @throws IOException On errors
+   */
+
+  public static MinWatcher create(
+    final MinWatchConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var watcher =
+      new MinWatcher(
+        configuration,
+        FileSystems.getDefault().newWatchService());
+
+    try {
+      for (final var path : watcher.paths) {
+        watcher.register(path);
+      }
+    } catch (final IOException e) {
+      watcher.close();
+      throw e;
+    }
+    return watcher;
+  }
+
+  /**
+   * Wait for a burst of changes to the watched paths.
+   *
+   * @return The changed files and directories, which is never empty
+   *
+   * @throws IOException          On errors
+   * @throws InterruptedException If interrupted while waiting
+   */
+
+  public SortedSet<Path> await()
+    throws IOException, InterruptedException
+  {
+    final var quiet = this.configuration.quietPeriod().toMillis();
+    final var changed = new TreeSet<Path>();
+
+    while (changed.isEmpty()) {
+      var key = this.service.take();
+      while (key != null) {
+        this.collect(key, changed);
+        key = this.service.poll(quiet, TimeUnit.MILLISECONDS);
+      }
+    }
+    return changed;
+  }
+
+  private void collect(
+    final WatchKey key,
+    final Set<Path> changed)
+    throws IOException
+  {
+    final var directory = this.keys.get(key);
+
+    for (final var event : key.pollEvents()) {
+
+      /*
+       * If events were lost, it is not known what changed.
+       */
+
+      if (event.kind() == OVERFLOW || directory == null) {
+        changed.addAll(this.paths);
+        continue;
+      }
+
+      final var file = directory.resolve((Path) event.context());
+      if (!this.isWatched(file)) {
+        continue;
+      }
+
+      changed.add(file);
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+        this.registerTree(file);
+      }
+    }
+
+    if (!key.reset()) {
+      this.keys.remove(key);
+      this.directories.remove(directory);
+    }
+  }
+
+  private boolean isWatched(
+    final Path file)
+  {
+    for (final var path : this.paths) {
+      if (file.startsWith(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void register(
+    final Path path)
+    throws IOException
+  {
+    if (Files.isDirectory(path)) {
+      this.registerTree(path);
+      return;
+    }
+
+    final var parent = path.getParent();
+    if (parent != null && Files.isDirectory(parent)) {
+      this.registerDirectory(parent);
+    }
+  }
+
+  private void registerTree(
+    final Path root)
+    throws IOException
+  {
+    final List<Path> trees;
+    try (var stream = Files.walk(root)) {
+      trees = stream.filter(Files::isDirectory).toList();
+    }
+    for (final var directory : trees) {
+      this.registerDirectory(directory);
+    }
+  }
+
+  private void registerDirectory(
+    final Path directory)
+    throws IOException
+  {
+    if (this.directories.add(directory)) {
+      final var key =
+        directory.register(
+          this.service,
+          ENTRY_CREATE,
+          ENTRY_DELETE,
+          ENTRY_MODIFY);
+      this.keys.put(key, directory);
+    }
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.service.close();
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import com.io7m.changelog.core.CChangelog;
+import com.io7m.changelog.core.CRelease;
+import com.io7m.changelog.core.CVersion;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Functions to divide Atom feeds into archived feed documents as described
+ * by RFC 5005 "Feed Paging and Archiving". Releases are assigned to archives
+ * in order from the oldest, and every archive holds exactly the configured
+ * number of entries. The current feed holds the remaining newest releases,
+ * which is always at least one and at most the configured number. An archive
+ * is therefore only created once it is full. Its entries never change
+ * afterwards unless the history itself is edited, but the archive changes
+ * exactly once more, when its successor is created and it gains a link to
+ * that successor.
+ */
+
+public final class MinAtomArchives
+{
+  /**
+   * The Atom namespace.
+   */
+
+  public static final String ATOM =
+    "http://www.w3.org/2005/Atom";
+
+  /**
+   * The RFC 5005 feed history namespace.
+   */
+
+  public static final String HISTORY =
+    "http://purl.org/syndication/history/1.0";
+
+  private static final ThreadLocal<XMLOutputFactory> OUTPUT_FACTORIES =
+    ThreadLocal.withInitial(XMLOutputFactory::newFactory);
+
+  private MinAtomArchives()
+  {
+
+  }
+
+  /**
+   * @param releases The number of releases
+   * @param entries  The maximum number of entries per feed document, or
+   *                 {@code 0} for no limit
+   *
+   * @return The number of archived feed documents
+   */
+
+  public static int archiveCount(
+    final int releases,
+    final int entries)
+  {
+    if (entries == 0 || releases <= entries) {
+      return 0;
+    }
+    return (releases - 1) / entries;
+  }
+
+  /**
+   * @param index The archive index, starting at {@code 1} for the oldest
+   *
+   * @return The file name of the archived feed document
+   */
+
+  public static String archiveFile(
+    final int index)
+  {
+    return new StringBuilder(32)
+      .append("releases-")
+      .append(index)
+      .append(".atom")
+      .toString();
+  }
+
+  /**
+   * @param changelog The changelog
+   * @param entries   The maximum number of entries per feed document
+   *
+   * @return The changelog holding the releases of the current feed
+   */
+
+  public static CChangelog current(
+    final CChangelog changelog,
+    final int entries)
+  {
+    final var size = changelog.releases().size();
+    final var archived = archiveCount(size, entries) * entries;
+    return slice(changelog, archived, size);
+  }
+
+  /**
+   * @param changelog The changelog
+   * @param entries   The maximum number of entries per feed document
+   * @param index     The archive index, starting at {@code 1} for the oldest
+   *
+   * @return The changelog holding the releases of the given archive
+   */
+
+  public static CChangelog archive(
+    final CChangelog changelog,
+    final int entries,
+    final int index)
+  {
+    final var start = (index - 1) * entries;
+    return slice(changelog, start, start + entries);
+  }
+
+  private static CChangelog slice(
+    final CChangelog changelog,
+    final int start,
+    final int end)
+  {
+    final var entries = new ArrayList<>(changelog.releases().entrySet());
+    final var releases = new TreeMap<CVersion, CRelease>();
+    for (final var entry : entries.subList(start, end)) {
+      releases.put(entry.getKey(), entry.getValue());
+    }
+    return CChangelog.builder()
+      .from(changelog)
+      .setReleases(releases)
+      .build();
+  }
+
+  /**
+   * Copy a feed document, adding the given links and, for archived feed
+   * documents, the {@code fh:archive} marker before the first entry.
+   *
+   * @param input   The feed document
+   * @param output  The output
+   * @param archive {@code true} if the document is an archived feed document
+   * @param links   The links to add, by relation
+   *
+   * @throws IOException On errors
+   */
+
+  public static void rewrite(
+    final InputStream input,
+    final OutputStream output,
+    final boolean archive,
+    final Map<String, String> links)
+    throws IOException
+  {
+    final var reader = MinXMLParse.eventReader(input);
+    try {
+      final var writer =
+        OUTPUT_FACTORIES.get().createXMLEventWriter(output, "UTF-8");
+
+      QName feed = null;
+      var depth = 0;
+      var inserted = false;
+
+      while (reader.hasNext()) {
+        final var event = reader.nextEvent();
+        if (event.isStartElement()) {
+          final var name = event.asStartElement().getName();
+          if (depth == 0) {
+            feed = name;
+          } else if (depth == 1 && !inserted && isEntry(name)) {
+            insert(writer, feed, archive, links);
+            inserted = true;
+          }
+          ++depth;
+        } else if (event.isEndElement()) {
+          --depth;
+          if (depth == 0 && !inserted) {
+            insert(writer, feed, archive, links);
+            inserted = true;
+          }
+        }
+        writer.add(event);
+      }
+
+      writer.flush();
+      writer.close();
+    } catch (final XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      try {
+        reader.close();
+      } catch (final XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  private static boolean isEntry(
+    final QName name)
+  {
+    return ATOM.equals(name.getNamespaceURI())
+      && "entry".equals(name.getLocalPart());
+  }
+
+  private static void insert(
+    final XMLEventWriter writer,
+    final QName feed,
+    final boolean archive,
+    final Map<String, String> links)
+    throws XMLStreamException
+  {
+    final var events = XMLEventFactory.newFactory();
+
+    if (archive) {
+      writer.add(events.createStartElement(
+        "fh",
+        HISTORY,
+        "archive",
+        null,
+        List.of(events.createNamespace("fh", HISTORY)).iterator()));
+      writer.add(events.createEndElement("fh", HISTORY, "archive"));
+    }
+
+    for (final var link : links.entrySet()) {
+      writer.add(events.createStartElement(
+        feed.getPrefix(),
+        ATOM,
+        "link",
+        List.of(
+          events.createAttribute("href", link.getValue()),
+          events.createAttribute("rel", link.getKey())
+        ).iterator(),
+        null));
+      writer.add(events.createEndElement(feed.getPrefix(), ATOM, "link"));
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core.internal;
+
+import com.io7m.changelog.core.CChangelog;
+import com.io7m.changelog.parser.api.CParseErrorHandlers;
+import com.io7m.changelog.xml.api.CXMLChangelogParserProviderType;
+import com.io7m.minisite.core.MinChangesConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Terse functions to parse changelogs.
+ */
+
+public final class MinChangelogs
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinChangelogs.class);
+
+  private MinChangelogs()
+  {
+
+  }
+
+  /**
+   * Parse the changelog.
+   *
+   * @param parserProvider The changelog parser provider
+   * @param changesConfig  The configuration
+   *
+   * @return The parsed changelog
+   *
+   * @throws UncheckedIOException On errors
+   */
+
+  public static CChangelog parse(
+    final CXMLChangelogParserProviderType parserProvider,
+    final MinChangesConfiguration changesConfig)
+    throws UncheckedIOException
+  {
+    final var changesFile = changesConfig.file();
+    final var event = new MinChangelogEvent();
+
+    event.begin();
+    final CChangelog changelog;
+    try (var input = Files.newInputStream(changesFile)) {
+      final var parser =
+        parserProvider.create(
+          changesFile.toUri(),
+          input,
+          CParseErrorHandlers.loggingHandler(LOG)
+        );
+
+      changelog = parser.parse();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    event.end();
+
+    if (event.shouldCommit()) {
+      event.operation = "parse";
+      event.file = changesFile.toString();
+      event.releases = changelog.releases().size();
+      try {
+        event.bytes = Files.size(changesFile);
+      } catch (final IOException e) {
+        event.bytes = -1L;
+      }
+      event.commit();
+    }
+    return changelog;
+  }
+}
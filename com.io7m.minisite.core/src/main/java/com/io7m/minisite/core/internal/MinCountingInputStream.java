@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that counts the bytes read through it.
+ */
+
+public final class MinCountingInputStream extends FilterInputStream
+{
+  private long count;
+
+  /**
+   * Count the bytes read from the given stream.
+   *
+   * @param stream The underlying stream
+   */
+
+  public MinCountingInputStream(
+    final InputStream stream)
+  {
+    super(stream);
+  }
+
+  /**
+   * @return The number of bytes read so far
+   */
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  @Override
+  public int read()
+    throws IOException
+  {
+    final var value = super.read();
+    if (value != -1) {
+      ++this.count;
+    }
+    return value;
+  }
+
+  @Override
+  public int read(
+    final byte[] buffer,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    final var read = super.read(buffer, offset, length);
+    if (read > 0) {
+      this.count += read;
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(
+    final long n)
+    throws IOException
+  {
+    final var skipped = super.skip(n);
+    this.count += skipped;
+    return skipped;
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to minify generated documents and stylesheets.
+ *
+ * <p>Comments are removed, runs of whitespace in text are collapsed to a
+ * single space, and whitespace adjacent to the start or end of a block-level
+ * element is removed. The content of elements such as {@code pre}, in which
+ * whitespace is significant, is left untouched.</p>
+ */
+
+public final class MinMinify
+{
+  private static final Set<String> BLOCK_ELEMENTS = Set.of(
+    "address",
+    "blockquote",
+    "body",
+    "caption",
+    "col",
+    "colgroup",
+    "dd",
+    "div",
+    "dl",
+    "dt",
+    "fieldset",
+    "form",
+    "h1",
+    "h2",
+    "h3",
+    "h4",
+    "h5",
+    "h6",
+    "head",
+    "hr",
+    "html",
+    "li",
+    "link",
+    "meta",
+    "ol",
+    "p",
+    "pre",
+    "script",
+    "style",
+    "table",
+    "tbody",
+    "td",
+    "tfoot",
+    "th",
+    "thead",
+    "title",
+    "tr",
+    "ul"
+  );
+
+  private static final Set<String> PRESERVED_ELEMENTS = Set.of(
+    "pre",
+    "script",
+    "style",
+    "textarea"
+  );
+
+  private MinMinify()
+  {
+
+  }
+
+  static boolean isBlock(
+    final String localName)
+  {
+    return BLOCK_ELEMENTS.contains(localName);
+  }
+
+  static boolean isPreserved(
+    final String localName)
+  {
+    return PRESERVED_ELEMENTS.contains(localName);
+  }
+
+  static boolean isWhitespace(
+    final char c)
+  {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  /**
+   * @param text The comment text
+   *
+   * @return The size in bytes of a serialized comment
+   */
+
+  static long commentSize(
+    final String text)
+  {
+    return text.getBytes(UTF_8).length + 7L;
+  }
+
+  /**
+   * Collapse the whitespace in a run of text.
+   *
+   * @param text       The text
+   * @param afterBlock {@code true} if the text follows a block boundary
+   * @param atBlock    {@code true} if the text precedes a block boundary
+   *
+   * @return The collapsed text
+   */
+
+  static String collapse(
+    final CharSequence text,
+    final boolean afterBlock,
+    final boolean atBlock)
+  {
+    final var result = new StringBuilder(text.length());
+    var space = false;
+    for (int index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      if (isWhitespace(c)) {
+        space = true;
+        continue;
+      }
+      if (space && (!result.isEmpty() || !afterBlock)) {
+        result.append(' ');
+      }
+      space = false;
+      result.append(c);
+    }
+    if (space && !atBlock && (!result.isEmpty() || !afterBlock)) {
+      result.append(' ');
+    }
+    return result.toString();
+  }
+
+  private static String localName(
+    final Node node)
+  {
+    final var localName = node.getLocalName();
+    if (localName != null) {
+      return localName;
+    }
+
+    /*
+     * Fragments are parsed without namespace awareness, so their nodes
+     * only have qualified names.
+     */
+
+    final var name = node.getNodeName();
+    return name.substring(name.indexOf(':') + 1);
+  }
+
+  private static boolean isBlockNode(
+    final Node node)
+  {
+    return node.getNodeType() == Node.ELEMENT_NODE
+      && isBlock(localName(node));
+  }
+
+  /**
+   * Minify an element and its descendants in place.
+   *
+   * @param element The element
+   *
+   * @return The number of bytes removed
+   */
+
+  public static long minifyElement(
+    final Element element)
+  {
+    final var saved = removeComments(element);
+    element.normalize();
+    return saved + collapseText(element);
+  }
+
+  private static long removeComments(
+    final Node node)
+  {
+    if (isPreserved(localName(node))) {
+      return 0L;
+    }
+
+    var saved = 0L;
+    final var children = node.getChildNodes();
+    final var snapshot = new ArrayList<Node>(children.getLength());
+    for (int index = 0; index < children.getLength(); ++index) {
+      snapshot.add(children.item(index));
+    }
+
+    for (final var child : snapshot) {
+      switch (child.getNodeType()) {
+        case Node.COMMENT_NODE -> {
+          saved += commentSize(child.getNodeValue());
+          node.removeChild(child);
+        }
+        case Node.ELEMENT_NODE -> {
+          saved += removeComments(child);
+        }
+        default -> {
+
+        }
+      }
+    }
+    return saved;
+  }
+
+  private static long collapseText(
+    final Node node)
+  {
+    final var name = localName(node);
+    if (isPreserved(name)) {
+      return 0L;
+    }
+
+    final var parentBlock = isBlock(name);
+    var saved = 0L;
+    var child = node.getFirstChild();
+    while (child != null) {
+      final var next = child.getNextSibling();
+      switch (child.getNodeType()) {
+        case Node.TEXT_NODE -> {
+          final var previous = child.getPreviousSibling();
+          final var text = child.getNodeValue();
+          final var collapsed =
+            collapse(
+              text,
+              previous == null ? parentBlock : isBlockNode(previous),
+              next == null ? parentBlock : isBlockNode(next)
+            );
+
+          saved += text.length() - collapsed.length();
+          if (collapsed.isEmpty()) {
+            node.removeChild(child);
+          } else {
+            child.setNodeValue(collapsed);
+          }
+        }
+        case Node.ELEMENT_NODE -> {
+          saved += collapseText(child);
+        }
+        default -> {
+
+        }
+      }
+      child = next;
+    }
+    return saved;
+  }
+
+  /**
+   * Minify a stylesheet. Comments are removed, whitespace is collapsed, and
+   * whitespace around punctuation is removed where it is insignificant.
+   * Strings are copied unchanged.
+   *
+   * @param text The stylesheet
+   *
+   * @return The minified stylesheet
+   */
+
+  public static String minifyCSS(
+    final String text)
+  {
+    final var result = new StringBuilder(text.length());
+    var depth = 0;
+    var space = false;
+    var index = 0;
+
+    while (index < text.length()) {
+      final var c = text.charAt(index);
+
+      if (c == '/' && index + 1 < text.length()
+        && text.charAt(index + 1) == '*') {
+        final var end = text.indexOf("*/", index + 2);
+        index = end == -1 ? text.length() : end + 2;
+        continue;
+      }
+
+      if (c == '"' || c == '\'') {
+        if (space) {
+          appendSpace(result, depth);
+          space = false;
+        }
+        var end = index + 1;
+        while (end < text.length() && text.charAt(end) != c) {
+          if (text.charAt(end) == '\\') {
+            ++end;
+          }
+          ++end;
+        }
+        end = Math.min(end + 1, text.length());
+        result.append(text, index, end);
+        index = end;
+        continue;
+      }
+
+      if (isWhitespace(c) || c == '\f') {
+        space = true;
+        ++index;
+        continue;
+      }
+
+      final var tight = isTight(c, depth);
+      if (space && !tight) {
+        appendSpace(result, depth);
+      }
+      space = false;
+
+      if (c == '}') {
+        final var last = result.length() - 1;
+        if (last >= 0 && result.charAt(last) == ';') {
+          result.setLength(last);
+        }
+        depth = Math.max(0, depth - 1);
+      } else if (c == '{') {
+        ++depth;
+      }
+
+      result.append(c);
+      ++index;
+    }
+    return result.toString();
+  }
+
+  private static void appendSpace(
+    final StringBuilder result,
+    final int depth)
+  {
+    if (result.isEmpty()) {
+      return;
+    }
+    if (isTight(result.charAt(result.length() - 1), depth)) {
+      return;
+    }
+    result.append(' ');
+  }
+
+  /**
+   * Whitespace around {@code :} is only insignificant inside declaration
+   * blocks; in selectors it separates a descendant from a pseudo-class.
+   */
+
+  private static boolean isTight(
+    final char c,
+    final int depth)
+  {
+    return switch (c) {
+      case '{', '}', ';', ',' -> true;
+      case ':' -> depth > 0;
+      default -> false;
+    };
+  }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * A stream writer that minifies the content written to it before passing
+ * it on to a delegate writer, following the same rules as
+ * {@link MinMinify#minifyElement(org.w3c.dom.Element)}. Text is held back
+ * until the next markup is written so that whitespace can be collapsed with
+ * knowledge of the elements on either side of it.
+ */
+
+public final class MinMinifyingStreamWriter implements XMLStreamWriter
+{
+  private final XMLStreamWriter delegate;
+  private final Deque<String> elements;
+  private final StringBuilder pending;
+  private int preserveDepth;
+  private boolean afterBlock;
+  private long saved;
+
+  /**
+   * Construct a writer.
+   *
+   * @param inDelegate The delegate writer
+   */
+
+  public MinMinifyingStreamWriter(
+    final XMLStreamWriter inDelegate)
+  {
+    this.delegate = Objects.requireNonNull(inDelegate, "delegate");
+    this.elements = new ArrayDeque<>();
+    this.pending = new StringBuilder(128);
+    this.afterBlock = true;
+  }
+
+  /**
+   * @return The number of bytes removed so far
+   */
+
+  public long bytesSaved()
+  {
+    return this.saved;
+  }
+
+  private void flushText(
+    final boolean atBlock)
+    throws XMLStreamException
+  {
+    if (this.pending.isEmpty()) {
+      return;
+    }
+
+    final var collapsed =
+      MinMinify.collapse(this.pending, this.afterBlock, atBlock);
+    this.saved += this.pending.length() - collapsed.length();
+    this.pending.setLength(0);
+    if (!collapsed.isEmpty()) {
+      this.delegate.writeCharacters(collapsed);
+    }
+  }
+
+  private void startElement(
+    final String localName)
+    throws XMLStreamException
+  {
+    if (this.preserveDepth == 0) {
+      this.flushText(MinMinify.isBlock(localName));
+    }
+    this.elements.push(localName);
+    if (this.preserveDepth > 0 || MinMinify.isPreserved(localName)) {
+      ++this.preserveDepth;
+    }
+    this.afterBlock = MinMinify.isBlock(localName);
+  }
+
+  private void emptyElement(
+    final String localName)
+    throws XMLStreamException
+  {
+    if (this.preserveDepth == 0) {
+      this.flushText(MinMinify.isBlock(localName));
+    }
+    this.afterBlock = MinMinify.isBlock(localName);
+  }
+
+  private void inlineMarkup()
+    throws XMLStreamException
+  {
+    if (this.preserveDepth == 0) {
+      this.flushText(false);
+    }
+    this.afterBlock = false;
+  }
+
+  @Override
+  public void writeStartElement(
+    final String localName)
+    throws XMLStreamException
+  {
+    this.startElement(localName);
+    this.delegate.writeStartElement(localName);
+  }
+
+  @Override
+  public void writeStartElement(
+    final String namespaceURI,
+    final String localName)
+    throws XMLStreamException
+  {
+    this.startElement(localName);
+    this.delegate.writeStartElement(namespaceURI, localName);
+  }
+
+  @Override
+  public void writeStartElement(
+    final String prefix,
+    final String localName,
+    final String namespaceURI)
+    throws XMLStreamException
+  {
+    this.startElement(localName);
+    this.delegate.writeStartElement(prefix, localName, namespaceURI);
+  }
+
+  @Override
+  public void writeEmptyElement(
+    final String namespaceURI,
+    final String localName)
+    throws XMLStreamException
+  {
+    this.emptyElement(localName);
+    this.delegate.writeEmptyElement(namespaceURI, localName);
+  }
+
+  @Override
+  public void writeEmptyElement(
+    final String prefix,
+    final String localName,
+    final String namespaceURI)
+    throws XMLStreamException
+  {
+    this.emptyElement(localName);
+    this.delegate.writeEmptyElement(prefix, localName, namespaceURI);
+  }
+
+  @Override
+  public void writeEmptyElement(
+    final String localName)
+    throws XMLStreamException
+  {
+    this.emptyElement(localName);
+    this.delegate.writeEmptyElement(localName);
+  }
+
+  @Override
+  public void writeEndElement()
+    throws XMLStreamException
+  {
+    final var localName = this.elements.pop();
+    if (this.preserveDepth > 0) {
+      --this.preserveDepth;
+    } else {
+      this.flushText(MinMinify.isBlock(localName));
+    }
+    this.afterBlock = MinMinify.isBlock(localName);
+    this.delegate.writeEndElement();
+  }
+
+  @Override
+  public void writeEndDocument()
+    throws XMLStreamException
+  {
+    this.flushText(true);
+    this.delegate.writeEndDocument();
+  }
+
+  @Override
+  public void close()
+    throws XMLStreamException
+  {
+    this.delegate.close();
+  }
+
+  @Override
+  public void flush()
+    throws XMLStreamException
+  {
+    this.delegate.flush();
+  }
+
+  @Override
+  public void writeAttribute(
+    final String localName,
+    final String value)
+    throws XMLStreamException
+  {
+    this.delegate.writeAttribute(localName, value);
+  }
+
+  @Override
+  public void writeAttribute(
+    final String prefix,
+    final String namespaceURI,
+    final String localName,
+    final String value)
+    throws XMLStreamException
+  {
+    this.delegate.writeAttribute(prefix, namespaceURI, localName, value);
+  }
+
+  @Override
+  public void writeAttribute(
+    final String namespaceURI,
+    final String localName,
+    final String value)
+    throws XMLStreamException
+  {
+    this.delegate.writeAttribute(namespaceURI, localName, value);
+  }
+
+  @Override
+  public void writeNamespace(
+    final String prefix,
+    final String namespaceURI)
+    throws XMLStreamException
+  {
+    this.delegate.writeNamespace(prefix, namespaceURI);
+  }
+
+  @Override
+  public void writeDefaultNamespace(
+    final String namespaceURI)
+    throws XMLStreamException
+  {
+    this.delegate.writeDefaultNamespace(namespaceURI);
+  }
+
+  @Override
+  public void writeComment(
+    final String data)
+    throws XMLStreamException
+  {
+    if (this.preserveDepth > 0) {
+      this.delegate.writeComment(data);
+    } else {
+      this.saved += MinMinify.commentSize(data);
+    }
+  }
+
+  @Override
+  public void writeProcessingInstruction(
+    final String target)
+    throws XMLStreamException
+  {
+    this.inlineMarkup();
+    this.delegate.writeProcessingInstruction(target);
+  }
+
+  @Override
+  public void writeProcessingInstruction(
+    final String target,
+    final String data)
+    throws XMLStreamException
+  {
+    this.inlineMarkup();
+    this.delegate.writeProcessingInstruction(target, data);
+  }
+
+  @Override
+  public void writeCData(
+    final String data)
+    throws XMLStreamException
+  {
+    this.inlineMarkup();
+    this.delegate.writeCData(data);
+  }
+
+  @Override
+  public void writeDTD(
+    final String dtd)
+    throws XMLStreamException
+  {
+    this.delegate.writeDTD(dtd);
+  }
+
+  @Override
+  public void writeEntityRef(
+    final String name)
+    throws XMLStreamException
+  {
+    this.inlineMarkup();
+    this.delegate.writeEntityRef(name);
+  }
+
+  @Override
+  public void writeStartDocument()
+    throws XMLStreamException
+  {
+    this.delegate.writeStartDocument();
+  }
+
+  @Override
+  public void writeStartDocument(
+    final String version)
+    throws XMLStreamException
+  {
+    this.delegate.writeStartDocument(version);
+  }
+
+  @Override
+  public void writeStartDocument(
+    final String encoding,
+    final String version)
+    throws XMLStreamException
+  {
+    this.delegate.writeStartDocument(encoding, version);
+  }
+
+  @Override
+  public void writeCharacters(
+    final String text)
+    throws XMLStreamException
+  {
+    if (this.preserveDepth > 0) {
+      this.delegate.writeCharacters(text);
+    } else {
+      this.pending.append(text);
+    }
+  }
+
+  @Override
+  public void writeCharacters(
+    final char[] text,
+    final int start,
+    final int len)
+    throws XMLStreamException
+  {
+    if (this.preserveDepth > 0) {
+      this.delegate.writeCharacters(text, start, len);
+    } else {
+      this.pending.append(text, start, len);
+    }
+  }
+
+  @Override
+  public String getPrefix(
+    final String uri)
+    throws XMLStreamException
+  {
+    return this.delegate.getPrefix(uri);
+  }
+
+  @Override
+  public void setPrefix(
+    final String prefix,
+    final String uri)
+    throws XMLStreamException
+  {
+    this.delegate.setPrefix(prefix, uri);
+  }
+
+  @Override
+  public void setDefaultNamespace(
+    final String uri)
+    throws XMLStreamException
+  {
+    this.delegate.setDefaultNamespace(uri);
+  }
+
+  @Override
+  public NamespaceContext getNamespaceContext()
+  {
+    return this.delegate.getNamespaceContext();
+  }
+
+  @Override
+  public void setNamespaceContext(
+    final NamespaceContext context)
+    throws XMLStreamException
+  {
+    this.delegate.setNamespaceContext(context);
+  }
+
+  @Override
+  public Object getProperty(
+    final String name)
+    throws IllegalArgumentException
+  {
+    return this.delegate.getProperty(name);
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A bounded pipe that connects a producer writing to an output stream with
+ * a consumer reading from an input stream, without buffering the entire
+ * output in memory. The producer runs on a virtual thread, and the consumer
+ * runs on the calling thread.
+ */
+
+public final class MinPipe
+{
+  private static final int CHUNK_SIZE = 8192;
+  private static final int CHUNK_COUNT = 16;
+  private static final byte[] END = new byte[0];
+
+  private MinPipe()
+  {
+
+  }
+
+  /**
+   * A producer of bytes.
+   */
+
+  public interface ProducerType
+  {
+    /**
+     * Write all output to the given stream.
+     *
+     * @param output The output stream
+     *
+     * @throws IOException On errors
+     */
+
+    void produce(OutputStream output)
+      throws IOException;
+  }
+
+  /**
+   * A consumer of bytes.
+   *
+   * @param <T> The type of results
+   */
+
+  public interface ConsumerType<T>
+  {
+    /**
+     * Read from the given stream.
+     *
+     * @param input The input stream
+     *
+     * @return A result
+     *
+     * @throws IOException On errors
+     */
+
+    T consume(InputStream input)
+      throws IOException;
+  }
+
+  /**
+   * Run {@code producer} and {@code consumer} concurrently, connected by a
+   * pipe. Failures of the producer are raised from the consumer's reads.
+   *
+   * @param producer The producer
+   * @param consumer The consumer
+   * @param <T>      The type of results
+   *
+   * @return The result of the consumer
+   *
+   * @throws IOException On errors
+   */
+
+  public static <T> T pipe(
+    final ProducerType producer,
+    final ConsumerType<T> consumer)
+    throws IOException
+  {
+    Objects.requireNonNull(producer, "producer");
+    Objects.requireNonNull(consumer, "consumer");
+
+    final var queue = new ArrayBlockingQueue<byte[]>(CHUNK_COUNT);
+    final var failure = new AtomicReference<Throwable>();
+
+    final var thread = Thread.ofVirtual().start(() -> {
+      try (var output = new ChunkOutputStream(queue)) {
+        producer.produce(output);
+      } catch (final Throwable e) {
+        failure.set(e);
+      } finally {
+        try {
+          queue.put(END);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    final var input = new ChunkInputStream(queue, failure);
+    try {
+      final var result = consumer.consume(input);
+
+      /*
+       * The consumer may stop reading before the producer has finished,
+       * for example when a parser has seen the end of the root element.
+       * Drain the pipe so that the producer can complete.
+       */
+
+      input.drain();
+      thread.join();
+
+      final var producerFailure = failure.get();
+      if (producerFailure != null) {
+        throw asIOException(producerFailure);
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      thread.interrupt();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (final IOException | RuntimeException e) {
+      thread.interrupt();
+      throw e;
+    }
+  }
+
+  private static IOException asIOException(
+    final Throwable e)
+  {
+    if (e instanceof final IOException io) {
+      return new IOException(io.getMessage(), io);
+    }
+    return new IOException(e);
+  }
+
+  private static final class ChunkOutputStream extends OutputStream
+  {
+    private final BlockingQueue<byte[]> queue;
+    private byte[] chunk;
+    private int count;
+
+    ChunkOutputStream(
+      final BlockingQueue<byte[]> inQueue)
+    {
+      this.queue = inQueue;
+      this.chunk = new byte[CHUNK_SIZE];
+      this.count = 0;
+    }
+
+    @Override
+    public void write(
+      final int b)
+      throws IOException
+    {
+      if (this.count == this.chunk.length) {
+        this.send();
+      }
+      this.chunk[this.count] = (byte) b;
+      ++this.count;
+    }
+
+    @Override
+    public void write(
+      final byte[] data,
+      final int offset,
+      final int length)
+      throws IOException
+    {
+      Objects.checkFromIndexSize(offset, length, data.length);
+
+      var position = offset;
+      var remaining = length;
+      while (remaining > 0) {
+        if (this.count == this.chunk.length) {
+          this.send();
+        }
+        final var size = Math.min(remaining, this.chunk.length - this.count);
+        System.arraycopy(data, position, this.chunk, this.count, size);
+        this.count += size;
+        position += size;
+        remaining -= size;
+      }
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      if (this.count > 0) {
+        this.chunk = Arrays.copyOf(this.chunk, this.count);
+        this.send();
+      }
+    }
+
+    private void send()
+      throws IOException
+    {
+      try {
+        this.queue.put(this.chunk);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+      this.chunk = new byte[CHUNK_SIZE];
+      this.count = 0;
+    }
+  }
+
+  private static final class ChunkInputStream extends InputStream
+  {
+    private final BlockingQueue<byte[]> queue;
+    private final AtomicReference<Throwable> failure;
+    private byte[] chunk;
+    private int position;
+    private boolean ended;
+
+    ChunkInputStream(
+      final BlockingQueue<byte[]> inQueue,
+      final AtomicReference<Throwable> inFailure)
+    {
+      this.queue = inQueue;
+      this.failure = inFailure;
+      this.chunk = END;
+      this.position = 0;
+      this.ended = false;
+    }
+
+    @Override
+    public int read()
+      throws IOException
+    {
+      if (!this.fill()) {
+        return -1;
+      }
+      final var b = this.chunk[this.position] & 0xff;
+      ++this.position;
+      return b;
+    }
+
+    @Override
+    public int read(
+      final byte[] data,
+      final int offset,
+      final int length)
+      throws IOException
+    {
+      Objects.checkFromIndexSize(offset, length, data.length);
+      if (length == 0) {
+        return 0;
+      }
+      if (!this.fill()) {
+        return -1;
+      }
+
+      final var size = Math.min(length, this.chunk.length - this.position);
+      System.arraycopy(this.chunk, this.position, data, offset, size);
+      this.position += size;
+      return size;
+    }
+
+    /**
+     * Closing the stream has no effect; parsers close their input streams
+     * when they finish, and the pipe must still be drained afterwards.
+     */
+
+    @Override
+    public void close()
+    {
+
+    }
+
+    void drain()
+      throws InterruptedException
+    {
+      while (!this.ended) {
+        this.ended = this.queue.take() == END;
+      }
+    }
+
+    private boolean fill()
+      throws IOException
+    {
+      while (this.position == this.chunk.length) {
+        if (this.ended) {
+          return false;
+        }
+
+        try {
+          this.chunk = this.queue.take();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException();
+        }
+        this.position = 0;
+
+        if (this.chunk == END) {
+          this.ended = true;
+          final var producerFailure = this.failure.get();
+          if (producerFailure != null) {
+            throw asIOException(producerFailure);
+          }
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The copying of a resource tree.
+ */
+
+@Name("com.io7m.minisite.ResourceCopy")
+@Label("Resource Copy")
+@Category("minisite")
+@Description("The copying of a resource tree into a site")
+@StackTrace(false)
+public final class MinResourceCopyEvent extends Event
+{
+  /**
+   * The source directory.
+   */
+
+  @Label("Source")
+  public String source;
+
+  /**
+   * The output directory.
+   */
+
+  @Label("Output")
+  public String output;
+
+  /**
+   * The number of files copied.
+   */
+
+  @Label("Files Copied")
+  public long filesCopied;
+
+  /**
+   * The number of files left unchanged.
+   */
+
+  @Label("Files Skipped")
+  public long filesSkipped;
+
+  /**
+   * The number of bytes copied.
+   */
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  /**
+   * Construct an event.
+   */
+
+  public MinResourceCopyEvent()
+  {
+
+  }
+}
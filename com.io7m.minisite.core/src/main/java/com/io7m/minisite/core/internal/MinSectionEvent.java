@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.core.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The generation of one section of a site's main page.
+ */
+
+@Name("com.io7m.minisite.Section")
+@Label("Section")
+@Category("minisite")
+@Description("The generation of one section of a site's main page")
+@StackTrace(false)
+public final class MinSectionEvent extends Event
+{
+  /**
+   * The project name.
+   */
+
+  @Label("Project")
+  public String project;
+
+  /**
+   * The section name.
+   */
+
+  @Label("Section")
+  public String section;
+
+  /**
+   * The input file, if the section has one.
+   */
+
+  @Label("File")
+  public String file;
+
+  /**
+   * The size of the input file.
+   */
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  /**
+   * Construct an event.
+   */
+
+  public MinSectionEvent()
+  {
+
+  }
+}
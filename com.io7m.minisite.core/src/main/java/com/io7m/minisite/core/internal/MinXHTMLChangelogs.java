@@ -17,27 +17,22 @@
 package com.io7m.minisite.core.internal;
 
 import com.io7m.changelog.core.CChangelog;
-import com.io7m.changelog.parser.api.CParseErrorHandlers;
+import com.io7m.changelog.core.CRelease;
+import com.io7m.changelog.core.CVersion;
 import com.io7m.changelog.xml.api.CXHTMLChangelogWriterProviderType;
-import com.io7m.changelog.xml.api.CXMLChangelogParserProviderType;
-import com.io7m.minisite.core.MinChangesConfiguration;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
-import java.nio.file.Files;
-import java.util.NoSuchElementException;
-import java.util.ServiceLoader;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Terse functions to serialize changelogs.
@@ -45,9 +40,6 @@ import java.util.ServiceLoader;
 
 public final class MinXHTMLChangelogs
 {
-  private static final Logger LOG =
-    LoggerFactory.getLogger(MinXHTMLChangelogs.class);
-
   private MinXHTMLChangelogs()
   {
 
@@ -56,48 +48,43 @@ public final class MinXHTMLChangelogs
   /**
    * Serialize the changelog.
    *
-   * @param document      The owning document
-   * @param changesConfig The configuration
+   * @param document       The owning document
+   * @param writerProvider The XHTML changelog writer provider
+   * @param changelog      The parsed changelog
    *
    * @return The changelog element
    */
 
   public static Element changelog(
     final Document document,
-    final MinChangesConfiguration changesConfig)
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog)
   {
-    final var parserProviderOpt =
-      ServiceLoader.load(CXMLChangelogParserProviderType.class)
-        .findFirst();
-
-    if (parserProviderOpt.isEmpty()) {
-      throw new NoSuchElementException(
-        "No XML changelog parser providers are available");
-    }
-
-    final var writerProviderOpt =
-      ServiceLoader.load(CXHTMLChangelogWriterProviderType.class)
-        .findFirst();
-
-    if (writerProviderOpt.isEmpty()) {
-      throw new NoSuchElementException(
-        "No XHTML changelog writer providers are available");
-    }
-
-    final var parserProvider =
-      parserProviderOpt.get();
-
-    final var changesFile = changesConfig.file();
-    try (var input = Files.newInputStream(changesFile)) {
-      final var parser =
-        parserProvider.create(
-          changesFile.toUri(),
-          input,
-          CParseErrorHandlers.loggingHandler(LOG)
-        );
+    return changelog(document, writerProvider, changelog, Optional.empty(), "");
+  }
 
-      final var changelog = parser.parse();
+  /**
+   * Serialize the changelog, optionally followed by a link to the full
+   * release history.
+   *
+   * @param document       The owning document
+   * @param writerProvider The XHTML changelog writer provider
+   * @param changelog      The parsed changelog
+   * @param history        The location of the release history, if any
+   * @param source         The file from which the changelog was parsed, or
+   *                       an empty string if not known
+   *
+   * @return The changelog element
+   */
 
+  public static Element changelog(
+    final Document document,
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog,
+    final Optional<String> history,
+    final String source)
+  {
+    try {
       final var changes = document.createElementNS(MinXHTML.XHTML, "div");
       changes.setAttribute("id", "changes");
       changes.appendChild(MinXHTML.h2(document, "Changes"));
@@ -118,46 +105,274 @@ public final class MinXHTMLChangelogs
       } else {
         changes.appendChild(serializeChangelog(
           document,
-          writerProviderOpt.get(),
-          changelog)
+          writerProvider,
+          changelog,
+          source)
         );
       }
 
+      if (history.isPresent()) {
+        final var p = document.createElementNS(MinXHTML.XHTML, "p");
+        p.appendChild(document.createTextNode(
+          "Older releases are listed in the "));
+        p.appendChild(
+          MinXHTML.link(document, history.get(), "release history"));
+        p.appendChild(document.createTextNode("."));
+        changes.appendChild(p);
+      }
+
       return changes;
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
-  private static Element serializeChangelog(
+  /**
+   * Serialize the changelog to a stream writer.
+   *
+   * @param writer         The stream writer
+   * @param writerProvider The XHTML changelog writer provider
+   * @param changelog      The parsed changelog
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void writeChangelog(
+    final XMLStreamWriter writer,
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog)
+    throws XMLStreamException
+  {
+    writeChangelog(writer, writerProvider, changelog, Optional.empty(), "");
+  }
+
+  /**
+   * Serialize the changelog to a stream writer, optionally followed by a
+   * link to the full release history.
+   *
+   * @param writer         The stream writer
+   * @param writerProvider The XHTML changelog writer provider
+   * @param changelog      The parsed changelog
+   * @param history        The location of the release history, if any
+   * @param source         The file from which the changelog was parsed, or
+   *                       an empty string if not known
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void writeChangelog(
+    final XMLStreamWriter writer,
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog,
+    final Optional<String> history,
+    final String source)
+    throws XMLStreamException
+  {
+    try {
+      MinXHTMLStreams.startWithId(writer, "div", "changes");
+      MinXHTMLStreams.h2(writer, "Changes");
+
+      writer.writeStartElement("p");
+      writer.writeCharacters("Subscribe to the releases ");
+      MinXHTMLStreams.link(writer, "releases.atom", "atom feed");
+      writer.writeCharacters(".");
+      writer.writeEndElement();
+
+      if (changelog.releases().isEmpty()) {
+        MinXHTMLStreams.textElement(
+          writer, "p", "No formal releases have been made.");
+      } else {
+        copyChangelog(writer, writerProvider, changelog, source);
+      }
+
+      if (history.isPresent()) {
+        writer.writeStartElement("p");
+        writer.writeCharacters("Older releases are listed in the ");
+        MinXHTMLStreams.link(writer, history.get(), "release history");
+        writer.writeCharacters(".");
+        writer.writeEndElement();
+      }
+
+      writer.writeEndElement();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Serialize the releases of a changelog, without any surrounding section.
+   *
+   * @param document       The owning document
+   * @param writerProvider The XHTML changelog writer provider
+   * @param changelog      The parsed changelog
+   * @param source         The file from which the changelog was parsed, or
+   *                       an empty string if not known
+   *
+   * @return The serialized releases
+   */
+
+  public static Element releases(
     final Document document,
     final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog,
+    final String source)
+  {
+    try {
+      return serializeChangelog(document, writerProvider, changelog, source);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @param changelog The changelog
+   * @param count     The number of releases to keep
+   *
+   * @return The changelog with only its {@code count} most recent releases
+   */
+
+  public static CChangelog recent(
+    final CChangelog changelog,
+    final int count)
+  {
+    final var releases = changelog.releases();
+    if (releases.size() <= count) {
+      return changelog;
+    }
+
+    final var versions = new ArrayList<>(releases.keySet());
+    final var first = versions.get(versions.size() - count);
+    return CChangelog.builder()
+      .from(changelog)
+      .setReleases(releases.tailMap(first))
+      .build();
+  }
+
+  /**
+   * @param changelog The changelog
+   *
+   * @return The years in which releases were made
+   */
+
+  public static SortedSet<Integer> years(
     final CChangelog changelog)
-    throws IOException
   {
-    try (var bao = new ByteArrayOutputStream()) {
-      final var writer =
-        writerProvider.create(URI.create("urn:stdout"), bao);
-      writer.write(changelog);
-
-      final var docBuilderFactory =
-        DocumentBuilderFactory.newInstance();
-
-      docBuilderFactory.setXIncludeAware(false);
-      docBuilderFactory.setExpandEntityReferences(false);
-      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-      final var docBuilder =
-        docBuilderFactory.newDocumentBuilder();
-
-      try (var bai = new ByteArrayInputStream(bao.toByteArray())) {
-        final var parsedDocument = docBuilder.parse(bai);
-        final var root = parsedDocument.getDocumentElement();
-        document.adoptNode(root);
-        return root;
+    final var years = new TreeSet<Integer>();
+    for (final var release : changelog.releases().values()) {
+      years.add(Integer.valueOf(release.date().getYear()));
+    }
+    return years;
+  }
+
+  /**
+   * @param changelog The changelog
+   * @param year      The year
+   *
+   * @return The changelog with only the releases made in {@code year}
+   */
+
+  public static CChangelog inYear(
+    final CChangelog changelog,
+    final int year)
+  {
+    final var releases = new TreeMap<CVersion, CRelease>();
+    for (final var entry : changelog.releases().entrySet()) {
+      if (entry.getValue().date().getYear() == year) {
+        releases.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return CChangelog.builder()
+      .from(changelog)
+      .setReleases(releases)
+      .build();
+  }
+
+  /**
+   * Serialize the changelog through a pipe, copying the XHTML to the writer
+   * as it is produced.
+   */
+
+  private static void copyChangelog(
+    final XMLStreamWriter writer,
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog,
+    final String source)
+    throws IOException, XMLStreamException
+  {
+    final var event = new MinChangelogEvent();
+    event.begin();
+    try {
+      MinPipe.pipe(
+        output -> writerProvider.create(URI.create("urn:stdout"), output)
+          .write(changelog),
+        input -> {
+          try {
+            if (event.isEnabled()) {
+              final var counting = new MinCountingInputStream(input);
+              MinXHTMLStreams.copyStream(writer, counting);
+              event.bytes = counting.count();
+            } else {
+              MinXHTMLStreams.copyStream(writer, input);
+            }
+          } catch (final XMLStreamException e) {
+            throw new IOException(e);
+          }
+          return null;
+        }
+      );
+    } catch (final IOException e) {
+      if (e.getCause() instanceof final XMLStreamException x) {
+        throw x;
       }
-    } catch (final ParserConfigurationException | SAXException e) {
-      throw new IOException(e);
+      throw e;
     }
+    commitSerialized(event, changelog, source);
+  }
+
+  private static void commitSerialized(
+    final MinChangelogEvent event,
+    final CChangelog changelog,
+    final String source)
+  {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = "serialize";
+      event.file = source;
+      event.releases = changelog.releases().size();
+      event.commit();
+    }
+  }
+
+  /**
+   * Serialize the changelog through a pipe, parsing the XHTML as it is
+   * produced. The parsed nodes are adopted, not copied, into the target
+   * document, so the serialized changelog is never held in memory in full.
+   */
+
+  private static Element serializeChangelog(
+    final Document document,
+    final CXHTMLChangelogWriterProviderType writerProvider,
+    final CChangelog changelog,
+    final String source)
+    throws IOException
+  {
+    final var event = new MinChangelogEvent();
+    event.begin();
+    final var element =
+      MinPipe.pipe(
+        output -> writerProvider.create(URI.create("urn:stdout"), output)
+          .write(changelog),
+        input -> {
+          if (event.isEnabled()) {
+            final var counting = new MinCountingInputStream(input);
+            final var root = MinXMLParse.parseStreamElement(document, counting);
+            event.bytes = counting.count();
+            return root;
+          }
+          return MinXMLParse.parseStreamElement(document, input);
+        }
+      );
+    commitSerialized(event, changelog, source);
+    return element;
   }
 }
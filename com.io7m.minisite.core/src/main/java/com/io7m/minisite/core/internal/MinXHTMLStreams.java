@@ -0,0 +1,643 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.core.internal;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.ProcessingInstruction;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static com.io7m.minisite.core.internal.MinXHTML.XHTML;
+
+/**
+ * Functions to write XHTML elements to stream writers.
+ *
+ * The output of these functions is intended to be byte-for-byte identical
+ * to the output of the identity transformer applied to the equivalent DOM
+ * produced by {@link MinXHTML}: Attributes are written in lexicographic
+ * order of their qualified names (the order in which the DOM stores them),
+ * elements without children are written as empty elements, and namespace
+ * declarations that are already in scope are elided.
+ */
+
+public final class MinXHTMLStreams
+{
+  private MinXHTMLStreams()
+  {
+
+  }
+
+  /**
+   * Write the root {@code html} start element, declaring the XHTML
+   * namespace as the default namespace.
+   *
+   * @param writer The writer
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void startHTML(
+    final XMLStreamWriter writer)
+    throws XMLStreamException
+  {
+    writer.writeStartElement("html");
+    writer.writeDefaultNamespace(XHTML);
+  }
+
+  /**
+   * Write a start element with an {@code id} attribute.
+   *
+   * @param writer The writer
+   * @param name   The element name
+   * @param id     The element ID
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void startWithId(
+    final XMLStreamWriter writer,
+    final String name,
+    final String id)
+    throws XMLStreamException
+  {
+    writer.writeStartElement(name);
+    writer.writeAttribute("id", id);
+  }
+
+  /**
+   * Write a start element with a {@code class} attribute.
+   *
+   * @param writer The writer
+   * @param name   The element name
+   * @param clazz  The element class
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void startWithClass(
+    final XMLStreamWriter writer,
+    final String name,
+    final String clazz)
+    throws XMLStreamException
+  {
+    writer.writeStartElement(name);
+    writer.writeAttribute("class", clazz);
+  }
+
+  /**
+   * Write an element containing only text.
+   *
+   * @param writer The writer
+   * @param name   The element name
+   * @param text   The element text
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void textElement(
+    final XMLStreamWriter writer,
+    final String name,
+    final String text)
+    throws XMLStreamException
+  {
+    if (text.isEmpty()) {
+      writer.writeEmptyElement(name);
+      return;
+    }
+
+    writer.writeStartElement(name);
+    writer.writeCharacters(text);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Generate an h2 element.
+   *
+   * @param writer The writer
+   * @param text   The element text
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void h2(
+    final XMLStreamWriter writer,
+    final String text)
+    throws XMLStreamException
+  {
+    textElement(writer, "h2", text);
+  }
+
+  /**
+   * Generate a link element.
+   *
+   * @param writer The writer
+   * @param target The link target
+   * @param text   The link text
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void link(
+    final XMLStreamWriter writer,
+    final String target,
+    final String text)
+    throws XMLStreamException
+  {
+    if (text.isEmpty()) {
+      writer.writeEmptyElement("a");
+      writer.writeAttribute("href", target);
+      return;
+    }
+
+    writer.writeStartElement("a");
+    writer.writeAttribute("href", target);
+    writer.writeCharacters(text);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Generate a list item element containing a link.
+   *
+   * @param writer The writer
+   * @param target The link target
+   * @param text   The link text
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void listItemLink(
+    final XMLStreamWriter writer,
+    final String target,
+    final String text)
+    throws XMLStreamException
+  {
+    writer.writeStartElement("li");
+    link(writer, target, text);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Copy the root element of the given XML file to the writer, event by
+   * event.
+   *
+   * @param writer The writer
+   * @param file   The file
+   *
+   * @throws XMLStreamException   On errors writing to the writer
+   * @throws UncheckedIOException On errors reading the file
+   */
+
+  public static void copyFile(
+    final XMLStreamWriter writer,
+    final Path file)
+    throws XMLStreamException, UncheckedIOException
+  {
+    final var event = new MinParseEvent();
+    event.begin();
+    try (var stream = Files.newInputStream(file)) {
+      copyStream(writer, stream);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    event.end();
+
+    if (event.shouldCommit()) {
+      event.file = file.toString();
+      try {
+        event.bytes = Files.size(file);
+      } catch (final IOException e) {
+        event.bytes = -1L;
+      }
+      event.commit();
+    }
+  }
+
+  /**
+   * Copy the root element of the given XML stream to the writer, event by
+   * event.
+   *
+   * @param writer The writer
+   * @param stream The stream
+   *
+   * @throws XMLStreamException On errors writing to the writer
+   * @throws IOException        On errors reading the stream
+   */
+
+  public static void copyStream(
+    final XMLStreamWriter writer,
+    final InputStream stream)
+    throws XMLStreamException, IOException
+  {
+    final var reader = MinXMLParse.eventReader(stream);
+    try {
+      copyEvents(writer, reader);
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Copy the root element produced by the given event reader to the writer.
+   * Any events outside of the root element (the prolog, comments or
+   * processing instructions that precede or follow the root element) are
+   * discarded.
+   *
+   * @param writer The writer
+   * @param reader The reader
+   *
+   * @throws XMLStreamException On errors writing to the writer
+   * @throws IOException        On errors reading the stream
+   */
+
+  public static void copyEvents(
+    final XMLStreamWriter writer,
+    final XMLEventReader reader)
+    throws XMLStreamException, IOException
+  {
+    final var scopes = new NamespaceScopes();
+    var depth = 0;
+
+    while (reader.hasNext()) {
+      final XMLEvent event;
+      try {
+        event = reader.nextEvent();
+      } catch (final XMLStreamException e) {
+        throw new IOException(e);
+      }
+
+      switch (event.getEventType()) {
+        case XMLEvent.START_ELEMENT -> {
+          final var start = event.asStartElement();
+          final boolean empty;
+          try {
+            empty = reader.peek().isEndElement();
+            if (empty) {
+              reader.nextEvent();
+            }
+          } catch (final XMLStreamException e) {
+            throw new IOException(e);
+          }
+
+          if (empty) {
+            writeStartElement(writer, scopes, start, true);
+          } else {
+            writeStartElement(writer, scopes, start, false);
+            ++depth;
+          }
+
+          if (depth == 0) {
+            return;
+          }
+        }
+        case XMLEvent.END_ELEMENT -> {
+          writer.writeEndElement();
+          scopes.pop();
+          --depth;
+          if (depth == 0) {
+            return;
+          }
+        }
+        case XMLEvent.CHARACTERS, XMLEvent.SPACE -> {
+          if (depth > 0) {
+            final var characters = event.asCharacters();
+            if (characters.isCData()) {
+              writer.writeCData(characters.getData());
+            } else {
+              writeText(writer, characters.getData());
+            }
+          }
+        }
+        case XMLEvent.CDATA -> {
+          if (depth > 0) {
+            writer.writeCData(event.asCharacters().getData());
+          }
+        }
+        case XMLEvent.COMMENT -> {
+          if (depth > 0) {
+            writer.writeComment(((Comment) event).getText());
+          }
+        }
+        case XMLEvent.PROCESSING_INSTRUCTION -> {
+          if (depth > 0) {
+            final var pi =
+              (javax.xml.stream.events.ProcessingInstruction) event;
+            writeProcessingInstruction(writer, pi.getTarget(), pi.getData());
+          }
+        }
+        default -> {
+
+        }
+      }
+    }
+  }
+
+  private static void writeProcessingInstruction(
+    final XMLStreamWriter writer,
+    final String target,
+    final String data)
+    throws XMLStreamException
+  {
+    if (data == null || data.isEmpty()) {
+      writer.writeProcessingInstruction(target);
+    } else {
+      writer.writeProcessingInstruction(target, data);
+    }
+  }
+
+  private static void writeStartElement(
+    final XMLStreamWriter writer,
+    final NamespaceScopes scopes,
+    final StartElement start,
+    final boolean empty)
+    throws XMLStreamException
+  {
+    final var declarations = new TreeMap<String, String>();
+    final var namespaces = start.getNamespaces();
+    while (namespaces.hasNext()) {
+      final var namespace = (Namespace) namespaces.next();
+      declarations.put(namespace.getPrefix(), namespace.getNamespaceURI());
+    }
+
+    final var attributes = new TreeMap<String, String>();
+    final var attributeIterator = start.getAttributes();
+    while (attributeIterator.hasNext()) {
+      final var attribute = (Attribute) attributeIterator.next();
+      attributes.put(qualifiedName(attribute.getName()), attribute.getValue());
+    }
+
+    writeElement(
+      writer,
+      scopes,
+      qualifiedName(start.getName()),
+      declarations,
+      attributes,
+      empty
+    );
+  }
+
+  private static void writeElement(
+    final XMLStreamWriter writer,
+    final NamespaceScopes scopes,
+    final String name,
+    final TreeMap<String, String> declarations,
+    final TreeMap<String, String> attributes,
+    final boolean empty)
+    throws XMLStreamException
+  {
+    if (empty) {
+      writer.writeEmptyElement(name);
+    } else {
+      writer.writeStartElement(name);
+    }
+
+    scopes.push();
+    for (final var entry : declarations.entrySet()) {
+      final var prefix = entry.getKey();
+      final var uri = entry.getValue();
+      if (!Objects.equals(scopes.lookup(prefix), uri)) {
+        scopes.declare(prefix, uri);
+        if (prefix.isEmpty()) {
+          writer.writeDefaultNamespace(uri);
+        } else {
+          writer.writeNamespace(prefix, uri);
+        }
+      }
+    }
+
+    for (final var entry : attributes.entrySet()) {
+      writer.writeAttribute(entry.getKey(), entry.getValue());
+    }
+
+    if (empty) {
+      scopes.pop();
+    }
+  }
+
+  private static String qualifiedName(
+    final QName name)
+  {
+    final var prefix = name.getPrefix();
+    if (prefix == null || prefix.isEmpty()) {
+      return name.getLocalPart();
+    }
+    return prefix + ":" + name.getLocalPart();
+  }
+
+  /**
+   * Copy a DOM element to the writer.
+   *
+   * @param writer  The writer
+   * @param element The element
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void copyElement(
+    final XMLStreamWriter writer,
+    final Element element)
+    throws XMLStreamException
+  {
+    copyNode(writer, new NamespaceScopes(), element);
+  }
+
+  /**
+   * Copy the children of a DOM document fragment to the writer.
+   *
+   * @param writer   The writer
+   * @param fragment The fragment
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public static void copyFragment(
+    final XMLStreamWriter writer,
+    final DocumentFragment fragment)
+    throws XMLStreamException
+  {
+    final var scopes = new NamespaceScopes();
+    final var children = fragment.getChildNodes();
+    for (int index = 0; index < children.getLength(); ++index) {
+      copyNode(writer, scopes, children.item(index));
+    }
+  }
+
+  private static void copyNode(
+    final XMLStreamWriter writer,
+    final NamespaceScopes scopes,
+    final Node node)
+    throws XMLStreamException
+  {
+    switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE -> {
+        final var declarations = new TreeMap<String, String>();
+        final var attributes = new TreeMap<String, String>();
+        final var nodeAttributes = node.getAttributes();
+        for (int index = 0; index < nodeAttributes.getLength(); ++index) {
+          final var attribute = (Attr) nodeAttributes.item(index);
+          final var name = attribute.getName();
+          if ("xmlns".equals(name)) {
+            declarations.put("", attribute.getValue());
+          } else if (name.startsWith("xmlns:")) {
+            declarations.put(name.substring(6), attribute.getValue());
+          } else {
+            attributes.put(name, attribute.getValue());
+          }
+        }
+
+        final var children = node.getChildNodes();
+        final var empty = children.getLength() == 0;
+        writeElement(
+          writer,
+          scopes,
+          node.getNodeName(),
+          declarations,
+          attributes,
+          empty
+        );
+
+        if (!empty) {
+          for (int index = 0; index < children.getLength(); ++index) {
+            copyNode(writer, scopes, children.item(index));
+          }
+          writer.writeEndElement();
+          scopes.pop();
+        }
+      }
+      case Node.TEXT_NODE -> {
+        writeText(writer, node.getNodeValue());
+      }
+      case Node.CDATA_SECTION_NODE -> {
+        writer.writeCData(node.getNodeValue());
+      }
+      case Node.COMMENT_NODE -> {
+        writer.writeComment(node.getNodeValue());
+      }
+      case Node.PROCESSING_INSTRUCTION_NODE -> {
+        final var pi = (ProcessingInstruction) node;
+        writeProcessingInstruction(writer, pi.getTarget(), pi.getData());
+      }
+      default -> {
+
+      }
+    }
+  }
+
+  /**
+   * Write copied text. Carriage returns must be written as character
+   * references or they would be normalized away when the output is parsed,
+   * and supplementary characters are written as character references to
+   * match the output of the DOM serializer.
+   */
+
+  private static void writeText(
+    final XMLStreamWriter writer,
+    final String text)
+    throws XMLStreamException
+  {
+    final var length = text.length();
+    var start = 0;
+    var index = 0;
+
+    while (index < length) {
+      final var codePoint = text.codePointAt(index);
+      final var size = Character.charCount(codePoint);
+
+      if (codePoint == '\r' || Character.isSupplementaryCodePoint(codePoint)) {
+        if (index > start) {
+          writer.writeCharacters(text.substring(start, index));
+        }
+        writer.writeEntityRef("#" + codePoint);
+        start = index + size;
+      }
+      index += size;
+    }
+
+    if (length > start) {
+      writer.writeCharacters(text.substring(start));
+    }
+  }
+
+  /**
+   * The namespace bindings in scope, assuming that all content is written
+   * inside an {@code html} element that declares XHTML as the default
+   * namespace.
+   */
+
+  private static final class NamespaceScopes
+  {
+    private final Deque<Map<String, String>> scopes;
+
+    NamespaceScopes()
+    {
+      this.scopes = new ArrayDeque<>();
+      final var root = new HashMap<String, String>();
+      root.put("", XHTML);
+      this.scopes.push(root);
+    }
+
+    void push()
+    {
+      this.scopes.push(new HashMap<>());
+    }
+
+    void pop()
+    {
+      this.scopes.pop();
+    }
+
+    void declare(
+      final String prefix,
+      final String uri)
+    {
+      this.scopes.peek().put(prefix, uri);
+    }
+
+    String lookup(
+      final String prefix)
+    {
+      for (final var scope : this.scopes) {
+        final var uri = scope.get(prefix);
+        if (uri != null) {
+          return uri;
+        }
+      }
+      return null;
+    }
+  }
+}
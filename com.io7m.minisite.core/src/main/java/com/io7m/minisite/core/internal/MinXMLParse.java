@@ -21,9 +21,14 @@ import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,11 +39,208 @@ import java.nio.file.Path;
 
 public final class MinXMLParse
 {
+  private static final String REPORT_CDATA =
+    "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  /*
+   * Looking up and configuring a DocumentBuilderFactory is expensive, so
+   * a single factory is configured once. Document builders are not
+   * thread-safe, so each thread gets its own builder that is reset after
+   * every parse.
+   */
+
+  private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY =
+    createDocumentBuilderFactory();
+
+  private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS =
+    ThreadLocal.withInitial(MinXMLParse::createDocumentBuilder);
+
+  private static final ThreadLocal<XMLInputFactory> EVENT_READERS =
+    ThreadLocal.withInitial(MinXMLParse::createInputFactory);
+
   private MinXMLParse()
   {
 
   }
 
+  private static DocumentBuilderFactory createDocumentBuilderFactory()
+  {
+    try {
+      final var docBuilderFactory =
+        DocumentBuilderFactory.newInstance();
+
+      docBuilderFactory.setXIncludeAware(false);
+      docBuilderFactory.setExpandEntityReferences(false);
+      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      return docBuilderFactory;
+    } catch (final ParserConfigurationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static DocumentBuilder createDocumentBuilder()
+  {
+    /*
+     * Factories are not guaranteed to be thread-safe.
+     */
+
+    synchronized (DOCUMENT_BUILDER_FACTORY) {
+      try {
+        return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+      } catch (final ParserConfigurationException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static XMLInputFactory createInputFactory()
+  {
+    final var inputFactory = XMLInputFactory.newInstance();
+    inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+    inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+    inputFactory.setProperty(
+      XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+    /*
+     * The document builders use secure processing, which forbids loading
+     * external DTDs. The same restriction is applied here so that the DOM
+     * and streaming writers accept exactly the same fragments, and so that
+     * neither fetches anything named by a DOCTYPE.
+     */
+
+    inputFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+
+    /*
+     * Report CDATA sections as such so that they can be reproduced
+     * faithfully, matching the behaviour of the non-coalescing DOM parser.
+     */
+
+    if (inputFactory.isPropertySupported(REPORT_CDATA)) {
+      inputFactory.setProperty(REPORT_CDATA, Boolean.TRUE);
+    }
+    return inputFactory;
+  }
+
+  /**
+   * Open an event reader over the given stream using the current thread's
+   * input factory.
+   *
+   * @param stream The input stream
+   *
+   * @return An event reader
+   *
+   * @throws IOException On errors
+   */
+
+  public static XMLEventReader eventReader(
+    final InputStream stream)
+    throws IOException
+  {
+    try {
+      return EVENT_READERS.get().createXMLEventReader(stream);
+    } catch (final XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Create a new empty document using the current thread's document builder.
+   *
+   * @return A new document
+   */
+
+  public static Document newDocument()
+  {
+    return DOCUMENT_BUILDERS.get().newDocument();
+  }
+
+  /**
+   * Parse a stream using the current thread's document builder.
+   *
+   * @param stream The input stream
+   *
+   * @return A parsed document
+   *
+   * @throws IOException On errors
+   */
+
+  public static Document parseStream(
+    final InputStream stream)
+    throws IOException
+  {
+    return parseStream(stream, "");
+  }
+
+  /**
+   * Parse a stream using the current thread's document builder.
+   *
+   * @param stream The input stream
+   * @param source The file from which the stream is read, or an empty string
+   *               if the stream is not read from a file
+   *
+   * @return A parsed document
+   *
+   * @throws IOException On errors
+   */
+
+  public static Document parseStream(
+    final InputStream stream,
+    final String source)
+    throws IOException
+  {
+    /*
+     * Bytes are only counted if the event is enabled, so that parsing
+     * costs nothing extra when no recording is running.
+     */
+
+    final var event = new MinParseEvent();
+    final var input =
+      event.isEnabled() ? new MinCountingInputStream(stream) : stream;
+
+    final var docBuilder = DOCUMENT_BUILDERS.get();
+    event.begin();
+    try {
+      return docBuilder.parse(input);
+    } catch (final SAXException e) {
+      throw new IOException(e);
+    } finally {
+      docBuilder.reset();
+      event.end();
+      if (event.shouldCommit()) {
+        event.file = source;
+        if (input instanceof final MinCountingInputStream counting) {
+          event.bytes = counting.count();
+        }
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Parse a stream and return the root element, owned by {@code document}.
+   *
+   * @param document The new owner document
+   * @param stream   The input stream
+   *
+   * @return A parsed element
+   *
+   * @throws IOException On errors
+   */
+
+  public static Element parseStreamElement(
+    final Document document,
+    final InputStream stream)
+    throws IOException
+  {
+    final var parsedDocument =
+      parseStream(stream);
+    final var root =
+      parsedDocument.getDocumentElement();
+
+    document.adoptNode(root);
+    return root;
+  }
+
   /**
    * Parse a file and return the root element, owned by {@code document}.
    *
@@ -56,25 +258,10 @@ public final class MinXMLParse
     throws IOException
   {
     try (var stream = Files.newInputStream(file)) {
-      final var docBuilderFactory =
-        DocumentBuilderFactory.newInstance();
-
-      docBuilderFactory.setXIncludeAware(false);
-      docBuilderFactory.setExpandEntityReferences(false);
-      docBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-      final var docBuilder =
-        docBuilderFactory.newDocumentBuilder();
-
-      final var parsedDocument =
-        docBuilder.parse(stream);
       final var root =
-        parsedDocument.getDocumentElement();
-
+        parseStream(stream, file.toString()).getDocumentElement();
       document.adoptNode(root);
       return root;
-    } catch (final ParserConfigurationException | SAXException e) {
-      throw new IOException(e);
     }
   }
 
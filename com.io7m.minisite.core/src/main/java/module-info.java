@@ -27,10 +27,13 @@ module com.io7m.minisite.core
   requires transitive com.io7m.changelog.parser.api;
   requires transitive com.io7m.changelog.core;
 
+  requires jdk.jfr;
   requires org.slf4j;
 
+  uses com.io7m.changelog.xml.api.CAtomChangelogWriterProviderType;
   uses com.io7m.changelog.xml.api.CXHTMLChangelogWriterProviderType;
   uses com.io7m.changelog.xml.api.CXMLChangelogParserProviderType;
+  uses com.io7m.minisite.core.MinSectionProviderType;
   uses com.io7m.minisite.core.MinSourcesProviderType;
 
   provides MinSourcesProviderType with MinSourcesGitProvider;
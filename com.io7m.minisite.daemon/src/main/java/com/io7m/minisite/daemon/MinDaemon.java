@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.daemon;
+
+import com.io7m.minisite.core.MinBatchRenderer;
+import com.io7m.minisite.core.MinProviderRegistry;
+import com.io7m.minisite.core.MinRenderJob;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A long-running daemon that renders sites on request. The daemon accepts
+ * jobs over HTTP on a loopback address; a job is a property set (see
+ * {@link MinDaemonJobs}) sent as the body of a {@code POST} to
+ * {@code /render}. A {@code GET} of {@code /status} returns job counts
+ * and fragment cache counters.
+ *
+ * Providers are discovered once when the daemon starts, parsed fragments
+ * are cached between jobs, and jobs are rendered on a fixed pool of threads
+ * so that each thread's XML parsers and transformers are reused by every
+ * job it renders.
+ */
+
+public final class MinDaemon implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinDaemon.class);
+
+  private final MinDaemonConfiguration configuration;
+  private final MinBatchRenderer renderer;
+  private final ExecutorService executor;
+  private final HttpServer server;
+  private final AtomicLong jobsCompleted;
+  private final AtomicLong jobsFailed;
+
+  private MinDaemon(
+    final MinDaemonConfiguration inConfiguration,
+    final MinBatchRenderer inRenderer,
+    final ExecutorService inExecutor,
+    final HttpServer inServer)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.renderer =
+      Objects.requireNonNull(inRenderer, "renderer");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.server =
+      Objects.requireNonNull(inServer, "server");
+    this.jobsCompleted =
+      new AtomicLong();
+    this.jobsFailed =
+      new AtomicLong();
+  }
+
+  /**
+   * Start a daemon.
+   *
+   * @param configuration The daemon configuration
+   *
+   * @return A running daemon
+   *
+   * @throws IOException On errors binding the server
+   */
+
+  public static MinDaemon start(
+    final MinDaemonConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var renderer =
+      MinBatchRenderer.create(
+        MinProviderRegistry.discover(),
+        configuration.threads());
+    final var executor =
+      Executors.newFixedThreadPool(configuration.threads());
+
+    final HttpServer server;
+    try {
+      server = HttpServer.create(configuration.address(), 0);
+    } catch (final IOException e) {
+      executor.shutdown();
+      throw e;
+    }
+
+    final var daemon =
+      new MinDaemon(configuration, renderer, executor, server);
+
+    server.setExecutor(executor);
+    server.createContext("/render", daemon::handleRender);
+    server.createContext("/status", daemon::handleStatus);
+    server.start();
+
+    LOG.info("listening on {}", daemon.address());
+    return daemon;
+  }
+
+  /**
+   * Run a daemon until the process is terminated.
+   *
+   * @param args The port, and optionally the thread count
+   *
+   * @throws IOException On errors binding the server
+   */
+
+  public static void main(
+    final String[] args)
+    throws IOException
+  {
+    if (args.length < 1) {
+      System.err.println("usage: port [threads]");
+      System.exit(1);
+    }
+
+    final var configuration =
+      MinDaemonConfiguration.builder()
+        .setAddress(new InetSocketAddress(
+          InetAddress.getLoopbackAddress(),
+          Integer.parseInt(args[0])));
+
+    if (args.length > 1) {
+      configuration.setThreads(Integer.parseInt(args[1]));
+    }
+
+    final var daemon = start(configuration.build());
+    Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+  }
+
+  /**
+   * @return The address to which the daemon is bound
+   */
+
+  public InetSocketAddress address()
+  {
+    return this.server.getAddress();
+  }
+
+  /**
+   * @return The number of jobs that have been rendered successfully
+   */
+
+  public long jobsCompleted()
+  {
+    return this.jobsCompleted.get();
+  }
+
+  /**
+   * @return The number of jobs that have failed
+   */
+
+  public long jobsFailed()
+  {
+    return this.jobsFailed.get();
+  }
+
+  private void handleRender(
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try (exchange) {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405, "error: method not allowed\n");
+        return;
+      }
+
+      final var limit = this.configuration.requestSizeLimit();
+      final var body = exchange.getRequestBody().readNBytes(limit + 1);
+      if (body.length > limit) {
+        respond(exchange, 413, "error: request too large\n");
+        return;
+      }
+
+      final MinRenderJob job;
+      try {
+        final var properties = new Properties();
+        properties.load(
+          new StringReader(new String(body, StandardCharsets.UTF_8)));
+        job = MinDaemonJobs.parse(properties);
+      } catch (final IllegalArgumentException e) {
+        this.jobsFailed.incrementAndGet();
+        respond(exchange, 400, "error: " + e.getMessage() + "\n");
+        return;
+      }
+
+      final var result = this.renderer.render(job);
+      final var failure = result.failure();
+      if (failure.isPresent()) {
+        final var e = failure.get();
+        this.jobsFailed.incrementAndGet();
+        LOG.error("{}: ", job.outputDirectory(), e);
+        respond(exchange, 500, "error: " + e.getMessage() + "\n");
+        return;
+      }
+
+      final var time = result.time().toMillis();
+      this.jobsCompleted.incrementAndGet();
+      LOG.debug("{}: {}ms", job.outputDirectory(), Long.valueOf(time));
+      respond(exchange, 200, "ok: " + time + "ms\n");
+    }
+  }
+
+  private void handleStatus(
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405, "error: method not allowed\n");
+        return;
+      }
+
+      final var fragments =
+        this.renderer.fragments().statistics();
+
+      respond(
+        exchange,
+        200,
+        new StringBuilder(128)
+          .append("jobsCompleted: ")
+          .append(this.jobsCompleted())
+          .append('\n')
+          .append("jobsFailed: ")
+          .append(this.jobsFailed())
+          .append('\n')
+          .append("fragmentHits: ")
+          .append(fragments.hits())
+          .append('\n')
+          .append("fragmentMisses: ")
+          .append(fragments.misses())
+          .append('\n')
+          .append("fragmentEvictions: ")
+          .append(fragments.evictions())
+          .append('\n')
+          .toString()
+      );
+    }
+  }
+
+  private static void respond(
+    final HttpExchange exchange,
+    final int status,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders()
+      .set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (var output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  /**
+   * Stop the daemon, waiting briefly for running jobs to complete.
+   */
+
+  @Override
+  public void close()
+  {
+    this.server.stop(1);
+    this.executor.shutdown();
+    try {
+      if (!this.executor.awaitTermination(30L, TimeUnit.SECONDS)) {
+        this.executor.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      this.executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
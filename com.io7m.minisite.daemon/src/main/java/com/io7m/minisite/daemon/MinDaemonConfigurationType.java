@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.daemon;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import org.immutables.value.Value;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The configuration for a rendering daemon.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface MinDaemonConfigurationType
+{
+  /**
+   * @return The address to which the daemon binds; must be a loopback address
+   */
+
+  @Value.Parameter
+  InetSocketAddress address();
+
+  /**
+   * @return The number of jobs that may be rendered concurrently
+   */
+
+  @Value.Default
+  @Value.Parameter
+  default int threads()
+  {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @return The maximum size in bytes of a job request
+   */
+
+  @Value.Default
+  @Value.Parameter
+  default int requestSizeLimit()
+  {
+    return 65536;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (!this.address().getAddress().isLoopbackAddress()) {
+      throw new IllegalArgumentException(
+        "Address must be a loopback address, but was " + this.address());
+    }
+    if (this.threads() < 1) {
+      throw new IllegalArgumentException(
+        "Threads must be positive, but was " + this.threads());
+    }
+    if (this.requestSizeLimit() < 1) {
+      throw new IllegalArgumentException(
+        "Request size limit must be positive, but was "
+          + this.requestSizeLimit());
+    }
+  }
+}
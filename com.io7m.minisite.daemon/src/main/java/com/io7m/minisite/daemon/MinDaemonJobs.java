@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.daemon;
+
+import com.io7m.minisite.core.MinBugTrackerConfiguration;
+import com.io7m.minisite.core.MinChangesConfiguration;
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinRenderJob;
+import com.io7m.minisite.core.MinSourcesConfiguration;
+import com.io7m.minisite.core.MinWriterConfiguration;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Functions to parse render jobs from property sets. Jobs use the following
+ * keys; all paths must be absolute.
+ *
+ * <ul>
+ *   <li>{@code project.name} (required)</li>
+ *   <li>{@code project.groupName} (required)</li>
+ *   <li>{@code project.release} (required)</li>
+ *   <li>{@code project.modules}: a comma-separated list</li>
+ *   <li>{@code project.centralReposPath}: defaults to the group name with
+ *   dots replaced by slashes</li>
+ *   <li>{@code header}, {@code overview}, {@code features},
+ *   {@code documentation}, {@code license}: paths</li>
+ *   <li>{@code changelog.file}, {@code changelog.feedEmail}</li>
+ *   <li>{@code changelog.embeddedReleases}: the number of most recent
+ *   releases shown on the main page, or {@code 0} to show all of them</li>
+ *   <li>{@code changelog.feedEntries}: the maximum number of entries in the
+ *   Atom feed, or {@code 0} for no limit</li>
+ *   <li>{@code bugTracker.system}, {@code bugTracker.uri}</li>
+ *   <li>{@code sources.system}, {@code sources.uri}</li>
+ *   <li>{@code css.includes}: a comma-separated list</li>
+ *   <li>{@code css.generateStyle}: {@code true} or {@code false}</li>
+ *   <li>{@code output.directory} (required)</li>
+ *   <li>{@code output.streaming}: {@code true} or {@code false}</li>
+ *   <li>{@code output.minify}: {@code true} or {@code false}</li>
+ *   <li>{@code output.feedURI}: the URI of the published Atom feed</li>
+ *   <li>{@code output.feedUpdated}: the update time of the Atom feed, as an
+ *   ISO 8601 date and time with an offset</li>
+ * </ul>
+ */
+
+public final class MinDaemonJobs
+{
+  private MinDaemonJobs()
+  {
+
+  }
+
+  /**
+   * Parse a job from the given properties.
+   *
+   * @param properties The properties
+   *
+   * @return A parsed job
+   *
+   * @throws IllegalArgumentException If the properties are not a valid job
+   */
+
+  public static MinRenderJob parse(
+    final Properties properties)
+    throws IllegalArgumentException
+  {
+    Objects.requireNonNull(properties, "properties");
+
+    final var groupName =
+      required(properties, "project.groupName");
+
+    final var configuration =
+      MinConfiguration.builder()
+        .setProjectName(required(properties, "project.name"))
+        .setProjectGroupName(groupName)
+        .setRelease(required(properties, "project.release"))
+        .setProjectModules(list(properties, "project.modules"))
+        .setCentralReposPath(
+          properties.getProperty(
+            "project.centralReposPath", groupName.replace(".", "/")))
+        .setHeader(path(properties, "header"))
+        .setOverview(path(properties, "overview"))
+        .setFeatures(path(properties, "features"))
+        .setDocumentation(path(properties, "documentation"))
+        .setLicense(path(properties, "license"))
+        .setChangelog(changelog(properties))
+        .setBugTracker(bugTracker(properties))
+        .setSources(sources(properties));
+
+    if (properties.containsKey("css.includes")) {
+      configuration.setCssIncludes(list(properties, "css.includes"));
+    }
+    if (properties.containsKey("css.generateStyle")) {
+      configuration.setCssGenerateStyle(
+        bool(properties, "css.generateStyle"));
+    }
+
+    final var job =
+      MinRenderJob.builder()
+        .setConfiguration(configuration.build())
+        .setOutputDirectory(absolute(
+          "output.directory",
+          required(properties, "output.directory")))
+        .setFeedURI(uri(properties, "output.feedURI"))
+        .setFeedUpdated(time(properties, "output.feedUpdated"));
+
+    if (properties.containsKey("output.streaming")) {
+      job.setStreaming(bool(properties, "output.streaming"));
+    }
+    if (properties.containsKey("output.minify")) {
+      job.setWriter(
+        MinWriterConfiguration.builder()
+          .setMinify(bool(properties, "output.minify"))
+          .build());
+    }
+    return job.build();
+  }
+
+  private static Optional<MinChangesConfiguration> changelog(
+    final Properties properties)
+  {
+    return path(properties, "changelog.file")
+      .map(file -> {
+        final var changes =
+          MinChangesConfiguration.builder()
+            .setFile(file)
+            .setFeedEmail(required(properties, "changelog.feedEmail"));
+        if (properties.containsKey("changelog.embeddedReleases")) {
+          changes.setEmbeddedReleases(
+            integer(properties, "changelog.embeddedReleases"));
+        }
+        if (properties.containsKey("changelog.feedEntries")) {
+          changes.setFeedEntries(
+            integer(properties, "changelog.feedEntries"));
+        }
+        return changes.build();
+      });
+  }
+
+  private static Optional<MinBugTrackerConfiguration> bugTracker(
+    final Properties properties)
+  {
+    return Optional.ofNullable(properties.getProperty("bugTracker.system"))
+      .map(system -> MinBugTrackerConfiguration.of(
+        system,
+        uri(properties, "bugTracker.uri").orElseThrow(
+          () -> missing("bugTracker.uri"))));
+  }
+
+  private static Optional<MinSourcesConfiguration> sources(
+    final Properties properties)
+  {
+    return Optional.ofNullable(properties.getProperty("sources.system"))
+      .map(system -> MinSourcesConfiguration.of(
+        system,
+        uri(properties, "sources.uri").orElseThrow(
+          () -> missing("sources.uri"))));
+  }
+
+  private static String required(
+    final Properties properties,
+    final String key)
+  {
+    final var value = properties.getProperty(key);
+    if (value == null) {
+      throw missing(key);
+    }
+    return value;
+  }
+
+  private static IllegalArgumentException missing(
+    final String key)
+  {
+    return new IllegalArgumentException(
+      "Missing required property: " + key);
+  }
+
+  private static List<String> list(
+    final Properties properties,
+    final String key)
+  {
+    return Arrays.stream(properties.getProperty(key, "").split(","))
+      .map(String::trim)
+      .filter(value -> !value.isEmpty())
+      .toList();
+  }
+
+  private static Optional<ZonedDateTime> time(
+    final Properties properties,
+    final String key)
+  {
+    final var value = properties.getProperty(key);
+    if (value == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(ZonedDateTime.parse(value));
+    } catch (final DateTimeParseException e) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Property %s must be an ISO 8601 date and time, but was %s",
+          key,
+          value),
+        e);
+    }
+  }
+
+  private static int integer(
+    final Properties properties,
+    final String key)
+  {
+    final var value = properties.getProperty(key);
+    try {
+      return Integer.parseInt(value);
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Property %s must be an integer, but was %s", key, value),
+        e);
+    }
+  }
+
+  private static boolean bool(
+    final Properties properties,
+    final String key)
+  {
+    final var value = properties.getProperty(key);
+    return switch (value) {
+      case "true" -> true;
+      case "false" -> false;
+      default -> throw new IllegalArgumentException(
+        String.format(
+          "Property %s must be true or false, but was %s", key, value));
+    };
+  }
+
+  private static Optional<Path> path(
+    final Properties properties,
+    final String key)
+  {
+    return Optional.ofNullable(properties.getProperty(key))
+      .map(value -> absolute(key, value));
+  }
+
+  private static Path absolute(
+    final String key,
+    final String value)
+  {
+    final var path = Path.of(value);
+    if (!path.isAbsolute()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Property %s must be an absolute path, but was %s", key, value));
+    }
+    return path;
+  }
+
+  private static Optional<URI> uri(
+    final Properties properties,
+    final String key)
+  {
+    return Optional.ofNullable(properties.getProperty(key))
+      .map(URI::create);
+  }
+}
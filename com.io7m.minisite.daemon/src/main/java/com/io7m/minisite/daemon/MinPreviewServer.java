@@ -0,0 +1,435 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.daemon;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A server that serves a generated site from a directory for local preview.
+ * Files are served with their correct content types and with strong ETags
+ * derived from their content, and conditional requests that match an ETag
+ * receive {@code 304} responses without a body. If a client accepts gzip,
+ * and an up-to-date {@code .gz} sidecar written by the compressor exists,
+ * the sidecar is served in place of the file. ETags are cached for as long
+ * as a file's size and modification time do not change, so unchanged files
+ * are not hashed on every request.
+ */
+
+public final class MinPreviewServer implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinPreviewServer.class);
+
+  private static final Map<String, String> CONTENT_TYPES =
+    Map.ofEntries(
+      Map.entry("atom", "application/atom+xml; charset=utf-8"),
+      Map.entry("css", "text/css; charset=utf-8"),
+      Map.entry("gif", "image/gif"),
+      Map.entry("html", "text/html; charset=utf-8"),
+      Map.entry("ico", "image/vnd.microsoft.icon"),
+      Map.entry("jpeg", "image/jpeg"),
+      Map.entry("jpg", "image/jpeg"),
+      Map.entry("js", "text/javascript; charset=utf-8"),
+      Map.entry("json", "application/json"),
+      Map.entry("png", "image/png"),
+      Map.entry("svg", "image/svg+xml"),
+      Map.entry("txt", "text/plain; charset=utf-8"),
+      Map.entry("xhtml", "application/xhtml+xml; charset=utf-8"),
+      Map.entry("xml", "application/xml; charset=utf-8")
+    );
+
+  private final MinPreviewConfiguration configuration;
+  private final Path root;
+  private final ExecutorService executor;
+  private final HttpServer server;
+  private final ConcurrentHashMap<Path, Tag> tags;
+  private final AtomicLong requestsServed;
+
+  private MinPreviewServer(
+    final MinPreviewConfiguration inConfiguration,
+    final ExecutorService inExecutor,
+    final HttpServer inServer)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.server =
+      Objects.requireNonNull(inServer, "server");
+    this.root =
+      inConfiguration.directory().toAbsolutePath().normalize();
+    this.tags =
+      new ConcurrentHashMap<>();
+    this.requestsServed =
+      new AtomicLong();
+  }
+
+  /**
+   * The ETag of a file, valid for as long as the file's size and
+   * modification time are unchanged.
+   */
+
+  private static final class Tag
+  {
+    private final long size;
+    private final FileTime time;
+    private final String value;
+
+    Tag(
+      final long inSize,
+      final FileTime inTime,
+      final String inValue)
+    {
+      this.size = inSize;
+      this.time = inTime;
+      this.value = inValue;
+    }
+  }
+
+  /**
+   * Start a preview server.
+   *
+   * @param configuration The server configuration
+   *
+   * @return A running server
+   *
+   * @throws IOException On errors binding the server
+   */
+
+  public static MinPreviewServer start(
+    final MinPreviewConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var executor =
+      Executors.newFixedThreadPool(configuration.threads());
+
+    final HttpServer server;
+    try {
+      server = HttpServer.create(configuration.address(), 0);
+    } catch (final IOException e) {
+      executor.shutdown();
+      throw e;
+    }
+
+    final var preview =
+      new MinPreviewServer(configuration, executor, server);
+
+    server.setExecutor(executor);
+    server.createContext("/", preview::handle);
+    server.start();
+
+    LOG.info("serving {} on {}", preview.root, preview.address());
+    return preview;
+  }
+
+  /**
+   * @return The address to which the server is bound
+   */
+
+  public InetSocketAddress address()
+  {
+    return this.server.getAddress();
+  }
+
+  /**
+   * @return The number of requests that have been served
+   */
+
+  public long requestsServed()
+  {
+    return this.requestsServed.get();
+  }
+
+  private void handle(
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try (exchange) {
+      this.requestsServed.incrementAndGet();
+
+      final var method = exchange.getRequestMethod();
+      final var head = "HEAD".equals(method);
+      if (!head && !"GET".equals(method)) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        respondError(exchange, 405, "error: method not allowed\n");
+        return;
+      }
+
+      final var fileOpt = this.resolve(exchange.getRequestURI().getPath());
+      if (fileOpt.isEmpty()) {
+        respondError(exchange, 404, "error: not found\n");
+        return;
+      }
+
+      final var file = fileOpt.get();
+      final var headers = exchange.getResponseHeaders();
+      headers.set("Content-Type", contentType(file));
+      headers.set("Cache-Control", "no-cache");
+
+      var served = file;
+      final var sidecar = this.sidecar(file);
+      if (sidecar.isPresent()) {
+        headers.set("Vary", "Accept-Encoding");
+        if (acceptsGzip(exchange)) {
+          served = sidecar.get();
+          headers.set("Content-Encoding", "gzip");
+        }
+      }
+
+      final var tag = this.tag(served);
+      headers.set("ETag", tag);
+
+      if (matches(exchange, tag)) {
+        exchange.sendResponseHeaders(304, -1L);
+        return;
+      }
+
+      final var size = Files.size(served);
+      if (head) {
+        headers.set("Content-Length", Long.toString(size));
+        exchange.sendResponseHeaders(200, -1L);
+        return;
+      }
+
+      exchange.sendResponseHeaders(200, size == 0L ? -1L : size);
+      try (var output = exchange.getResponseBody()) {
+        Files.copy(served, output);
+      }
+    }
+  }
+
+  /**
+   * Resolve a decoded request path to a regular file inside the site
+   * directory. Requests for directories are served the directory's index
+   * page. Paths are decoded as URI paths rather than as form data, so a
+   * {@code +} in a file name is not taken to be a space.
+   */
+
+  private Optional<Path> resolve(
+    final String path)
+  {
+    if (path == null) {
+      return Optional.empty();
+    }
+
+    Path file;
+    try {
+      file = this.root.resolve(path.replaceFirst("^/+", "")).normalize();
+    } catch (final InvalidPathException e) {
+      return Optional.empty();
+    }
+    if (!file.startsWith(this.root)) {
+      return Optional.empty();
+    }
+    if (Files.isDirectory(file)) {
+      file = file.resolve("index.xhtml");
+    }
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    return Optional.of(file);
+  }
+
+  /**
+   * A sidecar is only served if the compressor has marked it as up to date
+   * by giving it the modification time of the file it was compressed from.
+   */
+
+  private Optional<Path> sidecar(
+    final Path file)
+    throws IOException
+  {
+    final var sidecar = file.resolveSibling(file.getFileName() + ".gz");
+    if (!Files.isRegularFile(sidecar)) {
+      return Optional.empty();
+    }
+    if (!Files.getLastModifiedTime(sidecar)
+      .equals(Files.getLastModifiedTime(file))) {
+      return Optional.empty();
+    }
+    return Optional.of(sidecar);
+  }
+
+  private String tag(
+    final Path file)
+    throws IOException
+  {
+    final var size = Files.size(file);
+    final var time = Files.getLastModifiedTime(file);
+    final var existing = this.tags.get(file);
+    if (existing != null
+      && existing.size == size
+      && existing.time.equals(time)) {
+      return existing.value;
+    }
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    final var buffer = new byte[8192];
+    try (var input = Files.newInputStream(file)) {
+      while (true) {
+        final var count = input.read(buffer);
+        if (count == -1) {
+          break;
+        }
+        digest.update(buffer, 0, count);
+      }
+    }
+
+    final var value =
+      new StringBuilder(34)
+        .append('"')
+        .append(HexFormat.of().formatHex(digest.digest(), 0, 16))
+        .append('"')
+        .toString();
+
+    this.tags.put(file, new Tag(size, time, value));
+    return value;
+  }
+
+  private static boolean matches(
+    final HttpExchange exchange,
+    final String tag)
+  {
+    final var headers =
+      exchange.getRequestHeaders().getOrDefault("If-None-Match", List.of());
+    for (final var header : headers) {
+      for (final var candidate : header.split(",")) {
+        /*
+         * If-None-Match uses the weak comparison, so a weak validator
+         * matches a strong tag with the same value.
+         */
+
+        final var value = candidate.trim().replaceFirst("^W/", "");
+        if ("*".equals(value) || tag.equals(value)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean acceptsGzip(
+    final HttpExchange exchange)
+  {
+    final var headers =
+      exchange.getRequestHeaders().getOrDefault("Accept-Encoding", List.of());
+    for (final var header : headers) {
+      for (final var candidate : header.split(",")) {
+        final var parts = candidate.trim().split(";");
+        if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+          continue;
+        }
+        return parts.length < 2 || !isZeroQuality(parts[1]);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isZeroQuality(
+    final String parameter)
+  {
+    final var text = parameter.trim().toLowerCase(Locale.ROOT);
+    if (!text.startsWith("q=")) {
+      return false;
+    }
+    try {
+      return Double.parseDouble(text.substring(2)) == 0.0;
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static String contentType(
+    final Path file)
+  {
+    final var name = file.getFileName().toString();
+    final var dot = name.lastIndexOf('.');
+    if (dot == -1) {
+      return "application/octet-stream";
+    }
+    return CONTENT_TYPES.getOrDefault(
+      name.substring(dot + 1).toLowerCase(Locale.ROOT),
+      "application/octet-stream");
+  }
+
+  private static void respondError(
+    final HttpExchange exchange,
+    final int status,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders()
+      .set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (var output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  /**
+   * Stop the server.
+   */
+
+  @Override
+  public void close()
+  {
+    this.server.stop(0);
+    this.executor.shutdown();
+    try {
+      if (!this.executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+        this.executor.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      this.executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
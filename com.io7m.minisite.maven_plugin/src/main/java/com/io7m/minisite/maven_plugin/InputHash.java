@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.maven_plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A SHA-256 hash over the inputs of a generated artefact. Every value is
+ * prefixed with its length so that adjacent values cannot be confused.
+ */
+
+final class InputHash
+{
+  private final MessageDigest digest;
+  private final byte[] buffer;
+
+  InputHash()
+  {
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    this.buffer = new byte[8192];
+  }
+
+  InputHash addString(
+    final String text)
+  {
+    Objects.requireNonNull(text, "Text");
+
+    final var bytes = text.getBytes(UTF_8);
+    this.addLength(bytes.length);
+    this.digest.update(bytes);
+    return this;
+  }
+
+  InputHash addBoolean(
+    final boolean value)
+  {
+    this.digest.update(value ? (byte) 1 : (byte) 0);
+    return this;
+  }
+
+  InputHash addStream(
+    final InputStream stream)
+    throws IOException
+  {
+    Objects.requireNonNull(stream, "Stream");
+
+    var total = 0L;
+    while (true) {
+      final var r = stream.read(this.buffer);
+      if (r == -1) {
+        break;
+      }
+      this.digest.update(this.buffer, 0, r);
+      total += r;
+    }
+    this.addLength(total);
+    return this;
+  }
+
+  InputHash addFile(
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "File");
+
+    try (var stream = Files.newInputStream(file)) {
+      return this.addStream(stream);
+    }
+  }
+
+  InputHash addOptionalFile(
+    final Optional<Path> file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "File");
+
+    this.addBoolean(file.isPresent());
+    if (file.isPresent()) {
+      this.addFile(file.get());
+    }
+    return this;
+  }
+
+  private void addLength(
+    final long length)
+  {
+    this.digest.update(ByteBuffer.allocate(8).putLong(length).array());
+  }
+
+  String finish()
+  {
+    return HexFormat.of().formatHex(this.digest.digest());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.maven_plugin;
+
+import com.io7m.minisite.daemon.MinPreviewConfiguration;
+import com.io7m.minisite.daemon.MinPreviewServer;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+// CHECKSTYLE:OFF
+
+/**
+ * A mojo that generates the site, and then serves the output directory on
+ * a loopback address for local preview until interrupted.
+ *
+ * @see MinPreviewServer
+ */
+
+@Mojo(
+  name = "preview",
+  requiresDirectInvocation = true)
+public final class MinPreviewMojo extends MinSiteMojo
+{
+  /**
+   * The port on which the site is served.
+   */
+
+  @Parameter(
+    name = "previewPort",
+    property = "minisite.previewPort",
+    defaultValue = "8080",
+    required = false)
+  private int previewPort;
+
+  /**
+   * Instantiate the mojo.
+   */
+
+  public MinPreviewMojo()
+  {
+
+  }
+
+  @Override
+  public void execute()
+    throws MojoFailureException
+  {
+    if (this.isSkipped()) {
+      return;
+    }
+
+    this.generate();
+
+    final var configuration =
+      MinPreviewConfiguration.of(
+        new InetSocketAddress(
+          InetAddress.getLoopbackAddress(),
+          this.previewPort),
+        this.output());
+
+    try (var server = MinPreviewServer.start(configuration)) {
+      final var address = server.address();
+      this.getLog().info(new StringBuilder(64)
+                           .append("Serving the site at http://")
+                           .append(address.getAddress().getHostAddress())
+                           .append(':')
+                           .append(address.getPort())
+                           .append('/')
+                           .toString());
+      new CountDownLatch(1).await();
+    } catch (final IOException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
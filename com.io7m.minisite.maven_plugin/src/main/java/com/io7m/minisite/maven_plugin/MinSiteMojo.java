@@ -16,14 +16,27 @@
 
 package com.io7m.minisite.maven_plugin;
 
-import com.io7m.changelog.xml.api.CAtomChangelogWriterConfiguration;
-import com.io7m.changelog.xml.api.CAtomChangelogWriterProviderType;
-import com.io7m.changelog.xml.api.CXMLChangelogParserProviderType;
+import com.io7m.minisite.core.MinAssetFingerprintConfiguration;
+import com.io7m.minisite.core.MinAssetFingerprinter;
 import com.io7m.minisite.core.MinBugTrackerConfiguration;
 import com.io7m.minisite.core.MinChangesConfiguration;
+import com.io7m.minisite.core.MinCompressionConfiguration;
+import com.io7m.minisite.core.MinCompressionStatistics;
+import com.io7m.minisite.core.MinCompressor;
 import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinFutures;
+import com.io7m.minisite.core.MinLicenseCache;
+import com.io7m.minisite.core.MinLicenseCacheConfiguration;
+import com.io7m.minisite.core.MinOutputFiles;
+import com.io7m.minisite.core.MinResourceComparison;
+import com.io7m.minisite.core.MinResourceCopier;
+import com.io7m.minisite.core.MinResourceCopyConfiguration;
+import com.io7m.minisite.core.MinResourceCopyMode;
 import com.io7m.minisite.core.MinSite;
+import com.io7m.minisite.core.MinSiteWriter;
 import com.io7m.minisite.core.MinSourcesConfiguration;
+import com.io7m.minisite.core.MinWriteStatistics;
+import com.io7m.minisite.core.MinWriterConfiguration;
 import org.apache.maven.model.License;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoFailureException;
@@ -34,10 +47,6 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -49,13 +58,21 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.ServiceLoader;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 // CHECKSTYLE:OFF
 
@@ -66,7 +83,7 @@ import java.util.ServiceLoader;
 @Mojo(
   name = "generateSite",
   defaultPhase = LifecyclePhase.SITE)
-public final class MinSiteMojo extends AbstractMojo
+public class MinSiteMojo extends AbstractMojo
 {
   /**
    * Instantiate the mojo.
@@ -75,6 +92,8 @@ public final class MinSiteMojo extends AbstractMojo
   public MinSiteMojo()
   {
     this.skip = false;
+    this.resourceComparison = MinResourceComparison.SIZE_AND_TIME;
+    this.resourceCopyMode = MinResourceCopyMode.COPY;
   }
 
   /**
@@ -158,6 +177,33 @@ public final class MinSiteMojo extends AbstractMojo
     required = false)
   private String changelogFeedEmail;
 
+  /**
+   * The number of most recent releases shown on the main page. If zero, the
+   * entire changelog is shown on the main page. Otherwise, the entire
+   * changelog is published as a set of archive pages, one per year, linked
+   * from the main page.
+   */
+
+  @Parameter(
+    name = "changelogEmbeddedReleases",
+    property = "minisite.changelogEmbeddedReleases",
+    defaultValue = "0",
+    required = false)
+  private int changelogEmbeddedReleases;
+
+  /**
+   * The maximum number of entries in the Atom feed. If zero, the feed
+   * contains every release. Otherwise, older releases are published as
+   * RFC 5005 archived feed documents linked from the feed.
+   */
+
+  @Parameter(
+    name = "changelogFeedEntries",
+    property = "minisite.changelogFeedEntries",
+    defaultValue = "0",
+    required = false)
+  private int changelogFeedEntries;
+
   /**
    * The resources directory.
    */
@@ -203,6 +249,276 @@ public final class MinSiteMojo extends AbstractMojo
     required = false)
   private boolean cssGenerateDefault;
 
+  /**
+   * A specification of whether or not the page should be written directly
+   * to the output file instead of being built as an in-memory document.
+   */
+
+  @Parameter(
+    name = "streaming",
+    property = "minisite.streaming",
+    defaultValue = "false",
+    required = false)
+  private boolean streaming;
+
+  /**
+   * A specification of whether or not the page and the default CSS style
+   * should be minified.
+   */
+
+  @Parameter(
+    name = "minify",
+    property = "minisite.minify",
+    defaultValue = "false",
+    required = false)
+  private boolean minify;
+
+  /**
+   * A specification of whether or not the generated files should depend
+   * only on their inputs. In reproducible mode, line separators are always
+   * LF, and the Atom feed's update time is the date of the latest release
+   * in the changelog, or the project's output timestamp if there are no
+   * releases.
+   */
+
+  @Parameter(
+    name = "reproducible",
+    property = "minisite.reproducible",
+    defaultValue = "false",
+    required = false)
+  private boolean reproducible;
+
+  /**
+   * The timestamp used for reproducible output, either as an ISO 8601 date
+   * and time or as a number of seconds since the epoch.
+   */
+
+  @Parameter(
+    name = "outputTimestamp",
+    defaultValue = "${project.build.outputTimestamp}",
+    required = false)
+  private String outputTimestamp;
+
+  /**
+   * A specification of whether or not artefacts whose inputs have not
+   * changed since the last execution should be skipped.
+   */
+
+  @Parameter(
+    name = "incremental",
+    property = "minisite.incremental",
+    defaultValue = "false",
+    required = false)
+  private boolean incremental;
+
+  /**
+   * The method used to decide whether a resource file is unchanged.
+   */
+
+  @Parameter(
+    name = "resourceComparison",
+    property = "minisite.resourceComparison",
+    defaultValue = "SIZE_AND_TIME",
+    required = false)
+  private MinResourceComparison resourceComparison;
+
+  /**
+   * The method used to place resource files in the output directory.
+   */
+
+  @Parameter(
+    name = "resourceCopyMode",
+    property = "minisite.resourceCopyMode",
+    defaultValue = "COPY",
+    required = false)
+  private MinResourceCopyMode resourceCopyMode;
+
+  /**
+   * The maximum number of resource files copied at once. A value of zero
+   * uses the number of available processors.
+   */
+
+  @Parameter(
+    name = "resourceCopyThreads",
+    property = "minisite.resourceCopyThreads",
+    defaultValue = "0",
+    required = false)
+  private int resourceCopyThreads;
+
+  /**
+   * The maximum number of sections of the main page evaluated at once.
+   * Sections are evaluated on the build thread unless this is greater than
+   * one. Each build with a value greater than one creates its own pool, so
+   * parallel reactor builds multiply their threads by this value.
+   */
+
+  @Parameter(
+    name = "sectionThreads",
+    property = "minisite.sectionThreads",
+    defaultValue = "1",
+    required = false)
+  private int sectionThreads;
+
+  /**
+   * A specification of whether or not stylesheets and assets should be
+   * renamed to include a hash of their content, so that they can be served
+   * with long cache lifetimes.
+   */
+
+  @Parameter(
+    name = "fingerprint",
+    property = "minisite.fingerprint",
+    defaultValue = "false",
+    required = false)
+  private boolean fingerprint;
+
+  /**
+   * The assets, other than stylesheets, that will be fingerprinted.
+   */
+
+  @Parameter(
+    name = "fingerprintAssets",
+    required = false)
+  private String[] fingerprintAssets = {
+    "icon.png"
+  };
+
+  /**
+   * A specification of whether or not the stylesheets should be bundled
+   * into a single fingerprinted stylesheet.
+   */
+
+  @Parameter(
+    name = "fingerprintBundleStyles",
+    property = "minisite.fingerprintBundleStyles",
+    defaultValue = "false",
+    required = false)
+  private boolean fingerprintBundleStyles;
+
+  /**
+   * A specification of whether or not precompressed {@code .gz} sidecar
+   * files should be written for the text files in the generated site.
+   */
+
+  @Parameter(
+    name = "gzip",
+    property = "minisite.gzip",
+    defaultValue = "false",
+    required = false)
+  private boolean gzip;
+
+  /**
+   * The deflate compression level, from 1 to 9, used for sidecar files.
+   */
+
+  @Parameter(
+    name = "gzipLevel",
+    property = "minisite.gzipLevel",
+    defaultValue = "9",
+    required = false)
+  private int gzipLevel;
+
+  /**
+   * The size in bytes below which files are not compressed.
+   */
+
+  @Parameter(
+    name = "gzipMinimumSize",
+    property = "minisite.gzipMinimumSize",
+    defaultValue = "256",
+    required = false)
+  private long gzipMinimumSize;
+
+  /**
+   * The extensions of the files that will be compressed.
+   */
+
+  @Parameter(
+    name = "gzipExtensions",
+    required = false)
+  private String[] gzipExtensions = {
+    "atom",
+    "css",
+    "html",
+    "js",
+    "json",
+    "svg",
+    "txt",
+    "xhtml",
+    "xml"
+  };
+
+  /**
+   * The maximum number of files compressed at once. A value of zero uses the
+   * number of available processors.
+   */
+
+  @Parameter(
+    name = "gzipThreads",
+    property = "minisite.gzipThreads",
+    defaultValue = "0",
+    required = false)
+  private int gzipThreads;
+
+  /**
+   * A specification of whether or not a machine-readable report of the
+   * time taken and bytes written by each artefact should be written to
+   * {@code minisite-report.json} in the output directory. The report
+   * contains timings, so it is never reproducible, and it is rewritten on
+   * every build. It is therefore off by default.
+   */
+
+  @Parameter(
+    name = "report",
+    property = "minisite.report",
+    defaultValue = "false",
+    required = false)
+  private boolean report;
+
+  /**
+   * The directory in which downloaded licenses are cached between builds.
+   */
+
+  @Parameter(
+    name = "licenseCacheDirectory",
+    property = "minisite.licenseCacheDirectory",
+    defaultValue = "${user.home}/.minisite/licenses",
+    required = false)
+  private String licenseCacheDirectory;
+
+  /**
+   * If set, licenses are never downloaded, and cached copies are used.
+   */
+
+  @Parameter(
+    name = "licenseOffline",
+    property = "minisite.licenseOffline",
+    defaultValue = "${settings.offline}",
+    required = false)
+  private boolean licenseOffline;
+
+  /**
+   * The timeout in milliseconds for connecting to the license server.
+   */
+
+  @Parameter(
+    name = "licenseConnectTimeout",
+    property = "minisite.licenseConnectTimeout",
+    defaultValue = "10000",
+    required = false)
+  private int licenseConnectTimeout;
+
+  /**
+   * The timeout in milliseconds for reading from the license server.
+   */
+
+  @Parameter(
+    name = "licenseReadTimeout",
+    property = "minisite.licenseReadTimeout",
+    defaultValue = "30000",
+    required = false)
+  private int licenseReadTimeout;
+
   /**
    * The current Maven settings.
    */
@@ -213,6 +529,14 @@ public final class MinSiteMojo extends AbstractMojo
     required = true)
   private Settings settings;
 
+  /**
+   * The resolved license file. The license is resolved at most once per
+   * execution, so that a watch does not revalidate it over the network
+   * each time the site is regenerated.
+   */
+
+  private Optional<Path> licenseFile;
+
   @Override
   public void execute()
     throws MojoFailureException
@@ -221,10 +545,74 @@ public final class MinSiteMojo extends AbstractMojo
       return;
     }
 
+    this.generate();
+  }
+
+  /**
+   * @return {@code true} if generation should be skipped
+   */
+
+  final boolean isSkipped()
+  {
+    return this.skip;
+  }
+
+  /**
+   * Skip the generation of artefacts whose inputs have not changed,
+   * regardless of the configured value of {@code incremental}.
+   */
+
+  final void forceIncremental()
+  {
+    this.incremental = true;
+  }
+
+  /**
+   * @return The directory to which the site is generated
+   */
+
+  final Path output()
+  {
+    return Paths.get(this.outputDirectory);
+  }
+
+  /**
+   * @return The files and directories from which the site is generated
+   */
+
+  final List<Path> inputs()
+  {
+    final var inputs = new ArrayList<Path>();
+    this.header().ifPresent(inputs::add);
+    this.overview().ifPresent(inputs::add);
+    this.features().ifPresent(inputs::add);
+    this.documentation().ifPresent(inputs::add);
+    this.changelog().map(MinChangesConfiguration::file).ifPresent(inputs::add);
+    if (this.resourceDirectory != null) {
+      inputs.add(Paths.get(this.resourceDirectory));
+    }
+    return List.copyOf(inputs);
+  }
+
+  /**
+   * Generate the site.
+   *
+   * @throws MojoFailureException On errors
+   */
+
+  final void generate()
+    throws MojoFailureException
+  {
     final var log = this.getLog();
     log.debug("Generating site...");
 
-    final var config =
+    final var siteReport =
+      SiteReport.start(
+        String.valueOf(this.project.getName()),
+        String.valueOf(this.project.getVersion()),
+        generatorVersion());
+
+    final var baseConfig =
       MinConfiguration.builder()
         .setProjectName(this.project.getName())
         .setProjectGroupName(this.project.getGroupId())
@@ -241,125 +629,624 @@ public final class MinSiteMojo extends AbstractMojo
         .setCssGenerateStyle(this.cssGenerateDefault)
         .setCssIncludes(List.of(this.cssStyles))
         .setCentralReposPath(this.project.getGroupId().replace(".", "/"))
+        .setLineSeparator(
+          this.reproducible ? "\n" : System.lineSeparator())
+        .setSectionParallelism(Math.max(1, this.sectionThreads))
         .build();
 
-    final var site = MinSite.create(config);
     final var directory = Paths.get(this.outputDirectory);
+    final var writerConfig =
+      MinWriterConfiguration.builder()
+        .setMinify(this.minify)
+        .build();
 
+    final SiteManifest manifest;
     try {
       Files.createDirectories(directory);
+      manifest = SiteManifest.open(directory);
+    } catch (final IOException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+
+    /*
+     * The artefacts are independent of each other, so they are generated
+     * concurrently. When fingerprinting, the page refers to assets by the
+     * hashes of their content, so the assets are written and renamed
+     * before the page is generated.
+     */
+
+    final var assetTasks = new LinkedHashMap<String, SiteTaskType>();
+    if (baseConfig.cssGenerateStyle()) {
+      assetTasks.put("minisite.css", () -> {
+        this.generate(
+          manifest,
+          siteReport,
+          directory.resolve("minisite.css"),
+          hashStyle(writerConfig),
+          output -> {
+            this.logMinified(
+              "minisite.css",
+              writerConfig,
+              MinSiteWriter.writeStyle(writerConfig, output));
+          });
+      });
+    }
+
+    if (this.resourceDirectory != null) {
+      assetTasks.put(
+        "resources",
+        () -> this.copyResources(manifest, siteReport, directory));
+    }
+
+    final var tasks = new LinkedHashMap<String, SiteTaskType>();
+    final MinConfiguration config;
+    if (this.fingerprint) {
+      this.runTasks(assetTasks);
+      config = baseConfig.withAssetNames(
+        this.renameAssets(baseConfig, directory));
+    } else {
+      config = baseConfig;
+      tasks.putAll(assetTasks);
+    }
+
+    final var site = MinSite.create(config);
+    tasks.put("index.xhtml", () -> {
+      this.generate(
+        manifest,
+        siteReport,
+        directory.resolve("index.xhtml"),
+        hashIndex(config, writerConfig),
+        output -> {
+          final MinWriteStatistics statistics;
+          if (this.streaming) {
+            statistics =
+              MinSiteWriter.writeIndexStreaming(site, writerConfig, output);
+          } else {
+            statistics =
+              MinSiteWriter.writeIndex(site, writerConfig, output);
+          }
+          this.logMinified("index.xhtml", writerConfig, statistics);
+        });
+    });
 
-      final var fileOutput =
-        directory.resolve("index.xhtml");
-      final var docBuilderFactory =
-        DocumentBuilderFactory.newInstance();
-      final var docBuilder =
-        docBuilderFactory.newDocumentBuilder();
-      final var document =
-        docBuilder.newDocument();
-
-      document.appendChild(site.document(document));
-
-      final var source = new DOMSource(document);
-      try (var output = Files.newBufferedWriter(fileOutput)) {
-        final var result = new StreamResult(output);
-        final var transformerFactory = TransformerFactory.newInstance();
-        final var transformer = transformerFactory.newTransformer();
-        transformer.transform(source, result);
-        output.flush();
+    final var changelogOpt = config.changelog();
+    if (changelogOpt.isPresent()) {
+      final var changesConfig = changelogOpt.get();
+      final var feedURI =
+        URI.create(this.project.getUrl() + "/releases.atom");
+
+      tasks.put("releases.atom", () -> {
+        this.generate(
+          manifest,
+          siteReport,
+          directory.resolve("releases.atom"),
+          this.hashAtom(config, changesConfig),
+          output -> {
+            MinSiteWriter.writeAtom(
+              site,
+              feedURI,
+              this.feedUpdated(site),
+              output);
+          });
+      });
+
+      if (changesConfig.feedEntries() > 0) {
+        tasks.put("releases archive", () -> {
+          final var statistics =
+            MinSiteWriter.writeAtomArchive(site, feedURI, directory);
+          log.info(new StringBuilder(64)
+                     .append("releases.atom: ")
+                     .append(statistics.pagesWritten())
+                     .append(" archived feeds written, ")
+                     .append(statistics.pagesUnchanged())
+                     .append(" unchanged")
+                     .toString());
+        });
+      }
+
+      /*
+       * The archive pages are compared against the existing files by
+       * content, so they are not tracked in the manifest.
+       */
+
+      if (changesConfig.embeddedReleases() > 0) {
+        tasks.put(MinSite.CHANGELOG_ARCHIVE, () -> {
+          final var statistics =
+            MinSiteWriter.writeChangelogArchive(site, writerConfig, directory);
+          log.info(new StringBuilder(64)
+                     .append(MinSite.CHANGELOG_ARCHIVE)
+                     .append(": ")
+                     .append(statistics.pagesWritten())
+                     .append(" archive pages written, ")
+                     .append(statistics.pagesUnchanged())
+                     .append(" unchanged")
+                     .toString());
+        });
       }
-    } catch (final UncheckedIOException e) {
-      throw new MojoFailureException(e.getCause().getMessage(), e.getCause());
-    } catch (final Exception e) {
-      throw new MojoFailureException(e.getMessage(), e);
     }
 
+    this.runTasks(tasks);
+
+    /*
+     * The report is written before compression so that its sidecar, if
+     * any, is compressed from the report of this build rather than that
+     * of the previous one.
+     */
+
     try {
-      if (config.cssGenerateStyle()) {
-        final var file_output = directory.resolve("minisite.css");
-        try (final var out = Files.newOutputStream(file_output)) {
-          try (final var in =
-                 MinSite.class.getResourceAsStream("minisite.css")) {
-            in.transferTo(out);
-          }
-        }
+      if (this.report) {
+        siteReport.save(directory);
       }
-    } catch (final UncheckedIOException e) {
-      throw new MojoFailureException(e.getCause().getMessage(), e.getCause());
-    } catch (final Exception e) {
+    } catch (final IOException e) {
       throw new MojoFailureException(e.getMessage(), e);
     }
 
+    /*
+     * Sidecars are written once every other file is in place, so that the
+     * copied resources are compressed along with the generated files.
+     */
+
+    if (this.gzip) {
+      this.compress(directory);
+    }
+
     try {
-      config.changelog().ifPresent(changes_config -> {
-        final var parser_provider_opt =
-          ServiceLoader.load(CXMLChangelogParserProviderType.class).findFirst();
-
-        if (!parser_provider_opt.isPresent()) {
-          throw new NoSuchElementException(
-            "No XML changelog parser providers are available");
-        }
-
-        final var writer_provider_opt =
-          ServiceLoader.load(CAtomChangelogWriterProviderType.class).findFirst();
-
-        if (!writer_provider_opt.isPresent()) {
-          throw new NoSuchElementException(
-            "No Atom changelog writer providers are available");
-        }
-
-        final var parser_provider =
-          parser_provider_opt.get();
-        final var writer_provider =
-          writer_provider_opt.get();
-
-        try (final var input =
-               Files.newInputStream(changes_config.file())) {
-
-          final var parser =
-            parser_provider.create(
-              changes_config.file().toUri(),
-              input,
-              ErrorHandlers.loggingHandler(log));
-
-          final var changelog = parser.parse();
-
-          final var meta =
-            CAtomChangelogWriterConfiguration.builder()
-              .setAuthorEmail(changes_config.feedEmail())
-              .setAuthorName("minisite")
-              .setUpdated(ZonedDateTime.now(ZoneId.of("UTC")))
-              .setTitle(config.projectName() + " Releases")
-              .setUri(URI.create(this.project.getUrl() + "/releases.atom"))
-              .build();
-
-          final var releases = directory.resolve("releases.atom");
-          try (final var output = Files.newOutputStream(releases)) {
-            final var writer =
-              writer_provider.createWithConfiguration(
-                meta,
-                changes_config.file().toUri(),
-                output);
-            writer.write(changelog);
+      manifest.save();
+    } catch (final IOException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+  }
+
+  private interface SiteTaskType
+  {
+    void run()
+      throws Exception;
+  }
+
+  /**
+   * Run all tasks concurrently and wait for them to complete. Each task logs
+   * its own time or failure. If any task fails, the failure of the first
+   * failing task in declaration order is raised, with the failures of any
+   * other tasks attached as suppressed exceptions.
+   */
+
+  private void runTasks(
+    final Map<String, SiteTaskType> tasks)
+    throws MojoFailureException
+  {
+    if (tasks.isEmpty()) {
+      return;
+    }
+
+    final var log = this.getLog();
+
+    /*
+     * Service loading depends on the context class loader, which must be
+     * the plugin's class loader rather than whatever the pool threads have.
+     */
+
+    final var classLoader =
+      Thread.currentThread().getContextClassLoader();
+
+    final var futures = new LinkedHashMap<String, Future<?>>(tasks.size());
+    try (var executor = Executors.newFixedThreadPool(tasks.size())) {
+      for (final var entry : tasks.entrySet()) {
+        final var name = entry.getKey();
+        final var task = entry.getValue();
+        futures.put(name, executor.submit(() -> {
+          Thread.currentThread().setContextClassLoader(classLoader);
+          final var timeThen = System.nanoTime();
+          try {
+            task.run();
+          } catch (final Exception e) {
+            log.error(new StringBuilder(64)
+                        .append(name)
+                        .append(": failed after ")
+                        .append(elapsedMillis(timeThen))
+                        .append("ms: ")
+                        .append(e.getMessage())
+                        .toString());
+            throw e;
           }
-        } catch (final IOException e) {
-          throw new UncheckedIOException(e);
-        }
-      });
-    } catch (final UncheckedIOException e) {
-      throw new MojoFailureException(e.getCause().getMessage(), e.getCause());
+          log.info(new StringBuilder(64)
+                     .append(name)
+                     .append(": ")
+                     .append(elapsedMillis(timeThen))
+                     .append("ms")
+                     .toString());
+          return null;
+        }));
+      }
     }
 
-    if (this.resourceDirectory != null) {
-      log.debug("copying resources");
-      try {
-        Files.walkFileTree(
-          Paths.get(this.resourceDirectory),
-          new CopyTreeVisitor(Paths.get(this.outputDirectory)));
-      } catch (final IOException e) {
-        throw new MojoFailureException(e.getMessage(), e);
+    MinFutures.awaitAll(futures.values(), MinSiteMojo::toFailure);
+  }
+
+  private static MojoFailureException toFailure(
+    final Throwable cause)
+  {
+    if (cause instanceof InterruptedException) {
+      return new MojoFailureException("Interrupted", cause);
+    }
+    final var failure =
+      cause instanceof UncheckedIOException ? cause.getCause() : cause;
+    return new MojoFailureException(failure.getMessage(), failure);
+  }
+
+  private static long elapsedMillis(
+    final long timeThen)
+  {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timeThen);
+  }
+
+  private interface ArtefactWriterType
+  {
+    void write(Path output)
+      throws Exception;
+  }
+
+  /**
+   * Generate an artefact unless the mojo is running incrementally and the
+   * manifest shows that the inputs have not changed. The artefact is written
+   * to a temporary file and only replaces the existing output if the content
+   * differs. The outcome is recorded in the report.
+   */
+
+  private void generate(
+    final SiteManifest manifest,
+    final SiteReport siteReport,
+    final Path output,
+    final String hash,
+    final ArtefactWriterType writer)
+    throws Exception
+  {
+    final var log = this.getLog();
+    final var name = output.getFileName().toString();
+    final var timeThen = System.nanoTime();
+
+    if (this.incremental && manifest.isUpToDate(name, hash, output)) {
+      log.debug(name + " is up to date");
+      siteReport.artefact(
+        name,
+        SiteReport.Status.SKIPPED,
+        Duration.ofNanos(System.nanoTime() - timeThen),
+        Files.size(output),
+        hash);
+      return;
+    }
+
+    final SiteReport.Status status;
+    final var temporary = MinOutputFiles.temporaryFor(output);
+    try {
+      writer.write(temporary);
+      if (MinOutputFiles.replaceIfChanged(temporary, output)) {
+        log.debug(name + " written");
+        status = SiteReport.Status.REGENERATED;
+      } else {
+        log.debug(name + " unchanged");
+        status = SiteReport.Status.UNCHANGED;
       }
+    } finally {
+      Files.deleteIfExists(temporary);
     }
+    manifest.update(name, hash);
+    siteReport.artefact(
+      name,
+      status,
+      Duration.ofNanos(System.nanoTime() - timeThen),
+      Files.size(output),
+      hash);
+  }
+
+  /**
+   * @return The update time of the Atom feed
+   */
+
+  private ZonedDateTime feedUpdated(
+    final MinSite site)
+    throws MojoFailureException
+  {
+    if (!this.reproducible) {
+      return ZonedDateTime.now(ZoneId.of("UTC"));
+    }
+
+    final var latest = site.latestReleaseDate();
+    if (latest.isPresent()) {
+      return latest.get();
+    }
+    return this.parseOutputTimestamp()
+      .orElse(ZonedDateTime.ofInstant(Instant.EPOCH, ZoneId.of("UTC")));
+  }
+
+  /**
+   * Parse the output timestamp in either of the forms accepted by Maven.
+   * An absent timestamp, or a single character (conventionally used to
+   * disable the timestamp), yields nothing.
+   */
+
+  private Optional<ZonedDateTime> parseOutputTimestamp()
+    throws MojoFailureException
+  {
+    final var text = this.outputTimestamp;
+    if (text == null || text.length() < 2) {
+      return Optional.empty();
+    }
+
+    try {
+      if (text.chars().allMatch(Character::isDigit)) {
+        return Optional.of(
+          ZonedDateTime.ofInstant(
+            Instant.ofEpochSecond(Long.parseLong(text)),
+            ZoneId.of("UTC")));
+      }
+      return Optional.of(
+        OffsetDateTime.parse(text)
+          .atZoneSameInstant(ZoneId.of("UTC")));
+    } catch (final DateTimeParseException | NumberFormatException e) {
+      throw new MojoFailureException(
+        "Invalid output timestamp: " + text, e);
+    }
+  }
+
+  private void logMinified(
+    final String name,
+    final MinWriterConfiguration writerConfig,
+    final MinWriteStatistics statistics)
+  {
+    if (writerConfig.minify()) {
+      this.getLog().info(new StringBuilder(64)
+                           .append(name)
+                           .append(": ")
+                           .append(statistics.bytesWritten())
+                           .append(" bytes, ")
+                           .append(statistics.bytesSaved())
+                           .append(" bytes saved by minification")
+                           .toString());
+    }
+  }
+
+  private static String generatorVersion()
+  {
+    final var version = MinSite.class.getPackage().getImplementationVersion();
+    return version == null ? "UNKNOWN" : version;
+  }
+
+  private static String hashIndex(
+    final MinConfiguration config,
+    final MinWriterConfiguration writerConfig)
+    throws IOException
+  {
+    final var hash = new InputHash()
+      .addString(generatorVersion())
+      .addBoolean(writerConfig.minify())
+      .addString(config.projectName())
+      .addString(config.projectGroupName())
+      .addString(String.join(",", config.projectModules()))
+      .addString(config.release())
+      .addString(config.centralReposPath())
+      .addString(String.join(",", config.cssIncludes()))
+      .addString(config.assetNames().toString())
+      .addString(config.lineSeparator())
+      .addBoolean(config.cssGenerateStyle())
+      .addString(config.bugTracker().map(Object::toString).orElse(""))
+      .addString(config.sources().map(Object::toString).orElse(""))
+      .addOptionalFile(config.header())
+      .addOptionalFile(config.overview())
+      .addOptionalFile(config.features())
+      .addOptionalFile(config.documentation());
+
+    /*
+     * Licenses are hashed by content, as a cached license may be refreshed
+     * without its path changing.
+     */
+
+    hash.addOptionalFile(config.license());
+
+    final var changelog = config.changelog();
+    hash.addBoolean(changelog.isPresent());
+    if (changelog.isPresent()) {
+      hash.addFile(changelog.get().file());
+      hash.addString(Integer.toString(changelog.get().embeddedReleases()));
+    }
+    return hash.finish();
+  }
+
+  private static String hashStyle(
+    final MinWriterConfiguration writerConfig)
+    throws IOException
+  {
+    try (var stream = MinSite.class.getResourceAsStream("minisite.css")) {
+      return new InputHash()
+        .addBoolean(writerConfig.minify())
+        .addStream(stream)
+        .finish();
+    }
+  }
+
+  private String hashAtom(
+    final MinConfiguration config,
+    final MinChangesConfiguration changesConfig)
+    throws IOException
+  {
+    return new InputHash()
+      .addString(generatorVersion())
+      .addString(config.projectName())
+      .addString(String.valueOf(this.project.getUrl()))
+      .addString(changesConfig.feedEmail())
+      .addString(Integer.toString(changesConfig.feedEntries()))
+      .addBoolean(this.reproducible)
+      .addString(String.valueOf(this.outputTimestamp))
+      .addFile(changesConfig.file())
+      .finish();
+  }
+
+  /**
+   * Copy the resource tree. The tree is hashed by the names, sizes, and
+   * modification times of its files; if the hash matches the manifest and
+   * every file is present in the output, the copy is skipped entirely.
+   */
+
+  private void copyResources(
+    final SiteManifest manifest,
+    final SiteReport siteReport,
+    final Path directory)
+    throws IOException
+  {
+    final var log = this.getLog();
+    final var source = Paths.get(this.resourceDirectory);
+    final var name = "resources";
+    final var timeThen = System.nanoTime();
+
+    final var hash = new InputHash();
+    var present = true;
+    try (var stream = Files.walk(source)) {
+      final var files =
+        stream.filter(Files::isRegularFile)
+          .sorted()
+          .toList();
+
+      for (final var file : files) {
+        final var relative = source.relativize(file);
+        hash.addString(relative.toString());
+        hash.addString(Long.toString(Files.size(file)));
+        hash.addString(Files.getLastModifiedTime(file).toString());
+        present = present && Files.isRegularFile(directory.resolve(relative));
+      }
+    }
+
+    final var resourceHash = hash.finish();
+    if (this.incremental
+      && present
+      && manifest.isUpToDate(name, resourceHash, directory)) {
+      log.debug("resources are up to date");
+      siteReport.artefact(
+        name,
+        SiteReport.Status.SKIPPED,
+        Duration.ofNanos(System.nanoTime() - timeThen),
+        0L,
+        resourceHash);
+      return;
+    }
+
+    log.debug("copying resources");
+
+    final var copyConfiguration =
+      MinResourceCopyConfiguration.builder()
+        .setSource(source)
+        .setOutput(directory)
+        .setComparison(this.resourceComparison)
+        .setMode(this.resourceCopyMode)
+        .setRecordFiles(this.report);
+
+    if (this.resourceCopyThreads > 0) {
+      copyConfiguration.setParallelism(this.resourceCopyThreads);
+    }
+
+    final var statistics =
+      MinResourceCopier.copy(copyConfiguration.build());
+
+    log.info(new StringBuilder(64)
+               .append("resources: ")
+               .append(statistics.filesCopied())
+               .append(" copied, ")
+               .append(statistics.filesLinked())
+               .append(" linked, ")
+               .append(statistics.filesSkipped())
+               .append(" unchanged, ")
+               .append(statistics.bytesCopied())
+               .append(" bytes copied")
+               .toString());
+
+    manifest.update(name, resourceHash);
+    siteReport.resources(statistics.files());
+    siteReport.artefact(
+      name,
+      statistics.filesCopied() + statistics.filesLinked() > 0L
+        ? SiteReport.Status.REGENERATED
+        : SiteReport.Status.UNCHANGED,
+      Duration.ofNanos(System.nanoTime() - timeThen),
+      statistics.bytesCopied(),
+      resourceHash);
+  }
+
+  /**
+   * Give the stylesheets and assets content-hashed names, and write a
+   * manifest of the new names.
+   */
+
+  private Map<String, String> renameAssets(
+    final MinConfiguration config,
+    final Path directory)
+    throws MojoFailureException
+  {
+    final var log = this.getLog();
+    final var timeThen = System.nanoTime();
+
+    try {
+      final var assets =
+        MinAssetFingerprinter.fingerprint(
+          MinAssetFingerprintConfiguration.builder()
+            .setDirectory(directory)
+            .setStyles(config.cssIncludes())
+            .setAssets(List.of(this.fingerprintAssets))
+            .setBundleStyles(this.fingerprintBundleStyles)
+            .build());
+
+      MinAssetFingerprinter.writeManifest(
+        assets,
+        directory.resolve(MinAssetFingerprinter.MANIFEST_FILE));
+
+      log.info(new StringBuilder(64)
+                 .append("fingerprint: ")
+                 .append(assets.names().size())
+                 .append(" assets, ")
+                 .append(elapsedMillis(timeThen))
+                 .append("ms")
+                 .toString());
+      return assets.names();
+    } catch (final IOException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+  }
+
+  private void compress(
+    final Path directory)
+    throws MojoFailureException
+  {
+    final var log = this.getLog();
+    final var timeThen = System.nanoTime();
+
+    final MinCompressionStatistics statistics;
+    try {
+      final var compressConfiguration =
+        MinCompressionConfiguration.builder()
+          .setDirectory(directory)
+          .setLevel(this.gzipLevel)
+          .setMinimumSize(this.gzipMinimumSize)
+          .setExtensions(List.of(this.gzipExtensions));
+
+      if (this.gzipThreads > 0) {
+        compressConfiguration.setParallelism(this.gzipThreads);
+      }
+
+      statistics = MinCompressor.compress(compressConfiguration.build());
+    } catch (final IOException | IllegalArgumentException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+
+    log.info(new StringBuilder(64)
+               .append("gzip: ")
+               .append(statistics.filesCompressed())
+               .append(" compressed, ")
+               .append(statistics.filesUpToDate())
+               .append(" unchanged, ")
+               .append(statistics.filesSkipped())
+               .append(" skipped, ")
+               .append(statistics.bytesSaved())
+               .append(" bytes saved, ")
+               .append(elapsedMillis(timeThen))
+               .append("ms")
+               .toString());
   }
 
   private Optional<Path> documentation()
@@ -413,6 +1300,8 @@ public final class MinSiteMojo extends AbstractMojo
       return Optional.of(
         MinChangesConfiguration.builder()
           .setFeedEmail(this.changelogFeedEmail)
+          .setEmbeddedReleases(this.changelogEmbeddedReleases)
+          .setFeedEntries(this.changelogFeedEntries)
           .setFile(this.project.getBasedir().toPath().resolve(this.changelogFile))
           .build());
     }
@@ -420,33 +1309,34 @@ public final class MinSiteMojo extends AbstractMojo
   }
 
   private Optional<Path> license(final Log log)
+    throws MojoFailureException
   {
-    return this.project.getLicenses().stream().findFirst().map(license -> {
-      try {
-        final var url = this.transformURIToPath(license);
-
-        final var net_proxy = configureProxyForURL(log, this.settings, url);
-        final var path = Files.createTempFile("minisite-", ".txt");
-        try (final var out = Files.newOutputStream(path)) {
-          final var conn = url.openConnection(net_proxy);
-          conn.connect();
-
-          try (final var input = conn.getInputStream()) {
-            final var buffer = new byte[1024];
-            while (true) {
-              final var r = input.read(buffer);
-              if (r <= 0) {
-                break;
-              }
-              out.write(buffer, 0, r);
-            }
-          }
-        }
-        return path;
-      } catch (final IOException e) {
-        throw new UncheckedIOException(e);
-      }
-    });
+    if (this.licenseFile != null) {
+      return this.licenseFile;
+    }
+
+    final var licenseOpt = this.project.getLicenses().stream().findFirst();
+    if (licenseOpt.isEmpty()) {
+      this.licenseFile = Optional.empty();
+      return this.licenseFile;
+    }
+
+    try {
+      final var url = this.transformURIToPath(licenseOpt.get());
+      final var net_proxy = configureProxyForURL(log, this.settings, url);
+      final var cache =
+        MinLicenseCache.create(
+          MinLicenseCacheConfiguration.builder()
+            .setDirectory(Paths.get(this.licenseCacheDirectory))
+            .setOffline(this.licenseOffline)
+            .setConnectTimeout(Duration.ofMillis(this.licenseConnectTimeout))
+            .setReadTimeout(Duration.ofMillis(this.licenseReadTimeout))
+            .build());
+      this.licenseFile = Optional.of(cache.fetch(url, net_proxy));
+      return this.licenseFile;
+    } catch (final IOException | IllegalArgumentException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
   }
 
   private static Proxy configureProxyForURL(
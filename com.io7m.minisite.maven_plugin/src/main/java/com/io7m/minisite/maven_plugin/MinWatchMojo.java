@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.maven_plugin;
+
+import com.io7m.minisite.core.MinWatchConfiguration;
+import com.io7m.minisite.core.MinWatcher;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// CHECKSTYLE:OFF
+
+/**
+ * A mojo that generates the site, and then watches the site inputs and
+ * regenerates the site whenever they change, until interrupted. Generation
+ * is always incremental, so only the artefacts whose inputs changed are
+ * written again: the page for fragment changes, the feed for changelog
+ * changes, and the changed files for resource changes.
+ */
+
+@Mojo(
+  name = "watch",
+  requiresDirectInvocation = true)
+public final class MinWatchMojo extends MinSiteMojo
+{
+  /**
+   * The length of time in milliseconds without further changes after which
+   * a burst of changes is considered complete and the site is regenerated.
+   */
+
+  @Parameter(
+    name = "watchQuietPeriod",
+    property = "minisite.watchQuietPeriod",
+    defaultValue = "250",
+    required = false)
+  private long watchQuietPeriod;
+
+  /**
+   * Instantiate the mojo.
+   */
+
+  public MinWatchMojo()
+  {
+
+  }
+
+  @Override
+  public void execute()
+    throws MojoFailureException
+  {
+    if (this.isSkipped()) {
+      return;
+    }
+
+    final var log = this.getLog();
+    this.forceIncremental();
+    this.generate();
+
+    final var configuration =
+      MinWatchConfiguration.builder()
+        .setPaths(this.inputs())
+        .setQuietPeriod(Duration.ofMillis(this.watchQuietPeriod))
+        .build();
+
+    try (var watcher = MinWatcher.create(configuration)) {
+      log.info(new StringBuilder(64)
+                 .append("Watching ")
+                 .append(configuration.paths().size())
+                 .append(" inputs for changes")
+                 .toString());
+
+      while (true) {
+        final var changed = watcher.await();
+        for (final var path : changed) {
+          log.info("Changed: " + path);
+        }
+
+        /*
+         * A failure such as a malformed fragment is reported, and the
+         * site is generated again once the input has been fixed.
+         */
+
+        try {
+          this.generate();
+        } catch (final MojoFailureException e) {
+          log.error(e.getMessage());
+        } catch (final RuntimeException e) {
+          log.error("Site generation failed: ", e);
+        }
+      }
+    } catch (final IOException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.minisite.maven_plugin;
+
+import com.io7m.minisite.core.MinOutputFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The manifest of input hashes for the artefacts in an output directory.
+ * Artefacts may be generated concurrently, so access is synchronized.
+ */
+
+final class SiteManifest
+{
+  static final String FILE_NAME = ".minisite-manifest";
+
+  private final Path file;
+  private final Map<String, String> hashes;
+  private boolean changed;
+
+  private SiteManifest(
+    final Path inFile,
+    final Map<String, String> inHashes)
+  {
+    this.file = Objects.requireNonNull(inFile, "File");
+    this.hashes = Objects.requireNonNull(inHashes, "Hashes");
+    this.changed = false;
+  }
+
+  /**
+   * Open the manifest in the given directory. A missing or unreadable
+   * manifest is treated as empty.
+   */
+
+  static SiteManifest open(
+    final Path directory)
+  {
+    final var file = directory.resolve(FILE_NAME);
+    final var hashes = new TreeMap<String, String>();
+
+    if (Files.isRegularFile(file)) {
+      final var properties = new Properties();
+      try (var reader = Files.newBufferedReader(file, UTF_8)) {
+        properties.load(reader);
+        for (final var name : properties.stringPropertyNames()) {
+          hashes.put(name, properties.getProperty(name));
+        }
+      } catch (final IOException | IllegalArgumentException e) {
+        hashes.clear();
+      }
+    }
+
+    return new SiteManifest(file, hashes);
+  }
+
+  synchronized boolean isUpToDate(
+    final String name,
+    final String hash,
+    final Path output)
+  {
+    return Objects.equals(this.hashes.get(name), hash)
+      && Files.exists(output);
+  }
+
+  synchronized void update(
+    final String name,
+    final String hash)
+  {
+    final var previous = this.hashes.put(name, hash);
+    this.changed |= !Objects.equals(previous, hash);
+  }
+
+  /**
+   * Save the manifest if any hash has changed. The manifest is written
+   * without a timestamp so that it too is only rewritten when necessary.
+   */
+
+  synchronized void save()
+    throws IOException
+  {
+    if (!this.changed) {
+      return;
+    }
+
+    final var text = new StringBuilder(256);
+    for (final var entry : this.hashes.entrySet()) {
+      text.append(entry.getKey());
+      text.append('=');
+      text.append(entry.getValue());
+      text.append('\n');
+    }
+
+    final var temporary = MinOutputFiles.temporaryFor(this.file);
+    try {
+      Files.writeString(temporary, text, UTF_8);
+      MinOutputFiles.replaceIfChanged(temporary, this.file);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    this.changed = false;
+  }
+}
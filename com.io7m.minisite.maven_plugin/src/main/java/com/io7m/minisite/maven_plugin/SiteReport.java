@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.maven_plugin;
+
+import com.io7m.minisite.core.MinJSON;
+import com.io7m.minisite.core.MinOutputFiles;
+import com.io7m.minisite.core.MinResourceCopyFile;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A machine-readable report of the time taken and bytes written by each
+ * artefact of a site generation. Artefacts may be generated concurrently,
+ * so access is synchronized.
+ */
+
+final class SiteReport
+{
+  static final String FILE_NAME = "minisite-report.json";
+
+  enum Status
+  {
+    REGENERATED,
+    UNCHANGED,
+    SKIPPED
+  }
+
+  private static final class Artefact
+  {
+    private final String name;
+    private final Status status;
+    private final Duration time;
+    private final long bytes;
+    private final String inputHash;
+
+    private Artefact(
+      final String inName,
+      final Status inStatus,
+      final Duration inTime,
+      final long inBytes,
+      final String inInputHash)
+    {
+      this.name = Objects.requireNonNull(inName, "Name");
+      this.status = Objects.requireNonNull(inStatus, "Status");
+      this.time = Objects.requireNonNull(inTime, "Time");
+      this.bytes = inBytes;
+      this.inputHash = Objects.requireNonNull(inInputHash, "Input hash");
+    }
+  }
+
+  private final String project;
+  private final String version;
+  private final String generator;
+  private final long timeThen;
+  private final List<MemoryPoolMXBean> heapPools;
+  private final List<Artefact> artefacts;
+  private final List<MinResourceCopyFile> resources;
+
+  private SiteReport(
+    final String inProject,
+    final String inVersion,
+    final String inGenerator)
+  {
+    this.project = Objects.requireNonNull(inProject, "Project");
+    this.version = Objects.requireNonNull(inVersion, "Version");
+    this.generator = Objects.requireNonNull(inGenerator, "Generator");
+    this.timeThen = System.nanoTime();
+    this.heapPools =
+      ManagementFactory.getMemoryPoolMXBeans()
+        .stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .toList();
+    this.artefacts = new ArrayList<>();
+    this.resources = new ArrayList<>();
+  }
+
+  /**
+   * Start a report. The peak usage of each heap memory pool is reset, so
+   * that the peak reported is that of the render. Peaks are tracked per
+   * JVM, so a render running alongside others in the same JVM reports the
+   * peak of all of them.
+   */
+
+  static SiteReport start(
+    final String project,
+    final String version,
+    final String generator)
+  {
+    final var report = new SiteReport(project, version, generator);
+    for (final var pool : report.heapPools) {
+      pool.resetPeakUsage();
+    }
+    return report;
+  }
+
+  synchronized void artefact(
+    final String name,
+    final Status status,
+    final Duration time,
+    final long bytes,
+    final String inputHash)
+  {
+    this.artefacts.add(new Artefact(name, status, time, bytes, inputHash));
+  }
+
+  synchronized void resources(
+    final List<MinResourceCopyFile> files)
+  {
+    this.resources.addAll(files);
+  }
+
+  /**
+   * The sum of the peak usage of each heap memory pool. The pools may peak
+   * at different times, so this is an upper bound on the peak heap usage.
+   */
+
+  private long peakHeapBytes()
+  {
+    var total = 0L;
+    for (final var pool : this.heapPools) {
+      final var usage = pool.getPeakUsage();
+      if (usage != null) {
+        total += usage.getUsed();
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Write the report to the given directory.
+   */
+
+  synchronized void save(
+    final Path directory)
+    throws IOException
+  {
+    final var elapsed = Duration.ofNanos(System.nanoTime() - this.timeThen);
+
+    final var text = new StringBuilder(1024);
+    text.append("{\n");
+    text.append("  \"project\": ");
+    MinJSON.appendString(text, this.project);
+    text.append(",\n  \"version\": ");
+    MinJSON.appendString(text, this.version);
+    text.append(",\n  \"generator\": ");
+    MinJSON.appendString(text, this.generator);
+    text.append(",\n  \"wallMillis\": ");
+    text.append(elapsed.toMillis());
+    text.append(",\n  \"peakHeapBytes\": ");
+    text.append(this.peakHeapBytes());
+
+    this.artefacts.sort(Comparator.comparing(a -> a.name));
+    text.append(",\n  \"artefacts\": [");
+    var first = true;
+    for (final var artefact : this.artefacts) {
+      text.append(first ? "\n" : ",\n");
+      first = false;
+      text.append("    {\"name\": ");
+      MinJSON.appendString(text, artefact.name);
+      text.append(", \"status\": ");
+      MinJSON.appendString(text, status(artefact.status));
+      text.append(", \"wallNanos\": ");
+      text.append(artefact.time.toNanos());
+      text.append(", \"bytes\": ");
+      text.append(artefact.bytes);
+      text.append(", \"inputHash\": ");
+      MinJSON.appendString(text, artefact.inputHash);
+      text.append('}');
+    }
+    text.append(first ? "]" : "\n  ]");
+
+    text.append(",\n  \"resources\": [");
+    first = true;
+    for (final var resource : this.resources) {
+      text.append(first ? "\n" : ",\n");
+      first = false;
+      text.append("    {\"name\": ");
+      MinJSON.appendString(
+        text, resource.file().toString().replace('\\', '/'));
+      text.append(", \"status\": ");
+      MinJSON.appendString(
+        text, resource.result().name().toLowerCase(Locale.ROOT));
+      text.append(", \"wallNanos\": ");
+      text.append(resource.duration().toNanos());
+      text.append(", \"bytes\": ");
+      text.append(resource.bytes());
+      text.append('}');
+    }
+    text.append(first ? "]" : "\n  ]");
+    text.append("\n}\n");
+
+    final var file = directory.resolve(FILE_NAME);
+    final var temporary = MinOutputFiles.temporaryFor(file);
+    try {
+      Files.writeString(temporary, text, UTF_8);
+      MinOutputFiles.replaceIfChanged(temporary, file);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private static String status(
+    final Status status)
+  {
+    return status.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinAssetFingerprintConfiguration;
+import com.io7m.minisite.core.MinAssetFingerprinter;
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinSite;
+import com.io7m.minisite.core.MinSiteWriter;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+public final class MinAssetFingerprinterTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Path directory()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    Files.writeString(directory.resolve("minisite.css"), "p { }");
+    Files.writeString(directory.resolve("site.css"), "a { }");
+    Files.writeString(directory.resolve("icon.png"), "PNG");
+    return directory;
+  }
+
+  private static MinConfiguration configuration()
+  {
+    return MinConfiguration.builder()
+      .setProjectName("com.io7m.minisite.example")
+      .setProjectGroupName("com.io7m.minisite")
+      .setRelease("1.0.0")
+      .setCentralReposPath("com/io7m/minisite")
+      .build();
+  }
+
+  @Test
+  public void testFingerprint()
+    throws Exception
+  {
+    final var directory = this.directory();
+    final var configuration =
+      MinAssetFingerprintConfiguration.builder()
+        .setDirectory(directory)
+        .setStyles(List.of("minisite.css", "site.css", "missing.css"))
+        .setAssets(List.of("icon.png"))
+        .build();
+
+    final var manifest0 = MinAssetFingerprinter.fingerprint(configuration);
+    final var names0 = manifest0.names();
+    Assert.assertEquals(3, names0.size());
+    Assert.assertTrue(names0.get("minisite.css").matches(
+      "minisite\\.[0-9a-f]{16}\\.css"));
+    Assert.assertTrue(names0.get("icon.png").matches(
+      "icon\\.[0-9a-f]{16}\\.png"));
+    Assert.assertFalse(Files.exists(directory.resolve("minisite.css")));
+    Assert.assertEquals(
+      "a { }",
+      Files.readString(directory.resolve(names0.get("site.css"))));
+
+    final var minisite = directory.resolve(names0.get("minisite.css"));
+    final var time = FileTime.fromMillis(1000L);
+    Files.setLastModifiedTime(minisite, time);
+
+    this.directory();
+    Files.writeString(directory.resolve("site.css"), "b { }");
+    final var names1 =
+      MinAssetFingerprinter.fingerprint(configuration).names();
+    Assert.assertEquals(time, Files.getLastModifiedTime(minisite));
+    Assert.assertFalse(Files.exists(directory.resolve("minisite.css")));
+    Assert.assertNotEquals(names0.get("site.css"), names1.get("site.css"));
+    Assert.assertFalse(Files.exists(directory.resolve(names0.get("site.css"))));
+    Assert.assertTrue(Files.exists(directory.resolve(names1.get("site.css"))));
+
+    final var site =
+      MinSite.create(configuration().withAssetNames(names1));
+    final var index = directory.resolve("index.xhtml");
+    MinSiteWriter.writeIndex(site, index);
+
+    final var text = Files.readString(index);
+    Assert.assertTrue(text.contains(
+      "href=\"" + names0.get("minisite.css") + "\""));
+    Assert.assertEquals(names0.get("minisite.css"), names1.get("minisite.css"));
+    Assert.assertTrue(text.contains(
+      "href=\"" + names1.get("site.css") + "\""));
+    Assert.assertTrue(text.contains(
+      "src=\"" + names1.get("icon.png") + "\""));
+
+    final var manifestFile =
+      directory.resolve(MinAssetFingerprinter.MANIFEST_FILE);
+    MinAssetFingerprinter.writeManifest(manifest0, manifestFile);
+    Assert.assertTrue(Files.readString(manifestFile).contains(
+      "\"icon.png\": \"" + names0.get("icon.png") + "\""));
+  }
+
+  @Test
+  public void testBundle()
+    throws Exception
+  {
+    final var directory = this.directory();
+    final var names =
+      MinAssetFingerprinter.fingerprint(
+        MinAssetFingerprintConfiguration.builder()
+          .setDirectory(directory)
+          .setStyles(List.of("minisite.css", "site.css"))
+          .setBundleStyles(true)
+          .build()).names();
+
+    final var bundle = names.get("minisite.css");
+    Assert.assertEquals(bundle, names.get("site.css"));
+    Assert.assertEquals(
+      "p { }\na { }\n",
+      Files.readString(directory.resolve(bundle)));
+    Assert.assertFalse(Files.exists(directory.resolve("site.css")));
+
+    final var site =
+      MinSite.create(configuration().withAssetNames(names));
+    final var index = directory.resolve("index.xhtml");
+    MinSiteWriter.writeIndexStreaming(site, index);
+
+    final var text = Files.readString(index);
+    Assert.assertEquals(
+      text.indexOf("rel=\"stylesheet\""),
+      text.lastIndexOf("rel=\"stylesheet\""));
+    Assert.assertTrue(text.contains("href=\"" + bundle + "\""));
+  }
+}
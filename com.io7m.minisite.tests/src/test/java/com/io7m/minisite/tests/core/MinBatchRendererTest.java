@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinBatchRenderer;
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinProviderRegistry;
+import com.io7m.minisite.core.MinRenderJob;
+import com.io7m.minisite.core.MinRenderResult;
+import com.io7m.minisite.core.MinSectionProviderType;
+import com.io7m.minisite.core.MinSite;
+import io.takari.maven.testing.TestResources;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.io7m.minisite.tests.XHTMLValidation.validate;
+
+public final class MinBatchRendererTest
+{
+  @Rule
+  public final TestResources resources = new TestResources();
+
+  private static MinConfiguration configuration(
+    final File basedir)
+  {
+    return MinConfiguration.builder()
+      .setProjectName("com.io7m.minisite.example")
+      .setProjectGroupName("com.io7m.minisite")
+      .setRelease("1.0.0")
+      .setCentralReposPath("com/io7m/minisite")
+      .setOverview(new File(basedir, "overview.xhtml").toPath())
+      .setFeatures(new File(basedir, "features.xhtml").toPath())
+      .setDocumentation(new File(basedir, "documentation.xhtml").toPath())
+      .build();
+  }
+
+  @Test
+  public void testSharedFragmentsIdentical()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var configuration = configuration(basedir);
+
+    final var jobs = new ArrayList<MinRenderJob>();
+    for (int index = 0; index < 16; ++index) {
+      jobs.add(
+        MinRenderJob.builder()
+          .setConfiguration(configuration)
+          .setOutputDirectory(new File(basedir, "target/site-" + index).toPath())
+          .setStreaming(index % 2 == 0)
+          .build()
+      );
+    }
+
+    final var results =
+      MinBatchRenderer.create(MinProviderRegistry.discovered(), 4)
+        .renderAll(jobs);
+
+    Assert.assertEquals(jobs.size(), results.size());
+    for (int index = 0; index < jobs.size(); ++index) {
+      final var result = results.get(index);
+      Assert.assertEquals(jobs.get(index), result.job());
+      Assert.assertTrue(result.failure().toString(), result.succeeded());
+    }
+
+    final var first =
+      new File(basedir, "target/site-0/index.xhtml").toPath();
+    validate(first.toFile());
+
+    final var expected = Files.readAllBytes(first);
+    for (int index = 1; index < jobs.size(); ++index) {
+      Assert.assertArrayEquals(
+        expected,
+        Files.readAllBytes(
+          new File(basedir, "target/site-" + index + "/index.xhtml").toPath())
+      );
+    }
+  }
+
+  private static final class ThreadRecordingProvider
+    implements MinSectionProviderType
+  {
+    private final Set<Thread> threads;
+
+    ThreadRecordingProvider()
+    {
+      this.threads = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public String name()
+    {
+      return "threads";
+    }
+
+    @Override
+    public int order()
+    {
+      return 2000;
+    }
+
+    @Override
+    public DocumentFragment evaluate(
+      final Document document,
+      final MinSite site)
+    {
+      this.threads.add(Thread.currentThread());
+      return document.createDocumentFragment();
+    }
+  }
+
+  @Test
+  public void testSectionsOnWorkerThreads()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var configuration = configuration(basedir);
+    final var provider = new ThreadRecordingProvider();
+    final var registry =
+      MinProviderRegistry.builder()
+        .addSectionProvider(provider)
+        .addDiscoveredProviders()
+        .build();
+
+    final var jobs = new ArrayList<MinRenderJob>();
+    for (int index = 0; index < 16; ++index) {
+      jobs.add(
+        MinRenderJob.builder()
+          .setConfiguration(configuration)
+          .setOutputDirectory(new File(basedir, "target/site-" + index).toPath())
+          .build()
+      );
+    }
+
+    final var results =
+      MinBatchRenderer.create(registry, 4).renderAll(jobs);
+    for (final var result : results) {
+      Assert.assertTrue(result.failure().toString(), result.succeeded());
+    }
+
+    /*
+     * Sections are evaluated on the renderer's own worker threads, rather
+     * than on a new pool created for each site.
+     */
+
+    Assert.assertFalse(provider.threads.isEmpty());
+    Assert.assertTrue(
+      provider.threads.toString(),
+      provider.threads.size() <= 4);
+  }
+
+  private static final class ErrorProvider
+    implements MinSectionProviderType
+  {
+    ErrorProvider()
+    {
+
+    }
+
+    @Override
+    public String name()
+    {
+      return "error";
+    }
+
+    @Override
+    public int order()
+    {
+      return 2000;
+    }
+
+    @Override
+    public DocumentFragment evaluate(
+      final Document document,
+      final MinSite site)
+    {
+      throw new StackOverflowError("Deep fragment");
+    }
+  }
+
+  @Test
+  public void testErrorRaised()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var registry =
+      MinProviderRegistry.builder()
+        .addSectionProvider(new ErrorProvider())
+        .addDiscoveredProviders()
+        .build();
+
+    final var job =
+      MinRenderJob.builder()
+        .setConfiguration(configuration(basedir))
+        .setOutputDirectory(new File(basedir, "target/error").toPath())
+        .build();
+
+    try {
+      MinBatchRenderer.create(registry, 1).renderAll(List.of(job));
+      Assert.fail("Errors must be raised");
+    } catch (final StackOverflowError e) {
+      Assert.assertEquals("Deep fragment", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testFailureIsolated()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var configuration = configuration(basedir);
+
+    final var good =
+      MinRenderJob.builder()
+        .setConfiguration(configuration)
+        .setOutputDirectory(new File(basedir, "target/good").toPath())
+        .build();
+
+    final var bad =
+      MinRenderJob.builder()
+        .setConfiguration(
+          configuration.withFeatures(
+            new File(basedir, "nonexistent.xhtml").toPath()))
+        .setOutputDirectory(new File(basedir, "target/bad").toPath())
+        .build();
+
+    final var results =
+      MinBatchRenderer.create().renderAll(List.of(good, bad));
+
+    final MinRenderResult goodResult = results.get(0);
+    final MinRenderResult badResult = results.get(1);
+    Assert.assertTrue(goodResult.succeeded());
+    Assert.assertFalse(badResult.succeeded());
+
+    final var failure = badResult.failure().orElseThrow();
+    Assert.assertTrue(failure instanceof UncheckedIOException);
+    Assert.assertTrue(failure.getCause() instanceof NoSuchFileException);
+  }
+}
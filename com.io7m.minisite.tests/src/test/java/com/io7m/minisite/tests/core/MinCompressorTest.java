@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinCompressionConfiguration;
+import com.io7m.minisite.core.MinCompressor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+public final class MinCompressorTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static byte[] gunzip(
+    final Path file)
+    throws Exception
+  {
+    try (var stream = new GZIPInputStream(Files.newInputStream(file))) {
+      return stream.readAllBytes();
+    }
+  }
+
+  @Test
+  public void testCompress()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var sub = Files.createDirectories(directory.resolve("sub"));
+
+    final var large = directory.resolve("index.xhtml");
+    Files.writeString(large, "<p>Compressible text.</p>\n".repeat(1000));
+    final var small = directory.resolve("small.css");
+    Files.writeString(small, "p {}");
+    final var binary = sub.resolve("image.png");
+    Files.writeString(binary, "x".repeat(1000));
+
+    final var noise = new byte[4096];
+    new Random(0L).nextBytes(noise);
+    final var random = sub.resolve("random.txt");
+    Files.write(random, noise);
+
+    final var configuration =
+      MinCompressionConfiguration.of(directory);
+
+    final var statistics0 = MinCompressor.compress(configuration);
+    Assert.assertEquals(1L, statistics0.filesCompressed());
+    Assert.assertEquals(0L, statistics0.filesUpToDate());
+    Assert.assertEquals(2L, statistics0.filesSkipped());
+    Assert.assertTrue(statistics0.bytesSaved() > 0L);
+
+    final var sidecar = directory.resolve("index.xhtml.gz");
+    Assert.assertArrayEquals(Files.readAllBytes(large), gunzip(sidecar));
+    Assert.assertFalse(Files.exists(directory.resolve("small.css.gz")));
+    Assert.assertFalse(Files.exists(sub.resolve("image.png.gz")));
+    Assert.assertFalse(Files.exists(sub.resolve("random.txt.gz")));
+
+    final var statistics1 = MinCompressor.compress(configuration);
+    Assert.assertEquals(0L, statistics1.filesCompressed());
+    Assert.assertEquals(1L, statistics1.filesUpToDate());
+
+    Files.writeString(large, "<p>Changed text.</p>\n".repeat(1000));
+    Files.setLastModifiedTime(large, FileTime.fromMillis(1000L));
+
+    final var statistics2 = MinCompressor.compress(configuration);
+    Assert.assertEquals(1L, statistics2.filesCompressed());
+    Assert.assertArrayEquals(Files.readAllBytes(large), gunzip(sidecar));
+  }
+
+  @Test
+  public void testStaleSidecarDeleted()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var file = directory.resolve("index.xhtml");
+    Files.writeString(file, "<p>Compressible text.</p>\n".repeat(1000));
+
+    final var configuration =
+      MinCompressionConfiguration.of(directory);
+
+    MinCompressor.compress(configuration);
+    Assert.assertTrue(Files.exists(directory.resolve("index.xhtml.gz")));
+
+    Files.writeString(file, "<p/>");
+    MinCompressor.compress(configuration);
+    Assert.assertFalse(Files.exists(directory.resolve("index.xhtml.gz")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevel()
+  {
+    MinCompressionConfiguration.builder()
+      .setDirectory(this.folder.getRoot().toPath())
+      .setLevel(10)
+      .build();
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinFragmentCache;
+import com.io7m.minisite.core.MinFragmentCacheConfiguration;
+import com.io7m.minisite.core.MinFragmentValidation;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLOutputFactory;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public final class MinFragmentCacheTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static Document document()
+    throws Exception
+  {
+    return DocumentBuilderFactory.newInstance()
+      .newDocumentBuilder()
+      .newDocument();
+  }
+
+  private Path fragment(
+    final String name,
+    final String text)
+    throws Exception
+  {
+    final var file = this.folder.getRoot().toPath().resolve(name);
+    Files.writeString(
+      file,
+      "<div xmlns=\"http://www.w3.org/1999/xhtml\">" + text + "</div>");
+    return file;
+  }
+
+  private static String copy(
+    final MinFragmentCache cache,
+    final Path file)
+    throws Exception
+  {
+    final var output = new StringWriter();
+    final var writer =
+      XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+    cache.copyFragment(writer, file);
+    writer.flush();
+    return output.toString();
+  }
+
+  @Test
+  public void testHitsMissesEvictions()
+    throws Exception
+  {
+    final var cache =
+      MinFragmentCache.create(
+        MinFragmentCacheConfiguration.builder()
+          .setMaximumEntries(2)
+          .build());
+
+    final var document = document();
+    final var f0 = this.fragment("f0.xhtml", "0");
+    final var f1 = this.fragment("f1.xhtml", "1");
+    final var f2 = this.fragment("f2.xhtml", "2");
+
+    final var e0 = cache.importFragment(document, f0);
+    final var e1 = cache.importFragment(document, f0);
+    Assert.assertEquals("0", e0.getTextContent());
+    Assert.assertNotSame(e0, e1);
+    Assert.assertSame(document, e0.getOwnerDocument());
+
+    cache.importFragment(document, f1);
+    cache.importFragment(document, f2);
+
+    final var statistics = cache.statistics();
+    Assert.assertEquals(1L, statistics.hits());
+    Assert.assertEquals(3L, statistics.misses());
+    Assert.assertEquals(1L, statistics.evictions());
+    Assert.assertEquals(2L, statistics.entries());
+  }
+
+  @Test
+  public void testInvalidatedBySizeAndTime()
+    throws Exception
+  {
+    final var cache = MinFragmentCache.create();
+    final var document = document();
+    final var file = this.fragment("f.xhtml", "before");
+
+    cache.importFragment(document, file);
+    this.fragment("f.xhtml", "after, longer");
+
+    Assert.assertEquals(
+      "after, longer",
+      cache.importFragment(document, file).getTextContent());
+    Assert.assertEquals(2L, cache.statistics().misses());
+  }
+
+  @Test
+  public void testInvalidatedByContentHash()
+    throws Exception
+  {
+    final var cache =
+      MinFragmentCache.create(
+        MinFragmentCacheConfiguration.builder()
+          .setValidation(MinFragmentValidation.CONTENT_HASH)
+          .build());
+
+    final var document = document();
+    final var file = this.fragment("f.xhtml", "aaaa");
+    final var time = FileTime.fromMillis(0L);
+    Files.setLastModifiedTime(file, time);
+
+    cache.importFragment(document, file);
+    this.fragment("f.xhtml", "bbbb");
+    Files.setLastModifiedTime(file, time);
+
+    Assert.assertEquals(
+      "bbbb",
+      cache.importFragment(document, file).getTextContent());
+    Assert.assertEquals(2L, cache.statistics().misses());
+  }
+
+  @Test
+  public void testCopyStreamedAndParsedIdentical()
+    throws Exception
+  {
+    final var cache = MinFragmentCache.create();
+    final var file = this.fragment("f.xhtml", "<p>x</p>y");
+
+    final var streamed0 = copy(cache, file);
+    final var streamed1 = copy(cache, file);
+    cache.importFragment(document(), file);
+    final var parsed = copy(cache, file);
+
+    Assert.assertEquals(streamed0, streamed1);
+    Assert.assertEquals(streamed0, parsed);
+    Assert.assertEquals(3L, cache.statistics().hits());
+    Assert.assertEquals(1L, cache.statistics().misses());
+  }
+}
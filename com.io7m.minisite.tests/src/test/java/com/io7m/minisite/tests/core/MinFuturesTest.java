@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinFutures;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public final class MinFuturesTest
+{
+  private static <T> CompletableFuture<T> failed(
+    final Throwable e)
+  {
+    return CompletableFuture.failedFuture(e);
+  }
+
+  @Test
+  public void testResultsInOrder()
+    throws Exception
+  {
+    final var results =
+      MinFutures.awaitAllIO(List.of(
+        CompletableFuture.completedFuture("a"),
+        CompletableFuture.completedFuture("b")));
+
+    Assert.assertEquals(List.of("a", "b"), results);
+  }
+
+  @Test
+  public void testFirstFailureRaised()
+    throws Exception
+  {
+    final var first = new IOException("first");
+    final var second = new IllegalStateException("second");
+
+    try {
+      MinFutures.awaitAllIO(List.of(
+        CompletableFuture.completedFuture("a"),
+        failed(new UncheckedIOException(first)),
+        failed(second)));
+      Assert.fail("Failures must be raised");
+    } catch (final IOException e) {
+      Assert.assertSame(first, e);
+      Assert.assertEquals(1, e.getSuppressed().length);
+      Assert.assertSame(second, e.getSuppressed()[0].getCause());
+    }
+  }
+
+  @Test
+  public void testErrorRaised()
+  {
+    final var error = new AssertionError("error");
+
+    try {
+      MinFutures.awaitAllIO(List.of(
+        failed(new IOException("first")),
+        failed(error)));
+      Assert.fail("Errors must be raised");
+    } catch (final AssertionError e) {
+      Assert.assertSame(error, e);
+    } catch (final IOException e) {
+      Assert.fail("Errors must not be wrapped");
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinLicenseCache;
+import com.io7m.minisite.core.MinLicenseCacheConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class MinLicenseCacheTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private HttpServer server;
+  private AtomicInteger requests;
+  private AtomicInteger downloads;
+  private volatile String text;
+  private volatile int status;
+  private volatile long delay;
+  private URL url;
+
+  @Before
+  public void setup()
+    throws Exception
+  {
+    this.requests = new AtomicInteger();
+    this.downloads = new AtomicInteger();
+    this.text = "License v1";
+    this.status = 200;
+    this.delay = 0L;
+
+    this.server = HttpServer.create(
+      new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/license.txt", this::serve);
+    this.server.start();
+
+    final var address = this.server.getAddress();
+    this.url = new URL(
+      "http://%s:%d/license.txt".formatted(
+        address.getAddress().getHostAddress(),
+        Integer.valueOf(address.getPort())));
+  }
+
+  @After
+  public void tearDown()
+  {
+    this.server.stop(0);
+  }
+
+  private void serve(
+    final HttpExchange exchange)
+    throws IOException
+  {
+    try (exchange) {
+      this.requests.incrementAndGet();
+
+      if (this.delay > 0L) {
+        try {
+          Thread.sleep(this.delay);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      if (this.status != 200) {
+        exchange.sendResponseHeaders(this.status, -1L);
+        return;
+      }
+
+      final var current = this.text;
+      final var etag = "\"" + Integer.toHexString(current.hashCode()) + "\"";
+      exchange.getResponseHeaders().set("ETag", etag);
+
+      final var condition =
+        exchange.getRequestHeaders().getFirst("If-None-Match");
+      if (etag.equals(condition)) {
+        exchange.sendResponseHeaders(304, -1L);
+        return;
+      }
+
+      this.downloads.incrementAndGet();
+      final var bytes = current.getBytes(UTF_8);
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (var output = exchange.getResponseBody()) {
+        output.write(bytes);
+      }
+    }
+  }
+
+  private MinLicenseCache cache(
+    final boolean offline)
+  {
+    return MinLicenseCache.create(
+      MinLicenseCacheConfiguration.builder()
+        .setDirectory(this.folder.getRoot().toPath())
+        .setOffline(offline)
+        .setConnectTimeout(Duration.ofSeconds(5L))
+        .setReadTimeout(Duration.ofMillis(500L))
+        .build());
+  }
+
+  @Test
+  public void testRevalidated()
+    throws Exception
+  {
+    final var first = this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+    final var second = this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+
+    Assert.assertEquals(first, second);
+    Assert.assertEquals("License v1", Files.readString(second));
+    Assert.assertEquals(2, this.requests.get());
+    Assert.assertEquals(1, this.downloads.get());
+
+    this.text = "License v2";
+    final var third = this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+    Assert.assertEquals(first, third);
+    Assert.assertEquals("License v2", Files.readString(third));
+    Assert.assertEquals(2, this.downloads.get());
+
+    try (var files = Files.list(this.folder.getRoot().toPath())) {
+      Assert.assertEquals(
+        0L,
+        files.filter(file -> file.toString().endsWith(".tmp")).count());
+    }
+  }
+
+  @Test
+  public void testOffline()
+    throws Exception
+  {
+    try {
+      this.cache(true).fetch(this.url, Proxy.NO_PROXY);
+      Assert.fail("Offline fetch without a cached copy must fail");
+    } catch (final IOException e) {
+      Assert.assertEquals(0, this.requests.get());
+    }
+
+    this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+    final Path offline = this.cache(true).fetch(this.url, Proxy.NO_PROXY);
+    Assert.assertEquals("License v1", Files.readString(offline));
+    Assert.assertEquals(1, this.requests.get());
+  }
+
+  @Test
+  public void testServerFailureUsesCachedCopy()
+    throws Exception
+  {
+    this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+
+    this.status = 500;
+    final var cached = this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+    Assert.assertEquals("License v1", Files.readString(cached));
+  }
+
+  @Test(expected = IOException.class)
+  public void testServerFailureUncached()
+    throws Exception
+  {
+    this.status = 500;
+    this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadTimeout()
+    throws Exception
+  {
+    this.delay = 3_000L;
+    this.cache(false).fetch(this.url, Proxy.NO_PROXY);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinOutputFiles;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class MinOutputFilesTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReplaceIfChanged()
+    throws Exception
+  {
+    final var target = this.folder.getRoot().toPath().resolve("file.txt");
+    final var time = FileTime.fromMillis(1000L);
+
+    Assert.assertTrue(
+      MinOutputFiles.replaceIfChanged("a".getBytes(UTF_8), target));
+    Files.setLastModifiedTime(target, time);
+
+    Assert.assertFalse(
+      MinOutputFiles.replaceIfChanged("a".getBytes(UTF_8), target));
+    Assert.assertEquals(time, Files.getLastModifiedTime(target));
+
+    final var same = MinOutputFiles.temporaryFor(target);
+    Files.writeString(same, "a", UTF_8);
+    Assert.assertFalse(MinOutputFiles.replaceIfChanged(same, target));
+    Assert.assertFalse(Files.exists(same));
+    Assert.assertEquals(time, Files.getLastModifiedTime(target));
+
+    final var changed = MinOutputFiles.temporaryFor(target);
+    Files.writeString(changed, "b", UTF_8);
+    Assert.assertTrue(MinOutputFiles.replaceIfChanged(changed, target));
+    Assert.assertFalse(Files.exists(changed));
+    Assert.assertEquals("b", Files.readString(target, UTF_8));
+
+    try (var files = Files.list(this.folder.getRoot().toPath())) {
+      Assert.assertEquals(1L, files.count());
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinProviderRegistry;
+import com.io7m.minisite.core.MinSectionLink;
+import com.io7m.minisite.core.MinSectionProviderType;
+import com.io7m.minisite.core.MinSite;
+import com.io7m.minisite.core.MinSiteWriter;
+import com.io7m.minisite.core.MinWriterConfiguration;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static com.io7m.minisite.tests.XHTMLValidation.validate;
+
+public final class MinSiteWriterTest
+{
+  private static final MinWriterConfiguration MINIFY =
+    MinWriterConfiguration.builder()
+      .setMinify(true)
+      .build();
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static Document parse(
+    final Path file)
+    throws Exception
+  {
+    final var factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    return factory.newDocumentBuilder().parse(file.toFile());
+  }
+
+  private MinSite site()
+    throws Exception
+  {
+    return this.site(MinProviderRegistry.discovered(), 1);
+  }
+
+  private MinSite site(
+    final MinProviderRegistry registry,
+    final int parallelism)
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var overview = directory.resolve("overview.xhtml");
+    Files.writeString(overview, """
+      <div xmlns="http://www.w3.org/1999/xhtml">
+        <!-- A comment that should be removed. -->
+        <p>
+          Some    text with <b>bold</b> <i>italic</i>
+          words.
+        </p>
+        <pre>  keep
+      this   layout  </pre>
+      </div>
+      """);
+
+    return MinSite.create(
+      MinConfiguration.builder()
+        .setProjectName("com.io7m.minisite.example")
+        .setProjectGroupName("com.io7m.minisite")
+        .setRelease("1.0.0")
+        .setCentralReposPath("com/io7m/minisite")
+        .setOverview(overview)
+        .setSectionParallelism(parallelism)
+        .build(),
+      registry);
+  }
+
+  /**
+   * Fragments that refer to an external DTD are rejected by both writers,
+   * even when the DTD is a readable local file.
+   */
+
+  @Test
+  public void testExternalDTDRejected()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var dtd = directory.resolve("fragment.dtd");
+    Files.writeString(dtd, "<!ELEMENT div ANY>\n");
+
+    final var overview = directory.resolve("overview.xhtml");
+    Files.writeString(
+      overview,
+      "<!DOCTYPE div SYSTEM \"" + dtd.toUri() + "\">\n"
+        + "<div xmlns=\"http://www.w3.org/1999/xhtml\"><p>Text.</p></div>\n");
+
+    final var site =
+      MinSite.create(
+        MinConfiguration.builder()
+          .setProjectName("com.io7m.minisite.example")
+          .setProjectGroupName("com.io7m.minisite")
+          .setRelease("1.0.0")
+          .setCentralReposPath("com/io7m/minisite")
+          .setOverview(overview)
+          .build());
+
+    try {
+      MinSiteWriter.writeIndex(site, directory.resolve("dom.xhtml"));
+      Assert.fail("The DOM writer must reject external DTDs");
+    } catch (final IOException | UncheckedIOException e) {
+      // Expected.
+    }
+
+    try {
+      MinSiteWriter.writeIndexStreaming(
+        site, directory.resolve("streamed.xhtml"));
+      Assert.fail("The streaming writer must reject external DTDs");
+    } catch (final IOException | UncheckedIOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testMinifyIndex()
+    throws Exception
+  {
+    final var site = this.site();
+    final var directory = this.folder.getRoot().toPath();
+    final var plain = directory.resolve("plain.xhtml");
+    final var minified = directory.resolve("minified.xhtml");
+    final var streamed = directory.resolve("streamed.xhtml");
+
+    MinSiteWriter.writeIndex(site, plain);
+    final var statistics = MinSiteWriter.writeIndex(site, MINIFY, minified);
+    final var streamedStatistics =
+      MinSiteWriter.writeIndexStreaming(site, MINIFY, streamed);
+
+    validate(minified.toFile());
+    validate(streamed.toFile());
+
+    final var text = Files.readString(minified);
+    Assert.assertFalse(text.contains("<!--"));
+    Assert.assertTrue(text.contains("<pre>  keep\nthis   layout  </pre>"));
+    Assert.assertTrue(text.contains(
+      "<p>Some text with <b>bold</b> <i>italic</i> words.</p>"));
+
+    Assert.assertEquals(Files.size(minified), statistics.bytesWritten());
+    Assert.assertTrue(statistics.bytesSaved() > 0L);
+    Assert.assertTrue(Files.size(minified) < Files.size(plain));
+    Assert.assertEquals(
+      statistics.bytesSaved(),
+      streamedStatistics.bytesSaved());
+    Assert.assertTrue(parse(minified).isEqualNode(parse(streamed)));
+  }
+
+  @Test
+  public void testMinifyStyle()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var plain = directory.resolve("plain.css");
+    final var minified = directory.resolve("minified.css");
+
+    MinSiteWriter.writeStyle(plain);
+    final var statistics = MinSiteWriter.writeStyle(MINIFY, minified);
+
+    final var text = Files.readString(minified);
+    Assert.assertFalse(text.contains("\n"));
+    Assert.assertTrue(text.contains(".changelog td:nth-child(1){width:10em}"));
+    Assert.assertEquals(
+      Files.size(plain) - Files.size(minified),
+      statistics.bytesSaved());
+  }
+
+  @Test
+  public void testEvents()
+    throws Exception
+  {
+    final var site = this.site();
+    final var directory = this.folder.getRoot().toPath();
+    final var index = directory.resolve("index.xhtml");
+    final var recordingFile = directory.resolve("recording.jfr");
+
+    try (var recording = new Recording()) {
+      recording.enable("com.io7m.minisite.Section");
+      recording.enable("com.io7m.minisite.Parse");
+      recording.enable("com.io7m.minisite.Write");
+      recording.start();
+      MinSiteWriter.writeIndex(site, index);
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    final var names = new HashSet<String>();
+    for (final var event : RecordingFile.readAllEvents(recordingFile)) {
+      final var name = event.getEventType().getName();
+      names.add(name);
+      if ("com.io7m.minisite.Write".equals(name)) {
+        Assert.assertEquals(index.toString(), event.getString("file"));
+        Assert.assertEquals(Files.size(index), event.getLong("bytes"));
+        Assert.assertEquals(
+          "com.io7m.minisite.example", event.getString("project"));
+      }
+      if ("com.io7m.minisite.Parse".equals(name)) {
+        Assert.assertTrue(event.getString("file").endsWith("overview.xhtml"));
+        Assert.assertTrue(event.getLong("bytes") > 0L);
+      }
+    }
+
+    Assert.assertTrue(names.contains("com.io7m.minisite.Section"));
+    Assert.assertTrue(names.contains("com.io7m.minisite.Parse"));
+    Assert.assertTrue(names.contains("com.io7m.minisite.Write"));
+  }
+
+  private static final class ScreenshotsProvider
+    implements MinSectionProviderType
+  {
+    ScreenshotsProvider()
+    {
+
+    }
+
+    @Override
+    public String name()
+    {
+      return "screenshots";
+    }
+
+    @Override
+    public int order()
+    {
+      return 450;
+    }
+
+    @Override
+    public Optional<MinSectionLink> contentsLink()
+    {
+      return Optional.of(MinSectionLink.of("#screenshots", "Screenshots"));
+    }
+
+    @Override
+    public DocumentFragment evaluate(
+      final Document document,
+      final MinSite site)
+    {
+      final var xhtml = "http://www.w3.org/1999/xhtml";
+      final var div = document.createElementNS(xhtml, "div");
+      div.setAttribute("id", "screenshots");
+      final var p = document.createElementNS(xhtml, "p");
+      p.appendChild(document.createTextNode(site.configuration().release()));
+      div.appendChild(p);
+
+      final var fragment = document.createDocumentFragment();
+      fragment.appendChild(div);
+      return fragment;
+    }
+  }
+
+  @Test
+  public void testSectionProvider()
+    throws Exception
+  {
+    final var registry =
+      MinProviderRegistry.builder()
+        .addSectionProvider(new ScreenshotsProvider())
+        .addDiscoveredProviders()
+        .build();
+
+    final var directory = this.folder.getRoot().toPath();
+    final var serial = directory.resolve("serial.xhtml");
+    final var parallel = directory.resolve("parallel.xhtml");
+    final var streamed = directory.resolve("streamed.xhtml");
+
+    MinSiteWriter.writeIndex(this.site(registry, 1), serial);
+    MinSiteWriter.writeIndex(this.site(registry, 4), parallel);
+    MinSiteWriter.writeIndexStreaming(
+      this.site(registry, 4),
+      MinWriterConfiguration.builder().build(),
+      streamed);
+
+    validate(parallel.toFile());
+    Assert.assertTrue(parse(serial).isEqualNode(parse(parallel)));
+    Assert.assertTrue(parse(serial).isEqualNode(parse(streamed)));
+
+    final var text = Files.readString(parallel);
+    final var screenshots = text.indexOf("id=\"screenshots\"");
+    Assert.assertTrue(screenshots > text.indexOf("id=\"overview\""));
+    Assert.assertTrue(screenshots < text.indexOf("id=\"releases\""));
+    Assert.assertTrue(text.contains("<p>1.0.0</p>"));
+    Assert.assertTrue(text.contains("href=\"#screenshots\""));
+    Assert.assertTrue(
+      text.indexOf("href=\"#screenshots\"")
+        < text.indexOf("href=\"#releases\""));
+  }
+}
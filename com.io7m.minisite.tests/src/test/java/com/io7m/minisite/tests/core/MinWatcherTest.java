@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinWatchConfiguration;
+import com.io7m.minisite.core.MinWatcher;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+public final class MinWatcherTest
+{
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test(timeout = 60_000L)
+  public void testBurst()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    final var resources =
+      Files.createDirectories(directory.resolve("resources"));
+    final var overview = directory.resolve("overview.xml");
+    final var ignored = directory.resolve("ignored.xml");
+    Files.writeString(overview, "<p>Overview.</p>");
+
+    final var configuration =
+      MinWatchConfiguration.builder()
+        .setPaths(List.of(overview, resources))
+        .setQuietPeriod(Duration.ofMillis(500L))
+        .build();
+
+    try (var watcher = MinWatcher.create(configuration)) {
+      Files.writeString(ignored, "<p>Ignored.</p>");
+      Files.writeString(overview, "<p>Changed.</p>");
+      final var sub = Files.createDirectories(resources.resolve("sub"));
+
+      final var changed0 = watcher.await();
+      Assert.assertTrue(changed0.contains(overview));
+      Assert.assertTrue(changed0.contains(sub));
+      Assert.assertFalse(changed0.contains(ignored));
+
+      /*
+       * The directory created during the previous burst is now watched.
+       */
+
+      final var image = sub.resolve("image.png");
+      Files.writeString(image, "x");
+
+      final var changed1 = watcher.await();
+      Assert.assertTrue(changed1.contains(image));
+      Assert.assertFalse(changed1.contains(overview));
+    }
+  }
+}
@@ -0,0 +1,641 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.core;
+
+import com.io7m.minisite.core.MinChangesConfiguration;
+import com.io7m.minisite.core.MinConfiguration;
+import com.io7m.minisite.core.MinResourceCopier;
+import com.io7m.minisite.core.MinResourceCopyConfiguration;
+import com.io7m.minisite.core.MinSite;
+import com.io7m.minisite.core.MinSiteWriter;
+import com.io7m.minisite.core.MinWriterConfiguration;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <p>A load harness that generates synthetic projects at scale, renders
+ * them, and records the wall time, peak heap, peak resident set size, and
+ * garbage collections of each scenario to {@code soak.csv} in the given
+ * directory.</p>
+ *
+ * <p>Usage: {@code Soak directory [budget.properties]}. A budget file
+ * contains limits such as {@code changelog-100000.wallMillis=60000} for
+ * any of {@code wallMillis}, {@code peakHeapBytes}, {@code peakRssBytes},
+ * and {@code gcCount}. The run fails after writing the CSV if any limit is
+ * exceeded. The system property {@code minisite.soak.scenarios} may name a
+ * comma-separated subset of scenarios to run.</p>
+ *
+ * <p>The {@code soak} profile of this module runs a bounded subset of the
+ * scenarios against {@code soak-budget.properties} during
+ * {@code integration-test}: {@code mvn -P soak verify}. The full set of
+ * scenarios needs over a gigabyte of disk and is run by hand.</p>
+ */
+
+public final class Soak
+{
+  private static final int[] FRAGMENT_SIZES = {
+    1024,
+    1024 * 1024,
+    50 * 1024 * 1024,
+  };
+
+  private static final int[] CHANGELOG_RELEASES = {
+    1000,
+    10000,
+    100000,
+  };
+
+  private static final int MAVEN_MODULES = 500;
+  private static final int RESOURCE_FILES = 100000;
+  private static final int RESOURCE_FILES_PER_DIRECTORY = 100;
+
+  private static final URI FEED =
+    URI.create("https://www.example.com/releases.atom");
+
+  private Soak()
+  {
+
+  }
+
+  private interface StepType
+  {
+    void execute(Path directory)
+      throws Exception;
+  }
+
+  private static final class Scenario
+  {
+    private final String name;
+    private final StepType prepare;
+    private final StepType run;
+
+    private Scenario(
+      final String inName,
+      final StepType inPrepare,
+      final StepType inRun)
+    {
+      this.name = inName;
+      this.prepare = inPrepare;
+      this.run = inRun;
+    }
+  }
+
+  private static final class Measurement
+  {
+    private long wallMillis;
+    private long peakHeapBytes;
+    private long peakRssBytes;
+    private long gcCount;
+    private long gcMillis;
+
+    private Measurement()
+    {
+
+    }
+
+    private long get(
+      final String metric)
+    {
+      return switch (metric) {
+        case "wallMillis" -> this.wallMillis;
+        case "peakHeapBytes" -> this.peakHeapBytes;
+        case "peakRssBytes" -> this.peakRssBytes;
+        case "gcCount" -> this.gcCount;
+        default -> throw new IllegalArgumentException(
+          "Unrecognized metric: " + metric);
+      };
+    }
+  }
+
+  public static void main(
+    final String[] args)
+    throws Exception
+  {
+    if (args.length < 1) {
+      throw new IllegalArgumentException(
+        "usage: directory [budget.properties]");
+    }
+
+    final var directory = Paths.get(args[0]).toAbsolutePath();
+    Files.createDirectories(directory);
+
+    final var budgets = new Properties();
+    if (args.length > 1) {
+      try (var reader = Files.newBufferedReader(Paths.get(args[1]), UTF_8)) {
+        budgets.load(reader);
+      }
+    }
+
+    final Set<String> selected =
+      Arrays.stream(System.getProperty("minisite.soak.scenarios", "").split(","))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .collect(Collectors.toCollection(TreeSet::new));
+
+    final var failures = new ArrayList<String>();
+    final var csv = directory.resolve("soak.csv");
+    try (var output = Files.newBufferedWriter(csv, UTF_8)) {
+      output.write(
+        "scenario,wall_millis,peak_heap_bytes,peak_rss_bytes,gc_count,gc_millis,within_budget\n");
+
+      for (final var scenario : scenarios(directory)) {
+        if (!selected.isEmpty() && !selected.contains(scenario.name)) {
+          continue;
+        }
+
+        final var scenarioDirectory = directory.resolve(scenario.name);
+        Files.createDirectories(scenarioDirectory);
+        System.out.println(scenario.name + ": preparing");
+        scenario.prepare.execute(scenarioDirectory);
+
+        System.out.println(scenario.name + ": running");
+        final var measurement = measure(scenario, scenarioDirectory);
+        final var exceeded = exceeded(budgets, scenario.name, measurement);
+        failures.addAll(exceeded);
+
+        output.write(
+          String.join(
+            ",",
+            scenario.name,
+            Long.toString(measurement.wallMillis),
+            Long.toString(measurement.peakHeapBytes),
+            Long.toString(measurement.peakRssBytes),
+            Long.toString(measurement.gcCount),
+            Long.toString(measurement.gcMillis),
+            Boolean.toString(exceeded.isEmpty())));
+        output.write('\n');
+        output.flush();
+
+        System.out.printf(
+          "%s: %d ms, %d heap bytes, %d rss bytes, %d collections%n",
+          scenario.name,
+          Long.valueOf(measurement.wallMillis),
+          Long.valueOf(measurement.peakHeapBytes),
+          Long.valueOf(measurement.peakRssBytes),
+          Long.valueOf(measurement.gcCount));
+      }
+    }
+
+    if (!failures.isEmpty()) {
+      throw new IllegalStateException(
+        "Budgets exceeded:\n  " + String.join("\n  ", failures));
+    }
+  }
+
+  private static List<Scenario> scenarios(
+    final Path directory)
+  {
+    final var scenarios = new ArrayList<Scenario>();
+
+    for (final var size : FRAGMENT_SIZES) {
+      final var label = sizeLabel(size);
+      scenarios.add(new Scenario(
+        "fragment-" + label + "-dom",
+        scenarioDirectory -> writeFragment(scenarioDirectory, size),
+        scenarioDirectory -> {
+          MinSiteWriter.writeIndex(
+            fragmentSite(scenarioDirectory),
+            MinWriterConfiguration.builder().build(),
+            scenarioDirectory.resolve("index.xhtml"));
+        }
+      ));
+      scenarios.add(new Scenario(
+        "fragment-" + label + "-streaming",
+        scenarioDirectory -> writeFragment(scenarioDirectory, size),
+        scenarioDirectory -> {
+          MinSiteWriter.writeIndexStreaming(
+            fragmentSite(scenarioDirectory),
+            MinWriterConfiguration.builder().build(),
+            scenarioDirectory.resolve("index.xhtml"));
+        }
+      ));
+    }
+
+    for (final var releases : CHANGELOG_RELEASES) {
+      scenarios.add(new Scenario(
+        "changelog-" + releases,
+        scenarioDirectory -> writeChangelog(scenarioDirectory, releases),
+        Soak::renderChangelogSite
+      ));
+    }
+
+    scenarios.add(new Scenario(
+      "maven-" + MAVEN_MODULES,
+      scenarioDirectory -> {
+
+      },
+      scenarioDirectory -> {
+        final var modules = new ArrayList<String>(MAVEN_MODULES);
+        for (int index = 0; index < MAVEN_MODULES; ++index) {
+          modules.add("com.io7m.soak.module" + index);
+        }
+        final var site =
+          MinSite.create(
+            baseConfiguration()
+              .setProjectModules(modules)
+              .build());
+        MinSiteWriter.writeIndex(
+          site,
+          MinWriterConfiguration.builder().build(),
+          scenarioDirectory.resolve("index.xhtml"));
+      }
+    ));
+
+    /*
+     * The resource tree is shared by the resource scenarios, as it takes
+     * far longer to generate than to copy.
+     */
+
+    final var resources = directory.resolve("resources-source");
+    scenarios.add(new Scenario(
+      "resources-" + RESOURCE_FILES,
+      scenarioDirectory -> {
+        writeResources(resources);
+        deleteTree(scenarioDirectory.resolve("output"));
+      },
+      scenarioDirectory -> {
+        MinResourceCopier.copy(
+          MinResourceCopyConfiguration.of(
+            resources, scenarioDirectory.resolve("output")));
+      }
+    ));
+    scenarios.add(new Scenario(
+      "resources-" + RESOURCE_FILES + "-unchanged",
+      scenarioDirectory -> {
+        writeResources(resources);
+        MinResourceCopier.copy(
+          MinResourceCopyConfiguration.of(
+            resources, scenarioDirectory.resolve("output")));
+      },
+      scenarioDirectory -> {
+        MinResourceCopier.copy(
+          MinResourceCopyConfiguration.of(
+            resources, scenarioDirectory.resolve("output")));
+      }
+    ));
+    return scenarios;
+  }
+
+  /**
+   * Render a site with a changelog in the same way as the site mojo: the
+   * page, the changelog archive pages, and the paged Atom feed.
+   */
+
+  private static void renderChangelogSite(
+    final Path directory)
+    throws IOException
+  {
+    final var site =
+      MinSite.create(
+        baseConfiguration()
+          .setChangelog(
+            MinChangesConfiguration.builder()
+              .setFile(directory.resolve("changes.xml"))
+              .setFeedEmail("nobody@example.com")
+              .setEmbeddedReleases(20)
+              .setFeedEntries(100)
+              .build())
+          .build());
+
+    final var output = directory.resolve("output");
+    Files.createDirectories(output);
+
+    final var writerConfig = MinWriterConfiguration.builder().build();
+    MinSiteWriter.writeIndex(site, writerConfig, output.resolve("index.xhtml"));
+    MinSiteWriter.writeChangelogArchive(site, writerConfig, output);
+    MinSiteWriter.writeAtom(
+      site,
+      FEED,
+      ZonedDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+      output.resolve("releases.atom"));
+    MinSiteWriter.writeAtomArchive(site, FEED, output);
+  }
+
+  private static MinConfiguration.Builder baseConfiguration()
+  {
+    return MinConfiguration.builder()
+      .setProjectName("com.io7m.soak")
+      .setProjectGroupName("com.io7m.soak")
+      .setRelease("1.0.0")
+      .setCentralReposPath("com/io7m/soak");
+  }
+
+  private static MinSite fragmentSite(
+    final Path directory)
+  {
+    final var fragment = directory.resolve("documentation.xhtml");
+    return MinSite.create(
+      baseConfiguration()
+        .setOverview(fragment)
+        .setFeatures(fragment)
+        .setDocumentation(fragment)
+        .build());
+  }
+
+  private static Measurement measure(
+    final Scenario scenario,
+    final Path directory)
+    throws Exception
+  {
+    System.gc();
+
+    final var heapPools =
+      ManagementFactory.getMemoryPoolMXBeans()
+        .stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .toList();
+    for (final var pool : heapPools) {
+      pool.resetPeakUsage();
+    }
+    resetPeakRss();
+
+    final var gcCountThen = gcCount();
+    final var gcMillisThen = gcMillis();
+    final var timeThen = System.nanoTime();
+    scenario.run.execute(directory);
+    final var timeNow = System.nanoTime();
+
+    final var measurement = new Measurement();
+    measurement.wallMillis =
+      TimeUnit.NANOSECONDS.toMillis(timeNow - timeThen);
+    measurement.peakHeapBytes = peakHeap(heapPools);
+    measurement.peakRssBytes = peakRss();
+    measurement.gcCount = gcCount() - gcCountThen;
+    measurement.gcMillis = gcMillis() - gcMillisThen;
+    return measurement;
+  }
+
+  private static List<String> exceeded(
+    final Properties budgets,
+    final String scenario,
+    final Measurement measurement)
+  {
+    final var exceeded = new ArrayList<String>();
+    for (final var metric : List.of(
+      "wallMillis", "peakHeapBytes", "peakRssBytes", "gcCount")) {
+      final var limit = budgets.getProperty(scenario + "." + metric);
+      if (limit == null) {
+        continue;
+      }
+
+      final var value = measurement.get(metric);
+      if (value > Long.parseLong(limit.trim())) {
+        exceeded.add(new StringBuilder(64)
+                       .append(scenario)
+                       .append(": ")
+                       .append(metric)
+                       .append(" ")
+                       .append(value)
+                       .append(" exceeds ")
+                       .append(limit.trim())
+                       .toString());
+      }
+    }
+    return exceeded;
+  }
+
+  /**
+   * The sum of the peaks of the heap memory pools. The pools may peak at
+   * different times, so this is an upper bound.
+   */
+
+  private static long peakHeap(
+    final List<MemoryPoolMXBean> pools)
+  {
+    var total = 0L;
+    for (final var pool : pools) {
+      final var usage = pool.getPeakUsage();
+      if (usage != null) {
+        total += usage.getUsed();
+      }
+    }
+    return total;
+  }
+
+  private static long gcCount()
+  {
+    var total = 0L;
+    for (final var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0L, gc.getCollectionCount());
+    }
+    return total;
+  }
+
+  private static long gcMillis()
+  {
+    var total = 0L;
+    for (final var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0L, gc.getCollectionTime());
+    }
+    return total;
+  }
+
+  /**
+   * Reset the peak resident set size of the process. This is only possible
+   * on Linux; elsewhere, the peak is that of the whole process.
+   */
+
+  private static void resetPeakRss()
+  {
+    try {
+      Files.writeString(Paths.get("/proc/self/clear_refs"), "5");
+    } catch (final IOException | UnsupportedOperationException e) {
+      // The peak cannot be reset on this platform.
+    }
+  }
+
+  /**
+   * @return The peak resident set size of the process, or -1 if it is not
+   * available on this platform
+   */
+
+  private static long peakRss()
+  {
+    try {
+      for (final var line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+        if (line.startsWith("VmHWM:")) {
+          final var kilobytes =
+            line.substring(6).replace("kB", "").trim();
+          return Long.parseLong(kilobytes) * 1024L;
+        }
+      }
+    } catch (final IOException | NumberFormatException e) {
+      // Not available on this platform.
+    }
+    return -1L;
+  }
+
+  private static String sizeLabel(
+    final int size)
+  {
+    if (size >= 1024 * 1024) {
+      return (size / (1024 * 1024)) + "m";
+    }
+    return (size / 1024) + "k";
+  }
+
+  private static void writeFragment(
+    final Path directory,
+    final int size)
+    throws IOException
+  {
+    final var file = directory.resolve("documentation.xhtml");
+    if (Files.isRegularFile(file)) {
+      return;
+    }
+
+    try (var output = Files.newBufferedWriter(file, UTF_8)) {
+      output.write("<div xmlns=\"http://www.w3.org/1999/xhtml\">\n");
+      var written = 0L;
+      for (int index = 0; written < size; ++index) {
+        final var paragraph =
+          new StringBuilder(96)
+            .append("  <p>Paragraph ")
+            .append(index)
+            .append(" with a <a href=\"https://www.example.com/\">link</a>.</p>\n")
+            .toString();
+        output.write(paragraph);
+        written += paragraph.length();
+      }
+      output.write("</div>\n");
+    }
+  }
+
+  private static void writeChangelog(
+    final Path directory,
+    final int releases)
+    throws IOException
+  {
+    final var file = directory.resolve("changes.xml");
+    if (Files.isRegularFile(file)) {
+      return;
+    }
+
+    try (var output = Files.newBufferedWriter(file, UTF_8)) {
+      output.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      output.write(
+        "<c:changelog xmlns:c=\"urn:com.io7m.changelog:4.0\" project=\"com.io7m.soak\">\n");
+      output.write("  <c:releases>\n");
+      for (int index = 0; index < releases; ++index) {
+        writeRelease(output, index);
+      }
+      output.write("  </c:releases>\n");
+      output.write("  <c:ticket-systems>\n");
+      output.write(
+        "    <c:ticket-system default=\"true\" id=\"t\" url=\"https://www.example.com/issues/\"/>\n");
+      output.write("  </c:ticket-systems>\n");
+      output.write("</c:changelog>\n");
+    }
+  }
+
+  private static void writeRelease(
+    final Writer output,
+    final int index)
+    throws IOException
+  {
+    final var date =
+      LocalDate.of(1900, 1, 1).plusDays(index) + "T00:00:00+00:00";
+
+    output.write(new StringBuilder(128)
+                   .append("    <c:release date=\"")
+                   .append(date)
+                   .append("\" is-open=\"false\" ticket-system=\"t\" version=\"")
+                   .append(index / 10000)
+                   .append('.')
+                   .append(index / 100 % 100)
+                   .append('.')
+                   .append(index % 100)
+                   .append("\">\n")
+                   .toString());
+    output.write("      <c:changes>\n");
+    for (int change = 0; change < 3; ++change) {
+      output.write(new StringBuilder(128)
+                     .append("        <c:change date=\"")
+                     .append(date)
+                     .append("\" summary=\"Change ")
+                     .append(change)
+                     .append(" in release ")
+                     .append(index)
+                     .append(".\"/>\n")
+                     .toString());
+    }
+    output.write("      </c:changes>\n");
+    output.write("    </c:release>\n");
+  }
+
+  private static void writeResources(
+    final Path directory)
+    throws IOException
+  {
+    final var marker = directory.resolve(".complete");
+    if (Files.isRegularFile(marker)) {
+      return;
+    }
+
+    final var content = new byte[256];
+    Arrays.fill(content, (byte) 'x');
+
+    for (int index = 0; index < RESOURCE_FILES; ++index) {
+      final var subdirectory =
+        directory.resolve("d" + index / RESOURCE_FILES_PER_DIRECTORY);
+      if (index % RESOURCE_FILES_PER_DIRECTORY == 0) {
+        Files.createDirectories(subdirectory);
+      }
+      Files.write(subdirectory.resolve("f" + index + ".txt"), content);
+    }
+    Files.createFile(marker);
+  }
+
+  private static void deleteTree(
+    final Path directory)
+    throws IOException
+  {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (var paths = Files.walk(directory)) {
+      final var sorted =
+        paths.sorted((x, y) -> y.getNameCount() - x.getNameCount())
+          .toList();
+      for (final var path : sorted) {
+        Files.delete(path);
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.daemon;
+
+import com.io7m.minisite.daemon.MinDaemon;
+import com.io7m.minisite.daemon.MinDaemonConfiguration;
+import io.takari.maven.testing.TestResources;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.minisite.tests.XHTMLValidation.validate;
+
+public final class MinDaemonLoadTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinDaemonLoadTest.class);
+
+  private static final int JOBS = 200;
+
+  @Rule
+  public final TestResources resources = new TestResources();
+
+  private static URI renderURI(
+    final MinDaemon daemon)
+  {
+    final var address = daemon.address();
+    return URI.create(
+      "http://%s:%d/render".formatted(
+        address.getAddress().getHostAddress(),
+        Integer.valueOf(address.getPort())));
+  }
+
+  private static String job(
+    final File basedir,
+    final File output)
+  {
+    return new StringBuilder(512)
+      .append("project.name=com.io7m.minisite.example\n")
+      .append("project.groupName=com.io7m.minisite\n")
+      .append("project.release=1.0.0\n")
+      .append("project.modules=com.io7m.example.a,com.io7m.example.b\n")
+      .append("overview=").append(new File(basedir, "overview.xhtml")).append('\n')
+      .append("features=").append(new File(basedir, "features.xhtml")).append('\n')
+      .append("documentation=").append(new File(basedir, "documentation.xhtml")).append('\n')
+      .append("changelog.file=").append(new File(basedir, "changes.xml")).append('\n')
+      .append("changelog.feedEmail=nobody@example.com\n")
+      .append("sources.system=Git\n")
+      .append("sources.uri=https://www.github.com/io7m-com/minisite\n")
+      .append("output.directory=").append(output).append('\n')
+      .append("output.feedURI=https://www.io7m.com/software/minisite/releases.atom\n")
+      .toString();
+  }
+
+  @Test
+  public void testConcurrentJobs()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+
+    final var configuration =
+      MinDaemonConfiguration.builder()
+        .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+        .build();
+
+    try (var daemon = MinDaemon.start(configuration)) {
+      final var render = renderURI(daemon);
+
+      final var client = HttpClient.newHttpClient();
+      final var futures =
+        new ArrayList<CompletableFuture<HttpResponse<String>>>(JOBS);
+
+      final var timeThen = System.nanoTime();
+      for (int index = 0; index < JOBS; ++index) {
+        final var output = new File(basedir, "target/site-" + index);
+        final var request =
+          HttpRequest.newBuilder(render)
+            .POST(HttpRequest.BodyPublishers.ofString(job(basedir, output)))
+            .build();
+        futures.add(
+          client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+      }
+
+      for (final var future : futures) {
+        final var response = future.get(60L, TimeUnit.SECONDS);
+        Assert.assertEquals(response.body(), 200, response.statusCode());
+      }
+
+      final var timeNow = System.nanoTime();
+      final var seconds = (double) (timeNow - timeThen) / 1_000_000_000.0;
+      LOG.info(
+        "rendered {} sites in {}s ({} sites/s)",
+        Integer.valueOf(JOBS),
+        String.format("%.3f", Double.valueOf(seconds)),
+        String.format("%.1f", Double.valueOf((double) JOBS / seconds)));
+
+      Assert.assertEquals(JOBS, daemon.jobsCompleted());
+      Assert.assertEquals(0L, daemon.jobsFailed());
+    }
+
+    final var output = new File(basedir, "target/site-0");
+    validate(output, "index.xhtml");
+    Assert.assertTrue(Files.isRegularFile(output.toPath().resolve("minisite.css")));
+    Assert.assertTrue(Files.isRegularFile(output.toPath().resolve("releases.atom")));
+  }
+
+  @Test
+  public void testInvalidJob()
+    throws Exception
+  {
+    final var configuration =
+      MinDaemonConfiguration.builder()
+        .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+        .build();
+
+    try (var daemon = MinDaemon.start(configuration)) {
+      final var render = renderURI(daemon);
+
+      final var response =
+        HttpClient.newHttpClient()
+          .send(
+            HttpRequest.newBuilder(render)
+              .POST(HttpRequest.BodyPublishers.ofString("project.name=x\n"))
+              .build(),
+            HttpResponse.BodyHandlers.ofString());
+
+      Assert.assertEquals(400, response.statusCode());
+      Assert.assertEquals(1L, daemon.jobsFailed());
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.minisite.tests.daemon;
+
+import com.io7m.minisite.core.MinCompressionConfiguration;
+import com.io7m.minisite.core.MinCompressor;
+import com.io7m.minisite.daemon.MinPreviewConfiguration;
+import com.io7m.minisite.daemon.MinPreviewServer;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+public final class MinPreviewServerTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MinPreviewServerTest.class);
+
+  private static final int REQUESTS = 2000;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private MinPreviewServer start(
+    final Path directory)
+    throws Exception
+  {
+    return MinPreviewServer.start(
+      MinPreviewConfiguration.of(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+        directory));
+  }
+
+  private static URI uri(
+    final MinPreviewServer server,
+    final String path)
+  {
+    final var address = server.address();
+    return URI.create(
+      "http://%s:%d%s".formatted(
+        address.getAddress().getHostAddress(),
+        Integer.valueOf(address.getPort()),
+        path));
+  }
+
+  private Path site()
+    throws Exception
+  {
+    final var directory = this.folder.getRoot().toPath();
+    Files.writeString(
+      directory.resolve("index.xhtml"),
+      "<html xmlns=\"http://www.w3.org/1999/xhtml\"><p>Text.</p></html>\n"
+        .repeat(100));
+    Files.writeString(directory.resolve("minisite.css"), "p {}\n");
+    MinCompressor.compress(MinCompressionConfiguration.of(directory));
+    return directory;
+  }
+
+  @Test
+  public void testConditional()
+    throws Exception
+  {
+    try (var server = this.start(this.site())) {
+      final var client = HttpClient.newHttpClient();
+
+      final var response0 =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/")).build(),
+          HttpResponse.BodyHandlers.ofString());
+
+      Assert.assertEquals(200, response0.statusCode());
+      Assert.assertEquals(
+        "application/xhtml+xml; charset=utf-8",
+        response0.headers().firstValue("Content-Type").orElseThrow());
+
+      final var tag =
+        response0.headers().firstValue("ETag").orElseThrow();
+      Assert.assertTrue(tag, tag.startsWith("\""));
+
+      final var response1 =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .header("If-None-Match", tag)
+            .build(),
+          HttpResponse.BodyHandlers.ofString());
+
+      Assert.assertEquals(304, response1.statusCode());
+      Assert.assertEquals("", response1.body());
+
+      final var weak =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .header("If-None-Match", "\"other\", W/" + tag)
+            .build(),
+          HttpResponse.BodyHandlers.ofString());
+
+      Assert.assertEquals(304, weak.statusCode());
+
+      final var response2 =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .header("If-None-Match", "\"other\"")
+            .build(),
+          HttpResponse.BodyHandlers.ofString());
+
+      Assert.assertEquals(200, response2.statusCode());
+    }
+  }
+
+  @Test
+  public void testGzip()
+    throws Exception
+  {
+    final var directory = this.site();
+    try (var server = this.start(directory)) {
+      final var client = HttpClient.newHttpClient();
+
+      final var plain =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml")).build(),
+          HttpResponse.BodyHandlers.ofByteArray());
+
+      final var compressed =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .header("Accept-Encoding", "br, gzip")
+            .build(),
+          HttpResponse.BodyHandlers.ofInputStream());
+
+      Assert.assertEquals(200, compressed.statusCode());
+      Assert.assertEquals(
+        "gzip",
+        compressed.headers().firstValue("Content-Encoding").orElseThrow());
+      Assert.assertNotEquals(
+        plain.headers().firstValue("ETag").orElseThrow(),
+        compressed.headers().firstValue("ETag").orElseThrow());
+
+      try (var input = new GZIPInputStream(compressed.body())) {
+        Assert.assertArrayEquals(plain.body(), input.readAllBytes());
+      }
+
+      final var refused =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .header("Accept-Encoding", "gzip;q=0")
+            .build(),
+          HttpResponse.BodyHandlers.ofByteArray());
+
+      Assert.assertTrue(
+        refused.headers().firstValue("Content-Encoding").isEmpty());
+      Assert.assertArrayEquals(plain.body(), refused.body());
+    }
+  }
+
+  @Test
+  public void testNotFound()
+    throws Exception
+  {
+    try (var server = this.start(this.site())) {
+      final var client = HttpClient.newHttpClient();
+
+      for (final var path : new String[]{
+        "/missing.xhtml",
+        "/%2e%2e/%2e%2e/etc/passwd",
+      }) {
+        final var response =
+          client.send(
+            HttpRequest.newBuilder(uri(server, path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals(path, 404, response.statusCode());
+      }
+
+      final var response =
+        client.send(
+          HttpRequest.newBuilder(uri(server, "/index.xhtml"))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build(),
+          HttpResponse.BodyHandlers.ofString());
+      Assert.assertEquals(405, response.statusCode());
+    }
+  }
+
+  @Test
+  public void testPlusInName()
+    throws Exception
+  {
+    final var directory = this.site();
+    Files.writeString(directory.resolve("c++.txt"), "Text.\n");
+
+    try (var server = this.start(directory)) {
+      final var client = HttpClient.newHttpClient();
+
+      for (final var path : new String[]{"/c++.txt", "/c%2B%2B.txt"}) {
+        final var response =
+          client.send(
+            HttpRequest.newBuilder(uri(server, path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals(path, 200, response.statusCode());
+        Assert.assertEquals("Text.\n", response.body());
+      }
+    }
+  }
+
+  @Test
+  public void testLoad()
+    throws Exception
+  {
+    try (var server = this.start(this.site())) {
+      final var client = HttpClient.newHttpClient();
+      final var index = uri(server, "/index.xhtml");
+
+      final var tag =
+        client.send(
+            HttpRequest.newBuilder(index)
+              .header("Accept-Encoding", "gzip")
+              .build(),
+            HttpResponse.BodyHandlers.discarding())
+          .headers()
+          .firstValue("ETag")
+          .orElseThrow();
+
+      for (final var conditional : new boolean[]{false, true}) {
+        final var futures =
+          new ArrayList<CompletableFuture<HttpResponse<Void>>>(REQUESTS);
+
+        final var timeThen = System.nanoTime();
+        for (int request = 0; request < REQUESTS; ++request) {
+          final var builder =
+            HttpRequest.newBuilder(index)
+              .header("Accept-Encoding", "gzip");
+          if (conditional) {
+            builder.header("If-None-Match", tag);
+          }
+          futures.add(
+            client.sendAsync(
+              builder.build(), HttpResponse.BodyHandlers.discarding()));
+        }
+
+        for (final var future : futures) {
+          final var response = future.get(60L, TimeUnit.SECONDS);
+          Assert.assertEquals(conditional ? 304 : 200, response.statusCode());
+        }
+
+        final var timeNow = System.nanoTime();
+        final var seconds = (double) (timeNow - timeThen) / 1_000_000_000.0;
+        LOG.info(
+          "served {} {} requests in {}s ({} requests/s)",
+          Integer.valueOf(REQUESTS),
+          conditional ? "conditional" : "unconditional",
+          String.format("%.3f", Double.valueOf(seconds)),
+          String.format("%.1f", Double.valueOf((double) REQUESTS / seconds)));
+      }
+    }
+  }
+}
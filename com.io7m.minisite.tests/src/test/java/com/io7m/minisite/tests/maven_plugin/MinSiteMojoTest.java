@@ -19,6 +19,7 @@ package com.io7m.minisite.tests.maven_plugin;
 import io.takari.maven.testing.TestMavenRuntime;
 import io.takari.maven.testing.TestResources;
 import org.apache.maven.plugin.MojoFailureException;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,10 +31,16 @@ import org.xml.sax.InputSource;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPathFactory;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
 
 import static com.io7m.minisite.tests.XHTMLValidation.validate;
 import static io.takari.maven.testing.TestResources.assertFilesNotPresent;
@@ -344,6 +351,333 @@ public final class MinSiteMojoTest
     validate(basedir, "target/minisite/index.xhtml");
   }
 
+  @Test
+  public void testStreamingIdentical()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    this.maven.executeMojo(basedir, "generateSite");
+    this.maven.executeMojo(
+      basedir,
+      "generateSite",
+      TestMavenRuntime.newParameter("streaming", "true"),
+      TestMavenRuntime.newParameter(
+        "outputDirectory",
+        basedir.toPath().resolve("target/minisite-streaming").toString())
+    );
+
+    assertFilesPresent(basedir, "target/minisite/index.xhtml");
+    assertFilesPresent(basedir, "target/minisite-streaming/index.xhtml");
+
+    final var base = basedir.toPath();
+    Assert.assertArrayEquals(
+      Files.readAllBytes(base.resolve("target/minisite/index.xhtml")),
+      Files.readAllBytes(base.resolve("target/minisite-streaming/index.xhtml"))
+    );
+
+    validate(basedir, "target/minisite/index.xhtml");
+    validate(basedir, "target/minisite-streaming/index.xhtml");
+  }
+
+  @Test
+  public void testIncrementalUnchanged()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var incremental =
+      TestMavenRuntime.newParameter("incremental", "true");
+
+    this.maven.executeMojo(basedir, "generateSite", incremental);
+    assertFilesPresent(basedir, "target/minisite/.minisite-manifest");
+
+    final var base = basedir.toPath();
+    final var index = base.resolve("target/minisite/index.xhtml");
+    final var css = base.resolve("target/minisite/minisite.css");
+    final var atom = base.resolve("target/minisite/releases.atom");
+    final var old = FileTime.fromMillis(1_000_000_000_000L);
+    Files.setLastModifiedTime(index, old);
+    Files.setLastModifiedTime(css, old);
+    Files.setLastModifiedTime(atom, old);
+
+    this.maven.executeMojo(basedir, "generateSite", incremental);
+    Assert.assertEquals(old, Files.getLastModifiedTime(index));
+    Assert.assertEquals(old, Files.getLastModifiedTime(css));
+    Assert.assertEquals(old, Files.getLastModifiedTime(atom));
+
+    Files.writeString(
+      base.resolve("overview.xhtml"),
+      "<div xmlns=\"http://www.w3.org/1999/xhtml\"><p>Changed.</p></div>");
+
+    this.maven.executeMojo(basedir, "generateSite", incremental);
+    Assert.assertNotEquals(old, Files.getLastModifiedTime(index));
+    Assert.assertEquals(old, Files.getLastModifiedTime(css));
+    Assert.assertEquals(old, Files.getLastModifiedTime(atom));
+    Assert.assertEquals(
+      "Changed.", xpathOn(index, "//*[@class='overview_content_area']"));
+
+    validate(basedir, "target/minisite/index.xhtml");
+  }
+
+  @Test
+  public void testResourcesRepeated()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    this.maven.executeMojo(basedir, "generateSite");
+    assertFilesPresent(basedir, "target/minisite/.gitignore");
+
+    this.maven.executeMojo(
+      basedir,
+      "generateSite",
+      TestMavenRuntime.newParameter("resourceCopyMode", "HARD_LINK"),
+      TestMavenRuntime.newParameter("resourceComparison", "CONTENT")
+    );
+    assertFilesPresent(basedir, "target/minisite/.gitignore");
+
+    final var base = basedir.toPath();
+    Assert.assertArrayEquals(
+      Files.readAllBytes(base.resolve("src/site/resources/.gitignore")),
+      Files.readAllBytes(base.resolve("target/minisite/.gitignore"))
+    );
+  }
+
+  @Test
+  public void testReport()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var incremental =
+      TestMavenRuntime.newParameter("incremental", "true");
+    final var enabled =
+      TestMavenRuntime.newParameter("report", "true");
+    final var report =
+      basedir.toPath().resolve("target/minisite/minisite-report.json");
+
+    this.maven.executeMojo(basedir, "generateSite", incremental, enabled);
+
+    final var first = Files.readString(report);
+    Assert.assertTrue(first.contains("\"peakHeapBytes\": "));
+    Assert.assertTrue(first.contains(
+      "{\"name\": \"index.xhtml\", \"status\": \"regenerated\""));
+    Assert.assertTrue(first.contains(
+      "{\"name\": \".gitignore\", \"status\": \"copied\""));
+
+    this.maven.executeMojo(basedir, "generateSite", incremental, enabled);
+
+    final var second = Files.readString(report);
+    Assert.assertTrue(second.contains(
+      "{\"name\": \"index.xhtml\", \"status\": \"skipped\""));
+    Assert.assertTrue(second.contains(
+      "{\"name\": \"resources\", \"status\": \"skipped\""));
+
+    Files.delete(report);
+    this.maven.executeMojo(basedir, "generateSite");
+    assertFilesNotPresent(basedir, "target/minisite/minisite-report.json");
+  }
+
+  @Test
+  public void testReportCompressed()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var output = basedir.toPath().resolve("target/minisite");
+
+    for (int index = 0; index < 2; ++index) {
+      this.maven.executeMojo(
+        basedir,
+        "generateSite",
+        TestMavenRuntime.newParameter("report", "true"),
+        TestMavenRuntime.newParameter("gzip", "true"),
+        TestMavenRuntime.newParameter("gzipMinimumSize", "0"));
+    }
+
+    final var report = output.resolve("minisite-report.json");
+    try (var stream = new GZIPInputStream(
+      Files.newInputStream(output.resolve("minisite-report.json.gz")))) {
+      Assert.assertArrayEquals(
+        Files.readAllBytes(report),
+        stream.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testFingerprintIncrementalUnchanged()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var output = basedir.toPath().resolve("target/minisite");
+    final var parameters = new Xpp3Dom[]{
+      TestMavenRuntime.newParameter("fingerprint", "true"),
+      TestMavenRuntime.newParameter("incremental", "true"),
+      TestMavenRuntime.newParameter("gzip", "true"),
+    };
+
+    this.maven.executeMojo(basedir, "generateSite", parameters);
+    final var times = lastModifiedTimes(output);
+    Assert.assertTrue(
+      times.keySet().stream().anyMatch(
+        file -> file.toString().matches("minisite\\.[0-9a-f]+\\.css")));
+
+    Thread.sleep(1000L);
+    this.maven.executeMojo(basedir, "generateSite", parameters);
+    Assert.assertEquals(times, lastModifiedTimes(output));
+  }
+
+  private static Map<Path, FileTime> lastModifiedTimes(
+    final Path directory)
+    throws IOException
+  {
+    final var times = new TreeMap<Path, FileTime>();
+    try (var stream = Files.walk(directory)) {
+      for (final var file : stream.filter(Files::isRegularFile).toList()) {
+        times.put(directory.relativize(file), Files.getLastModifiedTime(file));
+      }
+    }
+    return times;
+  }
+
+  @Test
+  public void testReproducibleIdentical()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var base = basedir.toPath();
+    final var outputA = base.resolve("target/minisite-a");
+    final var outputB = base.resolve("target/minisite-b");
+
+    for (final var output : List.of(outputA, outputB)) {
+      this.maven.executeMojo(
+        basedir,
+        "generateSite",
+        TestMavenRuntime.newParameter("reproducible", "true"),
+        TestMavenRuntime.newParameter("gzip", "true"),
+        TestMavenRuntime.newParameter("outputDirectory", output.toString())
+      );
+    }
+
+    final List<Path> files;
+    try (var stream = Files.walk(outputA)) {
+      files = stream.filter(Files::isRegularFile)
+        .map(outputA::relativize)
+        .sorted()
+        .toList();
+    }
+
+    Assert.assertTrue(files.contains(Path.of("index.xhtml")));
+    Assert.assertTrue(files.contains(Path.of("releases.atom")));
+    for (final var file : files) {
+      Assert.assertArrayEquals(
+        file.toString(),
+        Files.readAllBytes(outputA.resolve(file)),
+        Files.readAllBytes(outputB.resolve(file))
+      );
+    }
+
+    try (var stream = Files.walk(outputB)) {
+      Assert.assertEquals(
+        files.size(),
+        stream.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  public void testChangelogArchive()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var output = basedir.toPath().resolve("target/minisite");
+    final var embedded =
+      TestMavenRuntime.newParameter("changelogEmbeddedReleases", "1");
+
+    this.maven.executeMojo(basedir, "generateSite", embedded);
+    assertFilesPresent(basedir, "target/minisite/changes.xhtml");
+    assertFilesPresent(basedir, "target/minisite/changes-2000.xhtml");
+
+    final var page = output.resolve("changes-2000.xhtml");
+    Assert.assertEquals(
+      "true", xpathOn(page, "//@id=\"changes\""));
+    Assert.assertEquals(
+      "true", xpathOn(output.resolve("changes.xhtml"),
+                      "//*[@href=\"changes-2000.xhtml\"]"));
+
+    validate(basedir, "target/minisite/changes.xhtml");
+    validate(basedir, "target/minisite/changes-2000.xhtml");
+
+    final var time = Files.getLastModifiedTime(page);
+    Thread.sleep(1000L);
+    this.maven.executeMojo(basedir, "generateSite", embedded);
+    Assert.assertEquals(time, Files.getLastModifiedTime(page));
+  }
+
+  @Test
+  public void testAtomArchive()
+    throws Exception
+  {
+    final var basedir = this.resources.getBasedir("optional_files");
+    final var output = basedir.toPath().resolve("target/minisite");
+    final var changes = basedir.toPath().resolve("changes-many.xml");
+
+    final var text = new StringBuilder(1024);
+    text.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    text.append(
+      "<c:changelog xmlns:c=\"urn:com.io7m.changelog:4.0\" project=\"minisite\">\n");
+    text.append("  <c:releases>\n");
+    for (int index = 0; index < 5; ++index) {
+      text.append(String.format(
+        "    <c:release date=\"2000-01-0%dT00:00:00+00:00\" ticket-system=\"t\" version=\"1.0.%d\">\n",
+        Integer.valueOf(index + 1),
+        Integer.valueOf(index)));
+      text.append("      <c:changes>\n");
+      text.append(String.format(
+        "        <c:change date=\"2000-01-0%dT00:00:00+00:00\" summary=\"Release %d.\"/>\n",
+        Integer.valueOf(index + 1),
+        Integer.valueOf(index)));
+      text.append("      </c:changes>\n");
+      text.append("    </c:release>\n");
+    }
+    text.append("  </c:releases>\n");
+    text.append("  <c:ticket-systems>\n");
+    text.append(
+      "    <c:ticket-system default=\"true\" id=\"t\" url=\"https://www.example.com/\"/>\n");
+    text.append("  </c:ticket-systems>\n");
+    text.append("</c:changelog>\n");
+    Files.writeString(changes, text.toString());
+
+    final var parameters = new Xpp3Dom[]{
+      TestMavenRuntime.newParameter("changelogFile", "changes-many.xml"),
+      TestMavenRuntime.newParameter("changelogFeedEntries", "2"),
+    };
+
+    this.maven.executeMojo(basedir, "generateSite", parameters);
+    assertFilesPresent(basedir, "target/minisite/releases.atom");
+    assertFilesPresent(basedir, "target/minisite/releases-1.atom");
+    assertFilesPresent(basedir, "target/minisite/releases-2.atom");
+    assertFilesNotPresent(basedir, "target/minisite/releases-3.atom");
+
+    final var feed = output.resolve("releases.atom");
+    Assert.assertEquals(
+      "1", xpathOn(feed, "count(//*[local-name()=\"entry\"])"));
+    Assert.assertTrue(
+      xpathOn(feed, "//*[@rel=\"prev-archive\"]/@href")
+        .endsWith("/releases-2.atom"));
+
+    final var archive = output.resolve("releases-1.atom");
+    Assert.assertEquals(
+      "2", xpathOn(archive, "count(//*[local-name()=\"entry\"])"));
+    Assert.assertEquals(
+      "true", xpathOn(archive, "boolean(//*[local-name()=\"archive\"])"));
+    Assert.assertEquals(
+      "false", xpathOn(archive, "boolean(//*[@rel=\"prev-archive\"])"));
+    Assert.assertTrue(
+      xpathOn(archive, "//*[@rel=\"next-archive\"]/@href")
+        .endsWith("/releases-2.atom"));
+
+    final var time = Files.getLastModifiedTime(archive);
+    Thread.sleep(1000L);
+    this.maven.executeMojo(basedir, "generateSite", parameters);
+    Assert.assertEquals(time, Files.getLastModifiedTime(archive));
+  }
+
   public static final class NoOpEntityResolver implements EntityResolver
   {
     @Override